@@ -0,0 +1,90 @@
+package com.mobiquityinc.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Seeded generator of the benchmark inputs, so every run measures the same
+ * data.
+ * 
+ * @author dfjmax
+ *
+ */
+public final class BenchmarkInputs {
+
+	/**
+	 * Seed used by every benchmark.
+	 */
+	public static final long seed = 20190401L;
+
+	private BenchmarkInputs() {
+	}
+
+	/**
+	 * Generates an input line with random items.
+	 * 
+	 * @param random    the random generator
+	 * @param itemCount the number of items of the line
+	 * @return the input line
+	 */
+	public static String line(Random random, int itemCount) {
+		StringBuilder sb = new StringBuilder().append(1 + random.nextInt(100)).append(" :");
+		for (int index = 1; index <= itemCount; index++) {
+			sb.append(String.format(Locale.ROOT, " (%d,%.2f,€%d)", index, random.nextFloat() * 100,
+					random.nextInt(101)));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Generates an {@link ItemPackage} with random items that do not fit all in
+	 * the package.
+	 * 
+	 * @param random    the random generator
+	 * @param itemCount the number of items of the package
+	 * @param maxWeight the package max weight
+	 * @return the item package
+	 */
+	public static ItemPackage itemPackage(Random random, int itemCount, int maxWeight) {
+		List<Item> items = new ArrayList<>(itemCount);
+		for (int index = 1; index <= itemCount; index++) {
+			items.add(new Item(index, 1 + random.nextFloat() * (maxWeight - 1), random.nextInt(101)));
+		}
+		return new ItemPackage(maxWeight, items);
+	}
+
+	/**
+	 * Writes a temporary test cases file with random lines of up to 15 items.
+	 * 
+	 * @param lines the number of lines
+	 * @return the file path
+	 */
+	public static Path file(int lines) {
+		Random random = new Random(seed);
+		try {
+			Path file = Files.createTempFile("packer-benchmark", ".txt");
+			try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+				for (int line = 0; line < lines; line++) {
+					writer.write(line(random, 1 + random.nextInt(15)));
+					writer.newLine();
+				}
+			}
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
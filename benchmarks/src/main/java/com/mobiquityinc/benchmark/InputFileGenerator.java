@@ -0,0 +1,367 @@
+package com.mobiquityinc.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+import com.mobiquityinc.model.PackageLimits;
+
+/**
+ * Seeded generator of test cases files of any size, written line by line so
+ * the memory used does not depend on the file size.
+ * 
+ * Every line has a uniform number of items, a uniform max weight and items
+ * with uniform weights, with the given decimals, and uniform whole costs. A
+ * fraction of the lines repeat one of the last lines written, and another
+ * fraction are invalid lines, which are rejected by the parser.
+ * 
+ * Usage: outputFile [--lines count] [--size bytes[k|m|g]] [--seed seed]
+ * [--items min-max] [--capacity min-max] [--weights min-max] [--decimals
+ * count] [--costs min-max] [--duplicates rate] [--invalid rate]
+ * 
+ * @author dfjmax
+ *
+ */
+public class InputFileGenerator {
+
+	/**
+	 * Number of recent lines that can be repeated.
+	 */
+	private static final int recentLineCount = 1024;
+
+	private final Random random;
+	private int minItems = 1;
+	private int maxItems = 15;
+	private int minCapacity = 1;
+	private int maxCapacity = 100;
+	private int minWeight = 0;
+	private int maxWeight = 100;
+	private int decimals = 2;
+	private int minCost = 0;
+	private int maxCost = 100;
+	private double duplicateRate = 0;
+	private double invalidRate = 0;
+
+	// Valid lines written, the last ones are kept to be repeated
+	private final String[] recentLines = new String[recentLineCount];
+	private long storedLines = 0;
+	private long duplicateLines = 0;
+	private long invalidLines = 0;
+
+	/**
+	 * Creates a generator of lines with up to 15 items, max weights, item weights
+	 * and costs up to 100, weights with two decimals, and no duplicate or invalid
+	 * lines.
+	 * 
+	 * @param seed the seed of the random generator
+	 */
+	public InputFileGenerator(long seed) {
+		super();
+		this.random = new Random(seed);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("No output file!");
+			return;
+		}
+		InputFileGenerator generator = new InputFileGenerator(BenchmarkInputs.seed);
+		long lines = 0;
+		long bytes = 0;
+		for (int i = 1; i + 1 < args.length; i += 2) {
+			if ("--lines".equals(args[i])) {
+				lines = Long.parseLong(args[i + 1]);
+			} else if ("--size".equals(args[i])) {
+				bytes = parseSize(args[i + 1]);
+			} else {
+				generator.configure(args[i], args[i + 1]);
+			}
+		}
+		if (lines <= 0 && bytes <= 0) {
+			lines = 1000000;
+		}
+
+		Path outputFile = Paths.get(args[0]);
+		long start = System.nanoTime();
+		long written;
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(outputFile), UTF_8),
+				1 << 20)) {
+			written = generator.write(writer, lines, bytes);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format(Locale.ROOT,
+				"%d lines, %d bytes in %.2f s: %d duplicate lines, %d invalid lines", written, Files.size(outputFile),
+				seconds, generator.duplicateLines, generator.invalidLines));
+	}
+
+	/**
+	 * Sets a distribution from a command line option.
+	 * 
+	 * @param option the option name
+	 * @param value  the option value
+	 * 
+	 * @throws IllegalArgumentException when the option is unknown or the value is
+	 *                                  invalid
+	 */
+	public void configure(String option, String value) {
+		switch (option) {
+		case "--seed":
+			this.random.setSeed(Long.parseLong(value));
+			break;
+		case "--items":
+			int[] items = parseRange(value);
+			setItems(items[0], items[1]);
+			break;
+		case "--capacity":
+			int[] capacity = parseRange(value);
+			setCapacity(capacity[0], capacity[1]);
+			break;
+		case "--weights":
+			int[] weights = parseRange(value);
+			setWeights(weights[0], weights[1], this.decimals);
+			break;
+		case "--decimals":
+			setWeights(this.minWeight, this.maxWeight, Integer.parseInt(value));
+			break;
+		case "--costs":
+			int[] costs = parseRange(value);
+			setCosts(costs[0], costs[1]);
+			break;
+		case "--duplicates":
+			setDuplicateRate(Double.parseDouble(value));
+			break;
+		case "--invalid":
+			setInvalidRate(Double.parseDouble(value));
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown option " + option);
+		}
+	}
+
+	/**
+	 * Sets the number of items of every line, uniform between the limits.
+	 * 
+	 * @param min the min number of items
+	 * @param max the max number of items
+	 */
+	public void setItems(int min, int max) {
+		// Lines without items are not valid
+		checkRange(1, min, max);
+		this.minItems = min;
+		this.maxItems = max;
+	}
+
+	/**
+	 * Sets the max weight of every line, uniform between the limits.
+	 * 
+	 * @param min the min max weight
+	 * @param max the max max weight
+	 */
+	public void setCapacity(int min, int max) {
+		checkRange(0, min, max);
+		this.minCapacity = min;
+		this.maxCapacity = max;
+	}
+
+	/**
+	 * Sets the weight of every item, uniform between the limits with the given
+	 * decimals.
+	 * 
+	 * @param min      the min weight
+	 * @param max      the max weight
+	 * @param decimals the decimals of the weights, up to 4
+	 */
+	public void setWeights(int min, int max, int decimals) {
+		checkRange(0, min, max);
+		if (decimals < 0 || decimals > 4) {
+			throw new IllegalArgumentException("The decimals should be between 0 and 4.");
+		}
+		this.minWeight = min;
+		this.maxWeight = max;
+		this.decimals = decimals;
+	}
+
+	/**
+	 * Sets the cost of every item, uniform between the limits.
+	 * 
+	 * @param min the min cost
+	 * @param max the max cost
+	 */
+	public void setCosts(int min, int max) {
+		checkRange(0, min, max);
+		this.minCost = min;
+		this.maxCost = max;
+	}
+
+	/**
+	 * Sets the fraction of lines repeating one of the last lines written.
+	 * 
+	 * @param rate the fraction of duplicate lines
+	 */
+	public void setDuplicateRate(double rate) {
+		checkRate(rate);
+		this.duplicateRate = rate;
+	}
+
+	/**
+	 * Sets the fraction of invalid lines.
+	 * 
+	 * @param rate the fraction of invalid lines
+	 */
+	public void setInvalidRate(double rate) {
+		checkRate(rate);
+		this.invalidRate = rate;
+	}
+
+	/**
+	 * Writes lines until there are enough lines or bytes.
+	 * 
+	 * @param writer   the writer of the lines
+	 * @param maxLines the number of lines, 0 for no limit
+	 * @param maxBytes the number of bytes, 0 for no limit, the last line may end
+	 *                 after it
+	 * @return the number of lines written
+	 * @throws IOException when the lines can not be written
+	 */
+	public long write(Writer writer, long maxLines, long maxBytes) throws IOException {
+		if (maxLines <= 0 && maxBytes <= 0) {
+			throw new IllegalArgumentException("The number of lines or bytes should be set.");
+		}
+		StringBuilder sb = new StringBuilder();
+		long lines = 0;
+		long bytes = 0;
+		while ((maxLines <= 0 || lines < maxLines) && (maxBytes <= 0 || bytes < maxBytes)) {
+			String line = nextLine(sb);
+			writer.write(line);
+			writer.write('\n');
+			lines++;
+			bytes += utf8Length(line) + 1;
+		}
+		return lines;
+	}
+
+	/**
+	 * Generates the next line.
+	 */
+	private String nextLine(StringBuilder sb) {
+		double draw = this.random.nextDouble();
+		if (draw < this.invalidRate) {
+			this.invalidLines++;
+			return invalidLine(sb);
+		}
+		if (draw < this.invalidRate + this.duplicateRate && this.storedLines > 0) {
+			this.duplicateLines++;
+			int recentLines = (int) Math.min(this.storedLines, recentLineCount);
+			return this.recentLines[(int) ((this.storedLines - 1 - this.random.nextInt(recentLines))
+					% recentLineCount)];
+		}
+		String line = validLine(sb);
+		this.recentLines[(int) (this.storedLines++ % recentLineCount)] = line;
+		return line;
+	}
+
+	private String validLine(StringBuilder sb) {
+		sb.setLength(0);
+		sb.append(uniform(this.minCapacity, this.maxCapacity)).append(" :");
+		int items = uniform(this.minItems, this.maxItems);
+		for (int index = 1; index <= items; index++) {
+			sb.append(" (").append(index).append(',');
+			appendWeight(sb);
+			sb.append(",€").append(uniform(this.minCost, this.maxCost)).append(')');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Generates a line rejected by the parser, which validates the beginning of
+	 * the lines: without the max weight separator, with a negative weight in the
+	 * first item, or with a max weight above any limit.
+	 */
+	private String invalidLine(StringBuilder sb) {
+		String line = validLine(sb);
+		switch (this.random.nextInt(3)) {
+		case 0:
+			return line.replace(" :", "");
+		case 1:
+			int separator = line.indexOf(':') + 1;
+			return line.substring(0, separator) + " (0,-1,€1)" + line.substring(separator);
+		default:
+			return (PackageLimits.maxLimit + 1) + line.substring(line.indexOf(' '));
+		}
+	}
+
+	/**
+	 * Appends a weight between the limits with the configured decimals.
+	 */
+	private void appendWeight(StringBuilder sb) {
+		int scale = 1;
+		for (int i = 0; i < this.decimals; i++) {
+			scale *= 10;
+		}
+		long scaledWeight = this.minWeight * (long) scale
+				+ (long) (this.random.nextDouble() * ((this.maxWeight - this.minWeight) * (long) scale + 1));
+		sb.append(scaledWeight / scale);
+		if (this.decimals > 0) {
+			sb.append('.');
+			String fraction = Long.toString(scaledWeight % scale);
+			for (int i = fraction.length(); i < this.decimals; i++) {
+				sb.append('0');
+			}
+			sb.append(fraction);
+		}
+	}
+
+	/**
+	 * Gets the UTF-8 length of a line, where the euro sign takes 3 bytes.
+	 */
+	private static int utf8Length(String line) {
+		int length = line.length();
+		for (int i = 0; i < line.length(); i++) {
+			if (line.charAt(i) == '€') {
+				length += 2;
+			}
+		}
+		return length;
+	}
+
+	private int uniform(int min, int max) {
+		return min + (int) (this.random.nextDouble() * ((long) max - min + 1));
+	}
+
+	private static int[] parseRange(String value) {
+		int separator = value.indexOf('-');
+		if (separator < 0) {
+			int bound = Integer.parseInt(value);
+			return new int[] { bound, bound };
+		}
+		return new int[] { Integer.parseInt(value.substring(0, separator)),
+				Integer.parseInt(value.substring(separator + 1)) };
+	}
+
+	private static long parseSize(String value) {
+		char unit = Character.toLowerCase(value.charAt(value.length() - 1));
+		int shift = unit == 'k' ? 10 : unit == 'm' ? 20 : unit == 'g' ? 30 : 0;
+		return Long.parseLong(shift == 0 ? value : value.substring(0, value.length() - 1)) << shift;
+	}
+
+	private static void checkRange(int lowest, int min, int max) {
+		if (min < lowest || max < min) {
+			throw new IllegalArgumentException("Invalid range " + min + "-" + max);
+		}
+	}
+
+	private static void checkRate(double rate) {
+		if (rate < 0 || rate > 1) {
+			throw new IllegalArgumentException("The rate should be between 0 and 1.");
+		}
+	}
+
+}
@@ -0,0 +1,362 @@
+package com.mobiquityinc.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.LatencyHistogram;
+import com.mobiquityinc.packer.Packer;
+import com.mobiquityinc.reader.LineParser;
+
+/**
+ * Runs the packing pipeline on a test cases file, for example one written by
+ * the {@link InputFileGenerator}, and reports the lines per second, the
+ * latency percentiles of every line, the peak heap used and the GC time.
+ * 
+ * The modes are the ones of the application: lines, the default, packs every
+ * line on its own with {@link Packer#packLine(String)}, so the latency of each
+ * line is measured and invalid lines are counted instead of stopping the run;
+ * file writes the results as they are solved with
+ * {@link Packer#pack(String, Writer)}; parallel and mmap write them in order as
+ * each batch or chunk is solved with {@link Packer#pack(String, int, Writer)}
+ * and {@link Packer#packMappedFile(String, int, Writer)}. The whole file modes
+ * stop at the first invalid line, so files with invalid lines are refused
+ * before the run, and their latency is the time between consecutive results,
+ * the one seen by a reader of the output: the time of each package in the
+ * file mode, and the wait for the next batch or chunk in the parallel modes.
+ * 
+ * The results can be saved as a baseline, and compared with a saved baseline:
+ * the run fails, with exit code 1, when the throughput is lower, or the
+ * latencies, peak heap or GC time are higher, than the baseline by more than
+ * the tolerance, or when the results are different.
+ * 
+ * Usage: inputFile [--mode lines|file|parallel|mmap] [--parallelism count]
+ * [--baseline file] [--save-baseline file] [--tolerance fraction]
+ * 
+ * @author dfjmax
+ *
+ */
+public class LoadTestDriver {
+
+	/**
+	 * GC time under this difference is not a regression, short collections vary
+	 * too much between runs.
+	 */
+	private static final long gcMillisSlack = 50;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("No input file!");
+			return;
+		}
+		String mode = "lines";
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		Path baselineFile = null;
+		Path savedBaselineFile = null;
+		double tolerance = 0.1;
+		for (int i = 1; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value of option " + args[i]);
+			}
+			switch (args[i]) {
+			case "--mode":
+				mode = args[i + 1];
+				break;
+			case "--parallelism":
+				parallelism = Integer.parseInt(args[i + 1]);
+				break;
+			case "--baseline":
+				baselineFile = Paths.get(args[i + 1]);
+				break;
+			case "--save-baseline":
+				savedBaselineFile = Paths.get(args[i + 1]);
+				break;
+			case "--tolerance":
+				tolerance = Double.parseDouble(args[i + 1]);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		Properties results = run(args[0], mode, parallelism);
+		System.out.println(String.format(Locale.ROOT,
+				"%s lines (%s invalid) in %.2f s: %.0f lines/s, latency p50 %.3f ms, p99 %.3f ms, "
+						+ "peak heap %.1f MB, GC %s ms in %s collections, results checksum %s",
+				results.getProperty("lines"), results.getProperty("invalidLines"),
+				Long.parseLong(results.getProperty("elapsedNanos")) / 1e9,
+				Double.parseDouble(results.getProperty("linesPerSecond")),
+				Long.parseLong(results.getProperty("p50Nanos")) / 1e6,
+				Long.parseLong(results.getProperty("p99Nanos")) / 1e6,
+				Long.parseLong(results.getProperty("peakHeapBytes")) / (1024.0 * 1024),
+				results.getProperty("gcMillis"), results.getProperty("gcCount"), results.getProperty("checksum")));
+
+		if (savedBaselineFile != null) {
+			try (OutputStream output = Files.newOutputStream(savedBaselineFile)) {
+				results.store(output, "Load test baseline of " + args[0]);
+			}
+		}
+		if (baselineFile != null) {
+			Properties baseline = new Properties();
+			try (InputStream input = Files.newInputStream(baselineFile)) {
+				baseline.load(input);
+			}
+			List<String> regressions = regressions(baseline, results, tolerance);
+			if (!regressions.isEmpty()) {
+				regressions.forEach(System.out::println);
+				System.exit(1);
+			}
+			System.out.println("No regressions against " + baselineFile);
+		}
+	}
+
+	/**
+	 * Runs a mode on a file.
+	 * 
+	 * @param inputFile   the test cases file
+	 * @param mode        the mode: lines, file, parallel or mmap
+	 * @param parallelism the max number of packages solved at the same time in the
+	 *                    parallel modes
+	 * @return the results of the run
+	 * @throws IOException when the file can not be read
+	 */
+	public static Properties run(String inputFile, String mode, int parallelism) throws IOException {
+		if (!"lines".equals(mode)) {
+			long invalidLines = invalidLines(inputFile);
+			if (invalidLines > 0) {
+				throw new IllegalArgumentException(String.format(Locale.ROOT,
+						"%s has %d invalid lines and the %s mode stops at the first one, use the lines mode",
+						inputFile, invalidLines, mode));
+			}
+		}
+		LatencyHistogram latencies = new LatencyHistogram();
+		long invalidLines = 0;
+
+		// Starts from an empty heap, the collection is not counted
+		System.gc();
+		List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		long gcMillis = -gcMillis(collectors);
+		long gcCount = -gcCount(collectors);
+		List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				pool.resetPeakUsage();
+				heapPools.add(pool);
+			}
+		}
+
+		// Only the whole file modes time the results in the writer
+		ChecksumWriter output = new ChecksumWriter("lines".equals(mode) ? null : latencies);
+		long start = System.nanoTime();
+		switch (mode) {
+		case "lines":
+			try (BufferedReader reader = Files.newBufferedReader(Paths.get(inputFile), UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					long lineStart = System.nanoTime();
+					String result;
+					try {
+						result = Packer.packLine(line);
+					} catch (APIException e) {
+						result = "ERROR";
+						invalidLines++;
+					}
+					latencies.record(System.nanoTime() - lineStart);
+					// Every result after a line break, as in the whole file modes
+					output.write('\n');
+					output.write(result);
+				}
+			}
+			break;
+		case "file":
+			Packer.pack(inputFile, output);
+			break;
+		case "parallel":
+			Packer.pack(inputFile, parallelism, output);
+			break;
+		case "mmap":
+			Packer.packMappedFile(inputFile, parallelism, output);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown mode " + mode);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		long peakHeapBytes = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			peakHeapBytes += pool.getPeakUsage().getUsed();
+		}
+		gcMillis += gcMillis(collectors);
+		gcCount += gcCount(collectors);
+
+		Properties results = new Properties();
+		results.setProperty("mode", mode);
+		results.setProperty("lines", Long.toString(output.getLines()));
+		results.setProperty("invalidLines", Long.toString(invalidLines));
+		results.setProperty("elapsedNanos", Long.toString(elapsed));
+		results.setProperty("linesPerSecond", String.format(Locale.ROOT, "%.1f", output.getLines() / (elapsed / 1e9)));
+		results.setProperty("p50Nanos", Long.toString(latencies.getPercentile(50)));
+		results.setProperty("p99Nanos", Long.toString(latencies.getPercentile(99)));
+		results.setProperty("peakHeapBytes", Long.toString(peakHeapBytes));
+		results.setProperty("gcMillis", Long.toString(gcMillis));
+		results.setProperty("gcCount", Long.toString(gcCount));
+		results.setProperty("checksum", Long.toHexString(output.getChecksum()));
+		return results;
+	}
+
+	/**
+	 * Compares the results of a run with a baseline.
+	 * 
+	 * @param baseline  the baseline results
+	 * @param results   the results of the run
+	 * @param tolerance the fraction a metric can be worse than the baseline
+	 * @return the description of every regression, empty when there are none
+	 */
+	public static List<String> regressions(Properties baseline, Properties results, double tolerance) {
+		List<String> regressions = new ArrayList<>();
+		for (String key : new String[] { "mode", "lines", "invalidLines", "checksum" }) {
+			if (!baseline.getProperty(key, "").equals(results.getProperty(key))) {
+				regressions.add(String.format(Locale.ROOT, "%s is %s, the baseline is %s: different input or results",
+						key, results.getProperty(key), baseline.getProperty(key)));
+			}
+		}
+		double linesPerSecond = Double.parseDouble(results.getProperty("linesPerSecond"));
+		double baselineLinesPerSecond = Double.parseDouble(baseline.getProperty("linesPerSecond"));
+		if (linesPerSecond < baselineLinesPerSecond * (1 - tolerance)) {
+			regressions.add(String.format(Locale.ROOT, "linesPerSecond is %.0f, the baseline is %.0f", linesPerSecond,
+					baselineLinesPerSecond));
+		}
+		for (String key : new String[] { "p50Nanos", "p99Nanos", "peakHeapBytes", "gcMillis" }) {
+			long value = Long.parseLong(results.getProperty(key));
+			long baselineValue = Long.parseLong(baseline.getProperty(key));
+			long slack = "gcMillis".equals(key) ? gcMillisSlack : 0;
+			if (value > baselineValue * (1 + tolerance) + slack) {
+				regressions.add(String.format(Locale.ROOT, "%s is %d, the baseline is %d", key, value, baselineValue));
+			}
+		}
+		return regressions;
+	}
+
+	/**
+	 * Counts the lines of a file rejected by the parser, with the same checks as
+	 * the packing, not only the format.
+	 * 
+	 * @param inputFile the test cases file
+	 * @return the number of invalid lines
+	 * @throws IOException when the file can not be read
+	 */
+	private static long invalidLines(String inputFile) throws IOException {
+		LineParser parser = new LineParser();
+		long invalidLines = 0;
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(inputFile), UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				try {
+					parser.parse(line);
+				} catch (APIException e) {
+					invalidLines++;
+				}
+			}
+		}
+		return invalidLines;
+	}
+
+	private static long gcMillis(List<GarbageCollectorMXBean> collectors) {
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : collectors) {
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		return millis;
+	}
+
+	private static long gcCount(List<GarbageCollectorMXBean> collectors) {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : collectors) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * Writer that discards the results, keeping the number of results, one after
+	 * every line break, and a checksum of the text, so runs can be compared
+	 * without storing the results. It can also record the time between
+	 * consecutive results.
+	 */
+	private static class ChecksumWriter extends Writer {
+
+		private final LatencyHistogram resultIntervals;
+		private long lastResult = System.nanoTime();
+		private long checksum = 0;
+		private long lines = 0;
+
+		/**
+		 * @param resultIntervals the histogram of the time between results, null
+		 *                        when they are not timed
+		 */
+		private ChecksumWriter(LatencyHistogram resultIntervals) {
+			this.resultIntervals = resultIntervals;
+		}
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			for (int i = offset; i < offset + length; i++) {
+				write(buffer[i]);
+			}
+		}
+
+		@Override
+		public void write(int c) {
+			if (c == '\n') {
+				this.lines++;
+				if (this.resultIntervals != null) {
+					long now = System.nanoTime();
+					this.resultIntervals.record(now - this.lastResult);
+					this.lastResult = now;
+				}
+			}
+			this.checksum = this.checksum * 31 + c;
+		}
+
+		@Override
+		public void write(String text) {
+			for (int i = 0; i < text.length(); i++) {
+				write(text.charAt(i));
+			}
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		private long getChecksum() {
+			return this.checksum;
+		}
+
+		private long getLines() {
+			return this.lines;
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.mobiquityinc.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.mobiquityinc.server.PackingServer;
+
+/**
+ * Local load generator for the {@link PackingServer}. Every connection sends
+ * its lines from one thread and reads the answers from another one, so lines
+ * are pipelined up to a window of lines waiting for their answers, and the
+ * latency of each line is measured from the moment it was sent to the moment
+ * its answer was read.
+ * 
+ * Usage: port [connections] [linesPerConnection] [itemsPerLine] [window]
+ * 
+ * @author dfjmax
+ * 
+ */
+public class ServerLoadGenerator {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.out.println("No server port!");
+			return;
+		}
+		int port = Integer.parseInt(args[0]);
+		int connections = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int linesPerConnection = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+		int itemsPerLine = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+		int window = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+
+		List<Client> clients = new ArrayList<>();
+		for (int i = 0; i < connections; i++) {
+			clients.add(new Client(port, new Random(BenchmarkInputs.seed + i), linesPerConnection, itemsPerLine,
+					window));
+		}
+
+		long start = System.nanoTime();
+		for (Client client : clients) {
+			client.start();
+		}
+		long[] latencies = new long[connections * linesPerConnection];
+		int errors = 0;
+		for (int i = 0; i < connections; i++) {
+			Client client = clients.get(i);
+			client.join();
+			System.arraycopy(client.latencies, 0, latencies, i * linesPerConnection, linesPerConnection);
+			errors += client.errors;
+		}
+		long elapsed = System.nanoTime() - start;
+
+		Arrays.sort(latencies);
+		System.out.println(String.format(Locale.ROOT,
+				"%d lines in %.2f s: %.0f lines/s, latency p50 %.3f ms, p99 %.3f ms, max %.3f ms, %d errors",
+				latencies.length, elapsed / 1e9, latencies.length / (elapsed / 1e9), percentile(latencies, 0.50),
+				percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6, errors));
+	}
+
+	private static double percentile(long[] sortedLatencies, double percentile) {
+		return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, sortedLatencies.length * percentile)] / 1e6;
+	}
+
+	/**
+	 * A connection sending and reading on two threads.
+	 */
+	private static class Client {
+
+		private final Socket socket;
+		private final String[] lines;
+		private final AtomicLongArray sentTimes;
+		private final long[] latencies;
+		private final Semaphore window;
+		private final Thread writer;
+		private final Thread reader;
+		private int errors = 0;
+
+		private Client(int port, Random random, int lineCount, int itemsPerLine, int window) throws IOException {
+			this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			this.socket.setTcpNoDelay(true);
+			this.lines = new String[lineCount];
+			for (int i = 0; i < lineCount; i++) {
+				this.lines[i] = BenchmarkInputs.line(random, itemsPerLine) + "\n";
+			}
+			this.sentTimes = new AtomicLongArray(lineCount);
+			this.latencies = new long[lineCount];
+			this.window = new Semaphore(window);
+			this.writer = new Thread(this::write);
+			this.reader = new Thread(this::read);
+		}
+
+		private void start() {
+			this.reader.start();
+			this.writer.start();
+		}
+
+		private void join() throws InterruptedException, IOException {
+			this.writer.join();
+			this.reader.join();
+			this.socket.close();
+		}
+
+		private void write() {
+			try {
+				OutputStream output = this.socket.getOutputStream();
+				for (int i = 0; i < this.lines.length; i++) {
+					this.window.acquire();
+					this.sentTimes.set(i, System.nanoTime());
+					output.write(this.lines[i].getBytes(UTF_8));
+				}
+				output.flush();
+				this.socket.shutdownOutput();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void read() {
+			try {
+				BufferedReader input = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), UTF_8));
+				for (int i = 0; i < this.lines.length; i++) {
+					String answer = input.readLine();
+					if (answer == null) {
+						throw new IOException("Connection closed after " + i + " answers.");
+					}
+					this.latencies[i] = System.nanoTime() - this.sentTimes.get(i);
+					this.window.release();
+					if (answer.startsWith(PackingServer.errorPrefix)) {
+						this.errors++;
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+	}
+
+}
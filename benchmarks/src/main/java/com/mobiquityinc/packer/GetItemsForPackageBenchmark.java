@@ -0,0 +1,65 @@
+package com.mobiquityinc.packer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mobiquityinc.benchmark.BenchmarkInputs;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Benchmarks {@link Packer#getItemsForPackage(ItemPackage)} on its fast paths
+ * and on a package that needs to be solved.
+ * 
+ * @author dfjmax
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class GetItemsForPackageBenchmark {
+
+	private ItemPackage emptyPackage;
+	private ItemPackage everythingFitsPackage;
+	private ItemPackage solvedPackage;
+
+	@Setup
+	public void setUp() {
+		this.emptyPackage = new ItemPackage(50, new ArrayList<>());
+		this.everythingFitsPackage = new ItemPackage(100,
+				new ArrayList<>(Arrays.asList(new Item(1, 10, 10), new Item(2, 20, 20), new Item(3, 30, 30))));
+		this.solvedPackage = BenchmarkInputs.itemPackage(new Random(BenchmarkInputs.seed), 15, 100);
+	}
+
+	@Benchmark
+	public String emptyPackage() {
+		return Packer.getItemsForPackage(this.emptyPackage);
+	}
+
+	@Benchmark
+	public String everythingFits() {
+		return Packer.getItemsForPackage(this.everythingFitsPackage);
+	}
+
+	@Benchmark
+	public String solved() {
+		return Packer.getItemsForPackage(this.solvedPackage);
+	}
+
+}
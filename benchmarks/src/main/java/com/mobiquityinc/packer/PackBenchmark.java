@@ -0,0 +1,72 @@
+package com.mobiquityinc.packer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mobiquityinc.benchmark.BenchmarkInputs;
+
+/**
+ * Benchmarks {@link Packer#pack(String)} end to end over generated files, in
+ * every execution mode.
+ * 
+ * @author dfjmax
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class PackBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int lines;
+
+	@Param({ "sequential", "parallel", "mapped" })
+	private String mode;
+
+	private Path file;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setUp() {
+		this.file = BenchmarkInputs.file(this.lines);
+		this.pool = new ForkJoinPool();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.pool.shutdownNow();
+		Files.delete(this.file);
+	}
+
+	@Benchmark
+	public String pack() {
+		switch (this.mode) {
+		case "parallel":
+			return Packer.pack(this.file.toString(), this.pool);
+		case "mapped":
+			return Packer.packMappedFile(this.file.toString(), this.pool);
+		default:
+			return Packer.pack(this.file.toString());
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mobiquityinc.benchmark.BenchmarkInputs;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Benchmarks the {@link KnapsackSolver} implementations at different item
+ * counts and capacities.
+ * 
+ * @author dfjmax
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class KnapsackSolverBenchmark {
+
+	@Param({ "dense", "compact", "branchAndBound", "paretoFrontier", "parallel", "fixedPoint" })
+	private String solverName;
+
+	@Param({ "5", "15", "50" })
+	private int itemCount;
+
+	@Param({ "10", "50", "100" })
+	private int maxWeight;
+
+	private KnapsackSolver solver;
+	private ItemPackage itemPackage;
+
+	@Setup
+	public void setUp() {
+		switch (this.solverName) {
+		case "dense":
+			this.solver = new DenseKnapsackSolver();
+			break;
+		case "paretoFrontier":
+			this.solver = new ParetoFrontierSolver();
+			break;
+		case "parallel":
+			// Every row is solved in parallel, even the small ones
+			this.solver = new ParallelKnapsackSolver(ForkJoinPool.commonPool(), 0);
+			break;
+		case "fixedPoint":
+			this.solver = new FixedPointKnapsackSolver();
+			break;
+		case "branchAndBound":
+			this.solver = new BranchAndBoundSolver();
+			break;
+		default:
+			this.solver = new CompactKnapsackSolver();
+		}
+		this.itemPackage = BenchmarkInputs.itemPackage(new Random(BenchmarkInputs.seed), this.itemCount,
+				this.maxWeight);
+	}
+
+	@Benchmark
+	public Object solve() {
+		return this.solver.solve(this.itemPackage);
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.mobiquityinc.reader;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mobiquityinc.benchmark.BenchmarkInputs;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Benchmarks {@link InputFileReader#parseLine(String)} on short and long
+ * lines.
+ * 
+ * @author dfjmax
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class LineParserBenchmark {
+
+	@Param({ "1", "15", "100" })
+	private int itemCount;
+
+	private InputFileReader reader;
+	private String line;
+
+	@Setup
+	public void setUp() {
+		this.reader = new InputFileReader();
+		this.line = BenchmarkInputs.line(new Random(BenchmarkInputs.seed), this.itemCount);
+	}
+
+	@Benchmark
+	public ItemPackage parseLine() {
+		return this.reader.parseLine(this.line);
+	}
+
+}
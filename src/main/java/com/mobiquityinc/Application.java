@@ -1,24 +1,164 @@
 package com.mobiquityinc;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import com.mobiquityinc.metrics.PackingMetrics;
 import com.mobiquityinc.packer.Packer;
+import com.mobiquityinc.server.PackingServer;
 
 /**
  * Main application class.
  * 
+ * Usage: testCasesAbsoluteFilePath [parallelism] [--mmap]
+ * 
+ * Server mode: --server port [parallelism]
+ * 
+ * Pipe mode, from the standard input to the standard output: --pipe
+ * [maxFlushDelayMillis]
+ * 
  * @author dfjmax
  *
  */
 public class Application {
 
+	/**
+	 * Max time results wait to be flushed in pipe mode while more input is ready.
+	 */
+	private static final long defaultMaxFlushDelayMillis = 50;
+
+	private static final String usage = "Usage: testCasesAbsoluteFilePath [parallelism] [--mmap], "
+			+ "--server port [parallelism] or --pipe [maxFlushDelayMillis]";
+
 	public static void main(String[] args) {
 
 		// Validate the user added a path to a file
 		if (args.length == 0) {
 			System.out.println("No input file!");
+			return;
+		}
+
+		if ("--server".equals(args[0])) {
+			serve(args);
+			return;
+		}
+		if ("--pipe".equals(args[0])) {
+			long maxFlushDelayMillis = args.length > 1 ? parseNumber(args[1], Long.MAX_VALUE)
+					: defaultMaxFlushDelayMillis;
+			if (maxFlushDelayMillis < 0) {
+				printInvalidArgument("max flush delay", args[1]);
+				return;
+			}
+			Packer.pipe(new InputStreamReader(System.in, UTF_8),
+					new BufferedWriter(new OutputStreamWriter(System.out, UTF_8)), maxFlushDelayMillis);
+			writeReports();
+			return;
+		}
+
+		// Optional arguments: number of packages solved in parallel and memory mapped input
+		int parallelism = 0;
+		boolean mapped = false;
+		for (int i = 1; i < args.length; i++) {
+			if ("--mmap".equals(args[i])) {
+				mapped = true;
+			} else {
+				parallelism = (int) parseNumber(args[i], Integer.MAX_VALUE);
+				if (parallelism < 1) {
+					printInvalidArgument("parallelism", args[i]);
+					return;
+				}
+			}
+		}
+
+		System.out.println("Processing items...");
+		// Results are written as soon as each package, batch or chunk is solved
+		if (mapped) {
+			Packer.packMappedFile(args[0], parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+					System.out);
+		} else if (parallelism > 0) {
+			Packer.pack(args[0], parallelism, System.out);
 		} else {
-			System.out.println("Processing items...");
-			System.out.println(Packer.pack(args[0]));
+			Packer.pack(args[0], System.out);
+		}
+		System.out.println();
+
+		writeReports();
+	}
+
+	/**
+	 * Writes the reports of the run: how many packages were solved exactly and how
+	 * many budgets expired, when a budget is configured, and the metrics, when
+	 * they are enabled.
+	 */
+	private static void writeReports() {
+		String budgetReport = Packer.getBudgetReport();
+		if (budgetReport != null) {
+			System.err.println(budgetReport);
+		}
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().writeReport();
 		}
 	}
 
+	/**
+	 * Parses a numeric argument.
+	 * 
+	 * @param argument the argument
+	 * @param max      the max valid value
+	 * @return the number, or -1 when the argument is not a number between 0 and
+	 *         max
+	 */
+	private static long parseNumber(String argument, long max) {
+		if (!argument.matches("[0-9]{1,18}")) {
+			return -1;
+		}
+		long number = Long.parseLong(argument);
+		return number <= max ? number : -1;
+	}
+
+	/**
+	 * Prints which argument is invalid and the usage.
+	 */
+	private static void printInvalidArgument(String name, String argument) {
+		System.out.println("Invalid " + name + ": " + argument + "!");
+		System.out.println(usage);
+	}
+
+	/**
+	 * Starts a {@link PackingServer} that runs until the application is stopped.
+	 */
+	private static void serve(String[] args) {
+		if (args.length < 2) {
+			System.out.println("No server port!");
+			return;
+		}
+		int port = (int) parseNumber(args[1], 65535);
+		if (port < 0) {
+			printInvalidArgument("server port", args[1]);
+			return;
+		}
+		int processors = Runtime.getRuntime().availableProcessors();
+		int parallelism = args.length > 2 ? (int) parseNumber(args[2], Integer.MAX_VALUE) : processors;
+		if (parallelism < 1) {
+			printInvalidArgument("parallelism", args[2]);
+			return;
+		}
+
+		// Bounded by the available processors, like the parallel file modes
+		ExecutorService solverThreads = new ForkJoinPool(Math.min(parallelism, processors));
+		PackingServer server = new PackingServer(port, solverThreads);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			server.close();
+			solverThreads.shutdownNow();
+			writeReports();
+		}));
+		server.start();
+		System.out.println("Packing test cases sent to port " + server.getPort() + "...");
+	}
+
 }
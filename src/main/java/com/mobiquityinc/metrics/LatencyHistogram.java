@@ -0,0 +1,88 @@
+package com.mobiquityinc.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies in nanoseconds, with a precision of about
+ * 12%.
+ * 
+ * Latencies up to 15 have their own bucket, and every power of two above is
+ * split in 8 buckets, so any long fits in less than 500 buckets.
+ * 
+ * @author dfjmax
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int subBucketBits = 3;
+	private static final int subBuckets = 1 << subBucketBits;
+	private static final int linearBuckets = 2 * subBuckets;
+	private static final int bucketCount = linearBuckets + (63 - (subBucketBits + 1)) * subBuckets;
+
+	private final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+
+	/**
+	 * Records a latency, negative latencies are recorded as 0.
+	 * 
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		this.counts.incrementAndGet(bucket(Math.max(0, nanos)));
+	}
+
+	/**
+	 * Gets the number of recorded latencies.
+	 * 
+	 * @return the number of latencies
+	 */
+	public long getCount() {
+		long count = 0;
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			count += this.counts.get(bucket);
+		}
+		return count;
+	}
+
+	/**
+	 * Gets a percentile of the recorded latencies.
+	 * 
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the highest latency of the bucket containing the percentile, 0 when
+	 *         nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		long count = getCount();
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+		long seen = 0;
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			seen += this.counts.get(bucket);
+			if (seen >= rank) {
+				return highestValue(bucket);
+			}
+		}
+		return highestValue(bucketCount - 1);
+	}
+
+	private static int bucket(long value) {
+		if (value < linearBuckets) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - subBucketBits)) & (subBuckets - 1);
+		return linearBuckets + (exponent - (subBucketBits + 1)) * subBuckets + subBucket;
+	}
+
+	private static long highestValue(int bucket) {
+		if (bucket < linearBuckets) {
+			return bucket;
+		}
+		int exponent = (bucket - linearBuckets) / subBuckets + subBucketBits + 1;
+		long subBucket = (bucket - linearBuckets) % subBuckets;
+		long lowestValue = (subBuckets + subBucket) << (exponent - subBucketBits);
+		return lowestValue + (1L << (exponent - subBucketBits)) - 1;
+	}
+
+}
@@ -0,0 +1,312 @@
+package com.mobiquityinc.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Opt-in metrics of the packing hot path, enabled with the
+ * {@value #enabledProperty} system property.
+ * 
+ * The flag is a constant read once, so when the metrics are disabled the
+ * instrumented code is removed by the JIT compiler and only a never taken
+ * branch is left. Call sites should always check {@link #enabled} before
+ * measuring anything:
+ * 
+ * <pre>
+ * long start = PackingMetrics.enabled ? System.nanoTime() : 0;
+ * ...
+ * if (PackingMetrics.enabled) {
+ * 	PackingMetrics.get().recordParse(System.nanoTime() - start);
+ * }
+ * </pre>
+ * 
+ * When enabled, the metrics are registered as a JMX MXBean and a JSON report
+ * is written at the end of the run, see {@link #writeReport()}.
+ * 
+ * @author dfjmax
+ *
+ */
+public class PackingMetrics implements PackingMetricsMXBean {
+
+	/**
+	 * System property that enables the metrics.
+	 */
+	public static final String enabledProperty = "com.mobiquityinc.metrics";
+
+	/**
+	 * System property with the file where the JSON report is written at the end of
+	 * the run, by default it is written to the standard error.
+	 */
+	public static final String reportProperty = "com.mobiquityinc.metrics.report";
+
+	/**
+	 * JMX name of the metrics.
+	 */
+	public static final String objectName = "com.mobiquityinc:type=PackingMetrics";
+
+	/**
+	 * Whether the metrics are enabled.
+	 */
+	public static final boolean enabled = Boolean.getBoolean(enabledProperty);
+
+	private static final PackingMetrics instance = enabled ? registered(new PackingMetrics()) : new PackingMetrics();
+
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final LongAdder emptyPackages = new LongAdder();
+	private final LongAdder allItemsFitPackages = new LongAdder();
+	private final LongAdder solvedPackages = new LongAdder();
+	private final LongAdder expiredBudgets = new LongAdder();
+	private final LongAdder dynamicProgrammingCells = new LongAdder();
+	private final LongAdder searchNodes = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+
+	private final StageMetrics parse = new StageMetrics();
+	private final StageMetrics packages = new StageMetrics();
+	private final ConcurrentMap<String, StageMetrics> solvers = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates empty metrics, package private for testing.
+	 */
+	PackingMetrics() {
+		super();
+	}
+
+	/**
+	 * Gets the metrics of this JVM.
+	 * 
+	 * @return the metrics
+	 */
+	public static PackingMetrics get() {
+		return instance;
+	}
+
+	private static PackingMetrics registered(PackingMetrics metrics) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(objectName));
+		} catch (JMException e) {
+			throw new APIException("Unable to register the packing metrics.", e);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Writes the JSON report to the file set in the {@value #reportProperty}
+	 * system property, or to the standard error.
+	 * 
+	 * @throws {@link APIException} when the report file can not be written
+	 */
+	public void writeReport() {
+		String reportFile = System.getProperty(reportProperty);
+		if (reportFile == null) {
+			System.err.println(getReport());
+			return;
+		}
+		try {
+			Files.write(Paths.get(reportFile), getReport().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException | InvalidPathException e) {
+			throw new APIException("Unable to write the metrics report.", e);
+		}
+	}
+
+	/**
+	 * Gets the bytes allocated by the current thread so far, to be subtracted
+	 * from a later call.
+	 * 
+	 * @return the allocated bytes, 0 when the JVM can not measure them
+	 */
+	public static long currentThreadAllocatedBytes() {
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * Records the parse of a line.
+	 * 
+	 * @param nanos the time spent parsing the line
+	 */
+	public void recordParse(long nanos) {
+		this.parse.record(nanos);
+	}
+
+	/**
+	 * Records a package without items.
+	 */
+	public void recordEmptyPackage() {
+		this.emptyPackages.increment();
+	}
+
+	/**
+	 * Records a package where all the items fit.
+	 */
+	public void recordAllItemsFitPackage() {
+		this.allItemsFitPackages.increment();
+	}
+
+	/**
+	 * Records a package passed to a solver.
+	 * 
+	 * @param solverName the solver name
+	 * @param nanos      the time spent by the solver
+	 */
+	public void recordSolvedPackage(String solverName, long nanos) {
+		this.solvedPackages.increment();
+		recordSolver(solverName, nanos);
+	}
+
+	/**
+	 * Records a package whose budget expired before it was solved exactly.
+	 */
+	public void recordExpiredBudget() {
+		this.expiredBudgets.increment();
+	}
+
+	/**
+	 * Records the time spent by a solver on a package, without counting the
+	 * package again, for solvers that choose or wrap other solvers.
+	 * 
+	 * @param solverName the solver name
+	 * @param nanos      the time spent by the solver
+	 */
+	public void recordSolver(String solverName, long nanos) {
+		this.solvers.computeIfAbsent(solverName, name -> new StageMetrics()).record(nanos);
+	}
+
+	/**
+	 * Records the dynamic programming cells evaluated for a package.
+	 * 
+	 * @param cells the number of cells
+	 */
+	public void recordDynamicProgrammingCells(long cells) {
+		this.dynamicProgrammingCells.add(cells);
+	}
+
+	/**
+	 * Records the branch and bound nodes explored for a package.
+	 * 
+	 * @param nodes the number of nodes
+	 */
+	public void recordSearchNodes(long nodes) {
+		this.searchNodes.add(nodes);
+	}
+
+	/**
+	 * Records a packed package, whatever the way it was packed.
+	 * 
+	 * @param nanos          the time from the parsed package to its result
+	 * @param allocatedBytes the bytes allocated meanwhile
+	 */
+	public void recordPackage(long nanos, long allocatedBytes) {
+		this.packages.record(nanos);
+		this.allocatedBytes.add(allocatedBytes);
+	}
+
+	@Override
+	public long getPackageCount() {
+		return this.packages.getCount();
+	}
+
+	@Override
+	public long getEmptyPackageCount() {
+		return this.emptyPackages.sum();
+	}
+
+	@Override
+	public long getAllItemsFitPackageCount() {
+		return this.allItemsFitPackages.sum();
+	}
+
+	@Override
+	public long getSolvedPackageCount() {
+		return this.solvedPackages.sum();
+	}
+
+	@Override
+	public long getExpiredBudgetCount() {
+		return this.expiredBudgets.sum();
+	}
+
+	@Override
+	public long getParseNanos() {
+		return this.parse.getTotalNanos();
+	}
+
+	@Override
+	public Map<String, Long> getSolverNanos() {
+		Map<String, Long> solverNanos = new TreeMap<>();
+		this.solvers.forEach((name, stage) -> solverNanos.put(name, stage.getTotalNanos()));
+		return solverNanos;
+	}
+
+	@Override
+	public long getDynamicProgrammingCells() {
+		return this.dynamicProgrammingCells.sum();
+	}
+
+	@Override
+	public long getSearchNodes() {
+		return this.searchNodes.sum();
+	}
+
+	@Override
+	public long getAllocatedBytes() {
+		return this.allocatedBytes.sum();
+	}
+
+	@Override
+	public Map<String, Long> getPackageLatencyPercentiles() {
+		Map<String, Long> percentiles = new LinkedHashMap<>();
+		percentiles.put("p50", this.packages.getPercentile(50));
+		percentiles.put("p90", this.packages.getPercentile(90));
+		percentiles.put("p99", this.packages.getPercentile(99));
+		percentiles.put("max", this.packages.getMaxNanos());
+		return percentiles;
+	}
+
+	@Override
+	public String getReport() {
+		long packageCount = getPackageCount();
+		StringBuilder sb = new StringBuilder("{");
+		sb.append("\"packages\":{\"total\":").append(packageCount);
+		sb.append(",\"empty\":").append(getEmptyPackageCount());
+		sb.append(",\"allItemsFit\":").append(getAllItemsFitPackageCount());
+		sb.append(",\"solved\":").append(getSolvedPackageCount()).append('}');
+		sb.append(",\"expiredBudgets\":").append(getExpiredBudgetCount());
+		sb.append(",\"dynamicProgrammingCells\":").append(getDynamicProgrammingCells());
+		sb.append(",\"dynamicProgrammingCellsPerSolvedPackage\":")
+				.append(getSolvedPackageCount() == 0 ? 0 : getDynamicProgrammingCells() / getSolvedPackageCount());
+		sb.append(",\"searchNodes\":").append(getSearchNodes());
+		sb.append(",\"allocatedBytes\":").append(getAllocatedBytes());
+		sb.append(",\"allocatedBytesPerPackage\":")
+				.append(packageCount == 0 ? 0 : getAllocatedBytes() / packageCount);
+		sb.append(",\"stages\":{\"parse\":").append(this.parse.toJson());
+		sb.append(",\"package\":").append(this.packages.toJson()).append('}');
+		sb.append(",\"solvers\":{");
+		String separator = "";
+		for (Map.Entry<String, StageMetrics> solver : new TreeMap<>(this.solvers).entrySet()) {
+			sb.append(separator).append('"').append(solver.getKey().replace("\\", "\\\\").replace("\"", "\\\""))
+					.append("\":").append(solver.getValue().toJson());
+			separator = ",";
+		}
+		return sb.append("}}").toString();
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.mobiquityinc.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link PackingMetrics}, registered as
+ * {@value PackingMetrics#objectName} when the metrics are enabled.
+ * 
+ * @author dfjmax
+ *
+ */
+public interface PackingMetricsMXBean {
+
+	/**
+	 * Gets the number of packed packages.
+	 * 
+	 * @return the number of packages
+	 */
+	long getPackageCount();
+
+	/**
+	 * Gets the number of packages without items, answered without solving them.
+	 * 
+	 * @return the number of packages without items
+	 */
+	long getEmptyPackageCount();
+
+	/**
+	 * Gets the number of packages where all the items fit, answered without
+	 * solving them.
+	 * 
+	 * @return the number of packages where all the items fit
+	 */
+	long getAllItemsFitPackageCount();
+
+	/**
+	 * Gets the number of packages passed to a solver.
+	 * 
+	 * @return the number of solved packages
+	 */
+	long getSolvedPackageCount();
+
+	/**
+	 * Gets the number of packages whose budget expired, answered with a greedy
+	 * package instead of the best one.
+	 * 
+	 * @return the number of expired budgets
+	 */
+	long getExpiredBudgetCount();
+
+	/**
+	 * Gets the total time spent parsing lines.
+	 * 
+	 * @return the parse time in nanoseconds
+	 */
+	long getParseNanos();
+
+	/**
+	 * Gets the total time spent by each solver, by solver name. Solvers that
+	 * choose or wrap other solvers include the time of those solvers.
+	 * 
+	 * @return the solver times in nanoseconds
+	 */
+	Map<String, Long> getSolverNanos();
+
+	/**
+	 * Gets the number of dynamic programming cells evaluated, or frontier states
+	 * for the Pareto frontier solver.
+	 * 
+	 * @return the number of cells
+	 */
+	long getDynamicProgrammingCells();
+
+	/**
+	 * Gets the number of nodes explored by the branch and bound solver, its work
+	 * counter as the cells are for the dynamic programming.
+	 * 
+	 * @return the number of nodes
+	 */
+	long getSearchNodes();
+
+	/**
+	 * Gets the bytes allocated while packing the packages, 0 when the JVM can not
+	 * measure them.
+	 * 
+	 * @return the allocated bytes
+	 */
+	long getAllocatedBytes();
+
+	/**
+	 * Gets the package latency percentiles, from the parsed package to its
+	 * result.
+	 * 
+	 * @return the p50, p90, p99 and max latencies in nanoseconds
+	 */
+	Map<String, Long> getPackageLatencyPercentiles();
+
+	/**
+	 * Gets all the metrics as a JSON document.
+	 * 
+	 * @return the JSON report
+	 */
+	String getReport();
+
+}
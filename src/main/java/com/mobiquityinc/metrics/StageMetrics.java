@@ -0,0 +1,82 @@
+package com.mobiquityinc.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of calls, total time and latency histogram of a processing stage.
+ * 
+ * @author dfjmax
+ *
+ */
+public class StageMetrics {
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	/**
+	 * Records a call to the stage.
+	 * 
+	 * @param nanos the time spent in nanoseconds
+	 */
+	public void record(long nanos) {
+		this.count.increment();
+		this.totalNanos.add(nanos);
+		this.maxNanos.accumulate(nanos);
+		this.latencies.record(nanos);
+	}
+
+	/**
+	 * Gets the number of calls.
+	 * 
+	 * @return the number of calls
+	 */
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	/**
+	 * Gets the total time spent in the stage.
+	 * 
+	 * @return the total time in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return this.totalNanos.sum();
+	}
+
+	/**
+	 * Gets the longest call.
+	 * 
+	 * @return the longest time in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return this.maxNanos.get();
+	}
+
+	/**
+	 * Gets a latency percentile.
+	 * 
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the latency in nanoseconds
+	 */
+	public long getPercentile(double percentile) {
+		return this.latencies.getPercentile(percentile);
+	}
+
+	/**
+	 * Gets the stage metrics as a JSON object.
+	 * 
+	 * @return the JSON object
+	 */
+	public String toJson() {
+		long calls = getCount();
+		return String.format(Locale.ROOT,
+				"{\"count\":%d,\"totalNanos\":%d,\"meanNanos\":%d,\"p50Nanos\":%d,\"p90Nanos\":%d,\"p99Nanos\":%d,\"maxNanos\":%d}",
+				calls, getTotalNanos(), calls == 0 ? 0 : getTotalNanos() / calls, getPercentile(50), getPercentile(90),
+				getPercentile(99), getMaxNanos());
+	}
+
+}
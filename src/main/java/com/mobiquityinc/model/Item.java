@@ -28,19 +28,61 @@ public class Item {
 	 */
 	public Item(int index, float weight, float cost) {
 		super();
-		if (!FloatValidator.getInstance().isInRange(weight, 0, 100)
-				|| !FloatValidator.getInstance().isInRange(cost, 0, 100)) {
-			throw new APIException("The item can not be built as invalid parameters are being used.");
-		}
+		validate(weight, cost);
 		this.index = index;
-		/*
-		 * Multiply the weight * 100 so it does not have decimals(Knapsack algorithm
-		 * works only with integers)
-		 */
-		this.weight = (int) weight * 100;
+		this.weight = scaleWeight(weight);
 		this.cost = cost;
 	}
 
+	private Item() {
+		super();
+	}
+
+	/**
+	 * Creates an item with an already validated cost and a weight already
+	 * multiplied by 100.
+	 * 
+	 * @param index  the item index
+	 * @param weight the item weight, multiplied by 100
+	 * @param cost   the item cost
+	 * @return the item
+	 */
+	static Item ofScaledWeight(int index, int weight, float cost) {
+		Item item = new Item();
+		item.index = index;
+		item.weight = weight;
+		item.cost = cost;
+		return item;
+	}
+
+	/**
+	 * Validates the item weight and cost.
+	 * 
+	 * @param weight the item weight
+	 * @param cost   the item cost
+	 * 
+	 * @throws {@link APIException} when the weight or the cost are invalid or over
+	 *         the {@link PackageLimits}
+	 */
+	static void validate(float weight, float cost) {
+		PackageLimits limits = PackageLimits.configured();
+		if (!FloatValidator.getInstance().isInRange(weight, 0, limits.getMaxItemWeight())
+				|| !FloatValidator.getInstance().isInRange(cost, 0, limits.getMaxItemCost())) {
+			throw new APIException("The item can not be built as invalid parameters are being used.");
+		}
+	}
+
+	/**
+	 * Multiply the weight * 100 so it does not have decimals(Knapsack algorithm
+	 * works only with integers)
+	 * 
+	 * @param weight the item weight
+	 * @return the weight multiplied by 100
+	 */
+	static int scaleWeight(float weight) {
+		return (int) weight * 100;
+	}
+
 	/**
 	 * Get item index.
 	 * 
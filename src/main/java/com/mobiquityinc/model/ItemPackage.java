@@ -1,9 +1,12 @@
 package com.mobiquityinc.model;
 
 import static java.util.Collections.unmodifiableList;
-import static java.util.Comparator.comparing;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.validator.routines.IntegerValidator;
 
@@ -17,13 +20,32 @@ import com.mobiquityinc.reader.InputFileReader;
  * items that could fit in the package will be added to the list, other ones
  * will be excluded directly.
  * 
+ * Items are stored as primitive arrays of weights, costs and indexes sorted by
+ * weight and cost, so solvers can read them by position without going through
+ * {@link Item} objects. The {@link Item} list is only built when requested.
+ * 
  * @author dfjmax
- *
+ * 
  */
 public class ItemPackage {
 
+	/**
+	 * Bits used by the item position in the sort keys.
+	 */
+	private static final int positionBits = 18;
+
+	/**
+	 * Bits left for the item weight in the sort keys, after the position and the
+	 * cost bits.
+	 */
+	private static final int weightBits = 63 - 31 - positionBits;
+
 	private int maxWeight;
-	private List<Item> items;
+	private int[] weights;
+	private float[] costs;
+	private int[] indexes;
+	private long totalWeight;
+	private Item[] items;
 
 	/**
 	 * Creates an {@link ItemPackage}.
@@ -36,19 +58,202 @@ public class ItemPackage {
 	 */
 	public ItemPackage(int maxWeight, List<Item> items) {
 		super();
-		if (!IntegerValidator.getInstance().isInRange(maxWeight, 0, 100)) {
-			throw new APIException("The package can not be built as invalid parameters are being used.");
+		validateMaxWeight(maxWeight);
+		int itemCount = items.size();
+		int[] itemWeights = new int[itemCount];
+		float[] itemCosts = new float[itemCount];
+		int[] itemIndexes = new int[itemCount];
+		int position = 0;
+		for (Item item : items) {
+			itemWeights[position] = item.getWeight();
+			itemCosts[position] = item.getCost();
+			itemIndexes[position] = item.getIndex();
+			position++;
 		}
 		/*
 		 * Item weights were multiplied by 100 to avoid having decimals, so in order to
 		 * maintain the weight relationship it should be done here as well
 		 */
-		this.maxWeight = maxWeight * 100;
-		this.items = items;
-		/*
-		 * Sort the items by weight and cost
-		 */
-		this.items.sort(comparing(Item::getWeight).thenComparing(Item::getCost));
+		initialize(maxWeight * 100, itemWeights, itemCosts, itemIndexes, itemCount);
+	}
+
+	/**
+	 * Creates an {@link ItemPackage} from parsed item values, without building
+	 * {@link Item} objects. The arrays are copied, so they can be reused.
+	 * 
+	 * @param maxWeight the package max weight
+	 * @param indexes   the item indexes
+	 * @param weights   the item weights
+	 * @param costs     the item costs
+	 * @param itemCount the number of items in the arrays
+	 * 
+	 * @throws {@link APIException} when invalid parameters are used to construct
+	 *         the {@link ItemPackage}
+	 */
+	public ItemPackage(int maxWeight, int[] indexes, float[] weights, float[] costs, int itemCount) {
+		super();
+		int[] itemWeights = new int[itemCount];
+		for (int position = 0; position < itemCount; position++) {
+			Item.validate(weights[position], costs[position]);
+			itemWeights[position] = Item.scaleWeight(weights[position]);
+		}
+		validateMaxWeight(maxWeight);
+		initialize(maxWeight * 100, itemWeights, Arrays.copyOf(costs, itemCount), Arrays.copyOf(indexes, itemCount),
+				itemCount);
+	}
+
+	/**
+	 * Creates an {@link ItemPackage} with an already validated max weight and
+	 * sorted items.
+	 * 
+	 * @param maxWeight   the package max weight, already multiplied by 100
+	 * @param weights     the item weights, already multiplied by 100
+	 * @param costs       the item costs
+	 * @param indexes     the item indexes
+	 * @param totalWeight the sum of the item weights
+	 */
+	private ItemPackage(int maxWeight, int[] weights, float[] costs, int[] indexes, long totalWeight) {
+		super();
+		this.maxWeight = maxWeight;
+		this.weights = weights;
+		this.costs = costs;
+		this.indexes = indexes;
+		this.totalWeight = totalWeight;
+	}
+
+	private static void validateMaxWeight(int maxWeight) {
+		int maxPackageWeight = PackageLimits.configured().getMaxPackageWeight();
+		if (!IntegerValidator.getInstance().isInRange(maxWeight, 0, maxPackageWeight)) {
+			throw new APIException("The package can not be built as invalid parameters are being used.");
+		}
+	}
+
+	/**
+	 * Sorts the items by weight and cost, items with the same weight and cost
+	 * keep their order.
+	 */
+	private void initialize(int maxWeight, int[] itemWeights, float[] itemCosts, int[] itemIndexes, int itemCount) {
+		this.maxWeight = maxWeight;
+		this.weights = new int[itemCount];
+		this.costs = new float[itemCount];
+		this.indexes = new int[itemCount];
+
+		int[] order = sortedOrder(itemWeights, itemCosts, itemCount);
+		for (int position = 0; position < itemCount; position++) {
+			this.weights[position] = itemWeights[order[position]];
+			this.costs[position] = itemCosts[order[position]];
+			this.indexes[position] = itemIndexes[order[position]];
+			this.totalWeight += this.weights[position];
+		}
+	}
+
+	/**
+	 * Gets the item positions sorted by weight, cost and position.
+	 * 
+	 * With the standard limits weights are at most 10000 and costs are not
+	 * negative, so the weight, the cost bits and the position are packed in a
+	 * single long and sorted as primitives.
+	 */
+	private static int[] sortedOrder(int[] itemWeights, float[] itemCosts, int itemCount) {
+		int[] order = new int[itemCount];
+		int maxItemWeight = 0;
+		for (int position = 0; position < itemCount; position++) {
+			maxItemWeight = Math.max(maxItemWeight, itemWeights[position]);
+		}
+		if (itemCount >= 1 << positionBits || maxItemWeight >= 1 << weightBits) {
+			// Too many positions or too heavy weights to be packed, the boxed sort is stable
+			Integer[] boxedOrder = new Integer[itemCount];
+			for (int position = 0; position < itemCount; position++) {
+				boxedOrder[position] = position;
+			}
+			Arrays.sort(boxedOrder, (a, b) -> itemWeights[a] != itemWeights[b]
+					? Integer.compare(itemWeights[a], itemWeights[b])
+					: Float.compare(itemCosts[a], itemCosts[b]));
+			for (int position = 0; position < itemCount; position++) {
+				order[position] = boxedOrder[position];
+			}
+			return order;
+		}
+
+		long[] keys = new long[itemCount];
+		for (int position = 0; position < itemCount; position++) {
+			// Adding zero turns -0 into 0
+			long costBits = Float.floatToIntBits(itemCosts[position] + 0.0f);
+			keys[position] = ((long) itemWeights[position] << (63 - weightBits)) | (costBits << positionBits)
+					| position;
+		}
+		Arrays.sort(keys);
+		for (int position = 0; position < itemCount; position++) {
+			order[position] = (int) (keys[position] & ((1 << positionBits) - 1));
+		}
+		return order;
+	}
+
+	/**
+	 * Returns a copy of this {@link ItemPackage} with the max weight and all the
+	 * item weights divided by a common divisor. Items keep the same order.
+	 * 
+	 * @param divisor a divisor of the max weight and of every item weight
+	 * @return the compressed {@link ItemPackage}
+	 * 
+	 * @throws {@link APIException} when the divisor does not divide all the
+	 *         weights
+	 */
+	public ItemPackage divideWeights(int divisor) {
+		if (divisor < 1 || this.maxWeight % divisor != 0) {
+			throw new APIException("The package weights can not be divided by " + divisor + ".");
+		}
+		int[] dividedWeights = new int[this.weights.length];
+		for (int position = 0; position < this.weights.length; position++) {
+			if (this.weights[position] % divisor != 0) {
+				throw new APIException("The package weights can not be divided by " + divisor + ".");
+			}
+			dividedWeights[position] = this.weights[position] / divisor;
+		}
+		return new ItemPackage(this.maxWeight / divisor, dividedWeights, this.costs, this.indexes,
+				this.totalWeight / divisor);
+	}
+
+	/**
+	 * Returns a copy of this {@link ItemPackage} with only some of its items.
+	 * 
+	 * @param positions the positions of the items to keep, in ascending order
+	 * @param count     the number of positions
+	 * @return the {@link ItemPackage} with the retained items
+	 */
+	public ItemPackage retainItems(int[] positions, int count) {
+		int[] retainedWeights = new int[count];
+		float[] retainedCosts = new float[count];
+		int[] retainedIndexes = new int[count];
+		long retainedWeight = 0;
+		for (int i = 0; i < count; i++) {
+			retainedWeights[i] = this.weights[positions[i]];
+			retainedCosts[i] = this.costs[positions[i]];
+			retainedIndexes[i] = this.indexes[positions[i]];
+			retainedWeight += retainedWeights[i];
+		}
+		return new ItemPackage(this.maxWeight, retainedWeights, retainedCosts, retainedIndexes, retainedWeight);
+	}
+
+	/**
+	 * Marks the positions of some items of this {@link ItemPackage}, the items
+	 * returned by {@link #getItem(int)}, in a single pass over the positions.
+	 * 
+	 * @param selectedItems the items of this package
+	 * @return whether the item at every position is one of the given items
+	 */
+	public boolean[] getPositions(List<Item> selectedItems) {
+		boolean[] selected = new boolean[this.weights.length];
+		if (selectedItems.isEmpty() || this.items == null) {
+			return selected;
+		}
+		Set<Item> selectedSet = Collections.newSetFromMap(new IdentityHashMap<>(selectedItems.size() * 2));
+		selectedSet.addAll(selectedItems);
+		for (int position = 0; position < this.items.length; position++) {
+			// Only the items already built can be selected
+			selected[position] = this.items[position] != null && selectedSet.contains(this.items[position]);
+		}
+		return selected;
 	}
 
 	/**
@@ -60,14 +265,78 @@ public class ItemPackage {
 		return this.maxWeight;
 	}
 
+	/**
+	 * Gets the number of items.
+	 * 
+	 * @return the number of items
+	 */
+	public int getItemCount() {
+		return this.weights.length;
+	}
+
+	/**
+	 * Gets the weight of the item at a position, multiplied by 100.
+	 * 
+	 * @param position the item position, items are sorted by weight and cost
+	 * @return the item weight
+	 */
+	public int getWeight(int position) {
+		return this.weights[position];
+	}
+
+	/**
+	 * Gets the cost of the item at a position.
+	 * 
+	 * @param position the item position, items are sorted by weight and cost
+	 * @return the item cost
+	 */
+	public float getCost(int position) {
+		return this.costs[position];
+	}
+
+	/**
+	 * Gets the index of the item at a position.
+	 * 
+	 * @param position the item position, items are sorted by weight and cost
+	 * @return the item index
+	 */
+	public int getIndex(int position) {
+		return this.indexes[position];
+	}
+
+	/**
+	 * Gets the {@link Item} at a position, the same instance is returned every
+	 * time.
+	 * 
+	 * @param position the item position, items are sorted by weight and cost
+	 * @return the {@link Item}
+	 */
+	public Item getItem(int position) {
+		if (this.items == null) {
+			this.items = new Item[this.weights.length];
+		}
+		Item item = this.items[position];
+		if (item == null) {
+			item = Item.ofScaledWeight(this.indexes[position], this.weights[position], this.costs[position]);
+			this.items[position] = item;
+		}
+		return item;
+	}
+
 	/**
 	 * Gets the {@link Item} list.
 	 * 
 	 * @return the {@link Item} list
 	 */
 	public List<Item> getItems() {
+		for (int position = 0; position < this.weights.length; position++) {
+			getItem(position);
+		}
+		if (this.weights.length == 0) {
+			this.items = new Item[0];
+		}
 		// Return the item list while keeping it unmodifiable from the outside.
-		return unmodifiableList(this.items);
+		return unmodifiableList(Arrays.asList(this.items));
 	}
 
 	/**
@@ -76,7 +345,16 @@ public class ItemPackage {
 	 * @return the sum of the items
 	 */
 	public Double getTotalItemsWeight() {
-		return this.items.stream().mapToDouble(Item::getWeight).sum();
+		return (double) this.totalWeight;
+	}
+
+	/**
+	 * Returns the sum of all the item weights, without boxing.
+	 * 
+	 * @return the sum of the item weights
+	 */
+	public long getTotalWeight() {
+		return this.totalWeight;
 	}
 
 	/**
@@ -85,7 +363,7 @@ public class ItemPackage {
 	 * @return true if the {@link ItemPackage} has items, false otherwise
 	 */
 	public boolean hasItems() {
-		return !this.items.isEmpty();
+		return this.weights.length > 0;
 	}
 
 }
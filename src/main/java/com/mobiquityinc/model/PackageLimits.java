@@ -0,0 +1,196 @@
+package com.mobiquityinc.model;
+
+import java.util.Properties;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Limits of the packages and items accepted, configured with the system
+ * properties:
+ * <ul>
+ * <li>{@value #profileProperty}: {@value #standardProfile}, the default, with
+ * the limits of the challenge: 100 for the package max weight, the item weights
+ * and the item costs. Or {@value #largeProfile}, for packages with thousands of
+ * items and capacities in the millions.</li>
+ * <li>{@value #maxPackageWeightProperty}, {@value #maxItemWeightProperty} and
+ * {@value #maxItemCostProperty}: override a single limit of the profile.</li>
+ * </ul>
+ * 
+ * No limit can be over {@value #maxLimit}: weights are multiplied by 100 and
+ * stored as integers, and they are parsed as floats, which hold every integer
+ * up to 2^24.
+ * 
+ * @author dfjmax
+ *
+ */
+public final class PackageLimits {
+
+	/**
+	 * System property used to choose the limits profile.
+	 */
+	public static final String profileProperty = "com.mobiquityinc.limits";
+
+	/**
+	 * System property used to override the package max weight limit.
+	 */
+	public static final String maxPackageWeightProperty = "com.mobiquityinc.limits.maxPackageWeight";
+
+	/**
+	 * System property used to override the item weight limit.
+	 */
+	public static final String maxItemWeightProperty = "com.mobiquityinc.limits.maxItemWeight";
+
+	/**
+	 * System property used to override the item cost limit.
+	 */
+	public static final String maxItemCostProperty = "com.mobiquityinc.limits.maxItemCost";
+
+	/**
+	 * Name of the profile with the limits of the challenge.
+	 */
+	public static final String standardProfile = "standard";
+
+	/**
+	 * Name of the profile for large instances.
+	 */
+	public static final String largeProfile = "large";
+
+	/**
+	 * Highest value of any limit.
+	 */
+	public static final int maxLimit = 10_000_000;
+
+	/**
+	 * Limits of the challenge.
+	 */
+	public static final PackageLimits standard = new PackageLimits(100, 100, 100);
+
+	/**
+	 * Limits for large instances. The exact solvers keep rows of 8 bytes per
+	 * hundredth of the max weight, so the largest max weights need tens of GB of
+	 * heap, see {@link com.mobiquityinc.packer.solver.HirschbergKnapsackSolver}.
+	 */
+	public static final PackageLimits large = new PackageLimits(maxLimit, maxLimit, 1_000_000);
+
+	private static volatile PackageLimits configured;
+
+	private final int maxPackageWeight;
+	private final int maxItemWeight;
+	private final int maxItemCost;
+
+	/**
+	 * Creates the limits.
+	 * 
+	 * @param maxPackageWeight the package max weight limit
+	 * @param maxItemWeight    the item weight limit
+	 * @param maxItemCost      the item cost limit
+	 * 
+	 * @throws {@link APIException} when a limit is negative or over
+	 *         {@value #maxLimit}
+	 */
+	public PackageLimits(int maxPackageWeight, int maxItemWeight, int maxItemCost) {
+		super();
+		if (isInvalid(maxPackageWeight) || isInvalid(maxItemWeight) || isInvalid(maxItemCost)) {
+			throw new APIException("The limits should be between 0 and " + maxLimit + ".");
+		}
+		this.maxPackageWeight = maxPackageWeight;
+		this.maxItemWeight = maxItemWeight;
+		this.maxItemCost = maxItemCost;
+	}
+
+	private static boolean isInvalid(int limit) {
+		return limit < 0 || limit > maxLimit;
+	}
+
+	/**
+	 * Gets the limits configured with the system properties, which are read the
+	 * first time.
+	 * 
+	 * @return the configured limits
+	 * 
+	 * @throws {@link APIException} when the properties are invalid
+	 */
+	public static PackageLimits configured() {
+		PackageLimits limits = configured;
+		if (limits == null) {
+			limits = fromProperties(System.getProperties());
+			configured = limits;
+		}
+		return limits;
+	}
+
+	/**
+	 * Reads the system properties again, so tests can change them.
+	 */
+	public static void reload() {
+		configured = null;
+	}
+
+	/**
+	 * Gets the limits configured with some properties.
+	 * 
+	 * @param properties the properties
+	 * @return the limits
+	 * 
+	 * @throws {@link APIException} when the profile does not exist or a limit is
+	 *         invalid
+	 */
+	public static PackageLimits fromProperties(Properties properties) {
+		String profileName = properties.getProperty(profileProperty, standardProfile);
+		PackageLimits profile;
+		if (standardProfile.equals(profileName)) {
+			profile = standard;
+		} else if (largeProfile.equals(profileName)) {
+			profile = large;
+		} else {
+			throw new APIException("Unknown limits profile '" + profileName + "', available profiles: ["
+					+ standardProfile + ", " + largeProfile + "]");
+		}
+		return new PackageLimits(intProperty(properties, maxPackageWeightProperty, profile.maxPackageWeight),
+				intProperty(properties, maxItemWeightProperty, profile.maxItemWeight),
+				intProperty(properties, maxItemCostProperty, profile.maxItemCost));
+	}
+
+	/**
+	 * Gets a numeric property.
+	 */
+	private static int intProperty(Properties properties, String property, int defaultValue) {
+		String value = properties.getProperty(property);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new APIException("The " + property + " property should be a number.", e);
+		}
+	}
+
+	/**
+	 * Gets the package max weight limit.
+	 * 
+	 * @return the highest max weight of a package
+	 */
+	public int getMaxPackageWeight() {
+		return this.maxPackageWeight;
+	}
+
+	/**
+	 * Gets the item weight limit.
+	 * 
+	 * @return the highest weight of an item
+	 */
+	public int getMaxItemWeight() {
+		return this.maxItemWeight;
+	}
+
+	/**
+	 * Gets the item cost limit.
+	 * 
+	 * @return the highest cost of an item
+	 */
+	public int getMaxItemCost() {
+		return this.maxItemCost;
+	}
+
+}
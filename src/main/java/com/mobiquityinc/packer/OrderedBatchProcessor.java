@@ -0,0 +1,143 @@
+package com.mobiquityinc.packer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Processes a sequence of inputs on an {@link ExecutorService} while keeping
+ * the results in the same order as the inputs.
+ * 
+ * Inputs are grouped in batches, so every task solves several packages, and
+ * only a bounded number of batches is in flight at the same time: once the
+ * window is full the oldest batch is awaited and its results are passed to the
+ * consumer before submitting a new one. This keeps the memory bounded no
+ * matter how many inputs there are.
+ * 
+ * @author dfjmax
+ *
+ * @param <T> the input type
+ */
+public class OrderedBatchProcessor<T> {
+
+	private final ExecutorService executor;
+	private final int batchSize;
+	private final int maxBatchesInFlight;
+
+	/**
+	 * Creates an {@link OrderedBatchProcessor}.
+	 * 
+	 * @param executor           the executor used to process the batches
+	 * @param batchSize          the number of inputs processed by each task
+	 * @param maxBatchesInFlight the max number of batches submitted and not yet
+	 *                           consumed
+	 * 
+	 * @throws {@link APIException} when invalid parameters are used
+	 */
+	public OrderedBatchProcessor(ExecutorService executor, int batchSize, int maxBatchesInFlight) {
+		super();
+		if (executor == null || batchSize < 1 || maxBatchesInFlight < 1) {
+			throw new APIException("The batch processor can not be built as invalid parameters are being used.");
+		}
+		this.executor = executor;
+		this.batchSize = batchSize;
+		this.maxBatchesInFlight = maxBatchesInFlight;
+	}
+
+	/**
+	 * Applies the task to every input and passes the results to the consumer in
+	 * the inputs order. The consumer is always called from the calling thread.
+	 * 
+	 * @param inputs   the inputs to be processed
+	 * @param task     the task applied to every input
+	 * @param consumer the consumer of the results
+	 * 
+	 * @throws {@link APIException} when one of the tasks fails
+	 */
+	public void process(Iterator<T> inputs, Function<T, String> task, Consumer<String> consumer) {
+		processBatches(inputs, batch -> apply(batch, task), consumer);
+	}
+
+	/**
+	 * Same as {@link #process(Iterator, Function, Consumer)} but applying the task
+	 * to whole batches, for tasks that share work between the inputs of a batch.
+	 * 
+	 * @param inputs    the inputs to be processed
+	 * @param batchTask the task applied to every batch, returning one result per
+	 *                  input in the batch order
+	 * @param consumer  the consumer of the results
+	 * 
+	 * @throws {@link APIException} when one of the tasks fails
+	 */
+	public void processBatches(Iterator<T> inputs, Function<List<T>, String[]> batchTask, Consumer<String> consumer) {
+		Deque<Future<String[]>> inFlight = new ArrayDeque<>();
+		try {
+			while (inputs.hasNext()) {
+				List<T> batch = new ArrayList<>(batchSize);
+				while (batch.size() < batchSize && inputs.hasNext()) {
+					batch.add(inputs.next());
+				}
+				inFlight.addLast(executor.submit(() -> batchTask.apply(batch)));
+
+				// Wait for the oldest batch once the window is full
+				if (inFlight.size() >= maxBatchesInFlight) {
+					consume(inFlight.removeFirst(), consumer);
+				}
+			}
+			while (!inFlight.isEmpty()) {
+				consume(inFlight.removeFirst(), consumer);
+			}
+		} finally {
+			// Do not leave tasks running when a batch failed
+			inFlight.forEach(future -> future.cancel(true));
+		}
+	}
+
+	/**
+	 * Applies the task to every input of a batch.
+	 * 
+	 * @param batch the inputs of the batch
+	 * @param task  the task applied to every input
+	 * @return the results in the batch order
+	 */
+	private static <T> String[] apply(List<T> batch, Function<T, String> task) {
+		String[] results = new String[batch.size()];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = task.apply(batch.get(i));
+		}
+		return results;
+	}
+
+	/**
+	 * Waits for a batch and passes its results to the consumer.
+	 * 
+	 * @param future   the batch being processed
+	 * @param consumer the consumer of the results
+	 */
+	private static void consume(Future<String[]> future, Consumer<String> consumer) {
+		try {
+			for (String result : future.get()) {
+				consumer.accept(result);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new APIException("Interrupted while waiting for the packages to be solved.", e);
+		} catch (ExecutionException e) {
+			// Keep the original API exception so the caller gets the real error
+			if (e.getCause() instanceof APIException) {
+				throw (APIException) e.getCause();
+			}
+			throw new APIException("Unable to solve the packages.", e.getCause());
+		}
+	}
+
+}
@@ -1,15 +1,39 @@
 package com.mobiquityinc.packer;
 
-import static java.lang.Math.max;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
-import java.util.LinkedList;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.PackingMetrics;
 import com.mobiquityinc.model.Item;
 import com.mobiquityinc.model.ItemPackage;
+import com.mobiquityinc.packer.solver.ApproximateSelection;
+import com.mobiquityinc.packer.solver.DeadlineSolver;
+import com.mobiquityinc.packer.solver.FptasSolver;
+import com.mobiquityinc.packer.solver.KnapsackSolver;
+import com.mobiquityinc.packer.solver.MultiCapacitySolver;
+import com.mobiquityinc.packer.solver.SolverConfiguration;
+import com.mobiquityinc.packer.solver.SolverSelector;
 import com.mobiquityinc.reader.InputFileReader;
-
-import junit.framework.TestCase;
+import com.mobiquityinc.reader.LineParser;
+import com.mobiquityinc.reader.MappedInputFileReader;
+import com.mobiquityinc.reader.MappedInputFileReader.Chunk;
 
 /**
  * Class responsible of finding the best items combination to build a package
@@ -17,7 +41,7 @@ import junit.framework.TestCase;
  * 
  * Its main method {@link #pack(String)} receives an input file absolute path
  * with a list of test cases, and returns a String with the result for each
- * {@link TestCase}
+ * test case
  * 
  * I did a research and read about the knapsack algorithm using dynamic
  * programming and implemented this class using that solution.
@@ -27,6 +51,41 @@ import junit.framework.TestCase;
  */
 public class Packer {
 
+	/**
+	 * Solver used when none is specified: the one forced in the configuration or,
+	 * by default, the fastest solver for each package.
+	 */
+	private static final KnapsackSolver defaultSolver = SolverConfiguration.configuredSolver();
+
+	/**
+	 * Number of packages solved by each task when packing in parallel.
+	 */
+	private static final int parallelBatchSize = 256;
+
+	/**
+	 * Number of batches per worker that can be in flight when packing in parallel.
+	 */
+	private static final int parallelBatchesPerWorker = 4;
+
+	/**
+	 * Number of packages of a file searched for shared catalogues at a time when
+	 * packing sequentially.
+	 */
+	private static final int sharedCatalogueBatchSize = 256;
+
+	private static final MultiCapacitySolver multiCapacitySolver = new MultiCapacitySolver();
+
+	/**
+	 * Line parser of each thread packing single lines or batches of lines,
+	 * parsers are not thread safe.
+	 */
+	private static final ThreadLocal<LineParser> lineParser = ThreadLocal.withInitial(LineParser::new);
+
+	/**
+	 * Result formatter of each thread, formatters are not thread safe.
+	 */
+	private static final ThreadLocal<ResultFormatter> resultFormatter = ThreadLocal.withInitial(ResultFormatter::new);
+
 	/**
 	 * This method receives an absolute path to a file containing the test cases,
 	 * and calls the corresponding methods to build the end packages with items
@@ -40,137 +99,659 @@ public class Packer {
 	 *         exist or contains invalid data
 	 */
 	public static String pack(String inputFile) {
-		StringBuilder sb = new StringBuilder();
-		for (ItemPackage itemPackage : new InputFileReader().read(inputFile)) {
-			sb.append("\n" + getItemsForPackage(itemPackage));
+		return pack(inputFile, defaultSolver);
+	}
+
+	/**
+	 * Same as {@link #pack(String)} but using the given {@link KnapsackSolver} to
+	 * select the items of each package.
+	 * 
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param solver    the solver used to select the items
+	 * @return a String containing which items were selected for each package
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data
+	 */
+	public static String pack(String inputFile, KnapsackSolver solver) {
+		StringWriter output = new StringWriter();
+		pack(inputFile, solver, output);
+		return output.toString();
+	}
+
+	/**
+	 * Same as {@link #pack(String)} but writing the result of each package to the
+	 * given {@link Writer} as soon as it is solved, instead of returning them all
+	 * in a String. The text written is the same one returned by
+	 * {@link #pack(String)}.
+	 * 
+	 * Every result is written separately, so the writer should be buffered. It is
+	 * flushed at the end but not closed. With the default solver, packages are
+	 * read and solved in batches, see {@link #pack(String, KnapsackSolver, Writer)}.
+	 * 
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param output    the writer of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, or when the results can not be
+	 *         written
+	 */
+	public static void pack(String inputFile, Writer output) {
+		pack(inputFile, defaultSolver, output);
+	}
+
+	/**
+	 * Same as {@link #pack(String, Writer)} but writing the results to an
+	 * {@link OutputStream}, UTF-8 encoded and buffered. The stream is flushed at
+	 * the end but not closed.
+	 * 
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param output    the stream of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, or when the results can not be
+	 *         written
+	 */
+	public static void pack(String inputFile, OutputStream output) {
+		pack(inputFile, defaultSolver, new BufferedWriter(new OutputStreamWriter(output, UTF_8)));
+	}
+
+	/**
+	 * Same as {@link #pack(String, Writer)} but using the given
+	 * {@link KnapsackSolver} to select the items of each package.
+	 * 
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param solver    the solver used to select the items
+	 * @param output    the writer of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, or when the results can not be
+	 *         written
+	 */
+	public static void pack(String inputFile, KnapsackSolver solver, Writer output) {
+		ResultFormatter formatter = new ResultFormatter();
+		try {
+			if (!(solver instanceof SolverSelector)) {
+				// Packages are solved while the rest of the file is still being read
+				new InputFileReader().forEach(inputFile, itemPackage -> {
+					formatter.clear();
+					formatter.append('\n');
+					formatItemsForPackage(itemPackage, solver, formatter);
+					write(formatter, output);
+				});
+			} else {
+				// Batches of packages are solved while the rest of the file is still being read
+				List<ItemPackage> batch = new ArrayList<>(sharedCatalogueBatchSize);
+				new InputFileReader().forEach(inputFile, itemPackage -> {
+					batch.add(itemPackage);
+					if (batch.size() == sharedCatalogueBatchSize) {
+						writeBatch(batch, solver, formatter, output);
+						batch.clear();
+					}
+				});
+				writeBatch(batch, solver, formatter, output);
+			}
+			output.flush();
+		} catch (IOException | UncheckedIOException e) {
+			throw new APIException("Unable to write the results.", e);
 		}
-		return sb.toString();
 	}
 
 	/**
-	 * This method gets the best items for a given {@link ItemPackage}.
+	 * Packs the test cases read from the input, one per line, and writes the
+	 * result of each one as a line of the output. Runs until the end of the
+	 * input, for example to be used as a filter between a standard input and a
+	 * standard output.
 	 * 
-	 * Package private for easy testing.
+	 * The output is flushed whenever there is no more input ready to be read, and
+	 * at least every maxFlushDelayMillis while the input keeps coming, so results
+	 * are not held back by the output buffer.
 	 * 
-	 * @param itemPackage the {@link ItemPackage}
-	 * @return a comma separated string containing the best cost/weight ratio items
-	 *         indexes
+	 * @param input               the reader of the test cases
+	 * @param output              the writer of the results
+	 * @param maxFlushDelayMillis the max time results can wait to be flushed while
+	 *                            there is more input ready
+	 * 
+	 * @throws {@link APIException} when a line contains invalid data, or when the
+	 *         input can not be read or the results can not be written
 	 */
-	static String getItemsForPackage(ItemPackage itemPackage) {
-		/*
-		 * Items that does not fit in the package were removed previously in the
-		 * InputFileReader. If the item package does not contain any items return "-"
-		 */
-		if (!itemPackage.hasItems()) {
-			return "-";
+	public static void pipe(Reader input, Writer output, long maxFlushDelayMillis) {
+		BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+		LineParser parser = new LineParser();
+		ResultFormatter formatter = new ResultFormatter();
+		long maxFlushDelay = TimeUnit.MILLISECONDS.toNanos(maxFlushDelayMillis);
+		long lastFlush = System.nanoTime();
+		try {
+			String inputLine;
+			while ((inputLine = reader.readLine()) != null) {
+				formatter.clear();
+				formatItemsForPackage(parser.parse(inputLine), defaultSolver, formatter);
+				formatter.append('\n');
+				formatter.writeTo(output);
+				// Flush before waiting for more input, or when the results waited too long
+				long now = System.nanoTime();
+				if (!reader.ready() || now - lastFlush >= maxFlushDelay) {
+					output.flush();
+					lastFlush = now;
+				}
+			}
+			output.flush();
+		} catch (IOException e) {
+			throw new APIException("Unable to pipe the test cases.", e);
 		}
-		/*
-		 * If all the items fit inside the package, return the complete list of items
-		 */
-		if (itemPackage.getTotalItemsWeight() < itemPackage.getMaxWeight()) {
-			return itemListToCommaSeparatedIndexString(itemPackage.getItems());
+	}
+
+	/**
+	 * Writes the results of a batch of packages, each one after a line break.
+	 */
+	private static void writeBatch(List<ItemPackage> itemPackages, KnapsackSolver solver, ResultFormatter formatter,
+			Writer output) {
+		List<List<Item>> sharedSelections = sharedSelections(itemPackages, solver);
+		for (int i = 0; i < itemPackages.size(); i++) {
+			formatter.clear();
+			formatter.append('\n');
+			formatItemsForPackage(itemPackages.get(i), solver, formatter, sharedSelections.get(i));
+			write(formatter, output);
 		}
+	}
 
-		/*
-		 * Otherwise call the knapsack algorithm and calculate the best possible
-		 * solution
-		 */
-		List<Item> selectedItems = knapsack(itemPackage);
-		return itemListToCommaSeparatedIndexString(selectedItems);
+	/**
+	 * Parses a batch of lines with the parser of the current thread and gets
+	 * their results, in the batch order.
+	 */
+	private static String[] getItemsForLines(List<String> inputLines, KnapsackSolver solver) {
+		LineParser parser = lineParser.get();
+		List<ItemPackage> itemPackages = new ArrayList<>(inputLines.size());
+		for (String inputLine : inputLines) {
+			itemPackages.add(parser.parse(inputLine));
+		}
+		return getItemsForPackages(itemPackages, solver);
+	}
+
+	/**
+	 * Gets the results of a batch of packages, in the batch order.
+	 */
+	private static String[] getItemsForPackages(List<ItemPackage> itemPackages, KnapsackSolver solver) {
+		List<List<Item>> sharedSelections = sharedSelections(itemPackages, solver);
+		ResultFormatter formatter = resultFormatter.get();
+		String[] results = new String[itemPackages.size()];
+		for (int i = 0; i < results.length; i++) {
+			formatter.clear();
+			formatItemsForPackage(itemPackages.get(i), solver, formatter, sharedSelections.get(i));
+			results[i] = formatter.toString();
+		}
+		return results;
+	}
+
+	/**
+	 * Solves together the packages of a batch that share their catalogue of items
+	 * and differ in their max weight, see
+	 * {@link MultiCapacitySolver#solveShared(List)}. Only done for the
+	 * {@link SolverSelector}, whose solvers follow the same tie-break rule, so the
+	 * results are the same ones.
+	 * 
+	 * @param itemPackages the packages of the batch
+	 * @param solver       the solver of the packages
+	 * @return the selected items of each package, null for the packages to be
+	 *         solved on their own
+	 */
+	private static List<List<Item>> sharedSelections(List<ItemPackage> itemPackages, KnapsackSolver solver) {
+		List<List<Item>> sharedSelections = new ArrayList<>(Collections.nCopies(itemPackages.size(), null));
+		if (!(solver instanceof SolverSelector) || itemPackages.size() < 2) {
+			return sharedSelections;
+		}
+		// Only the packages that are passed to the solver
+		List<Integer> solvedPositions = new ArrayList<>();
+		List<ItemPackage> solvedPackages = new ArrayList<>();
+		for (int i = 0; i < itemPackages.size(); i++) {
+			ItemPackage itemPackage = itemPackages.get(i);
+			if (itemPackage.hasItems() && itemPackage.getTotalWeight() >= itemPackage.getMaxWeight()) {
+				solvedPositions.add(i);
+				solvedPackages.add(itemPackage);
+			}
+		}
+		List<List<Item>> selections = multiCapacitySolver.solveShared(solvedPackages);
+		for (int i = 0; i < selections.size(); i++) {
+			sharedSelections.set(solvedPositions.get(i), selections.get(i));
+		}
+		return sharedSelections;
+	}
+
+	private static void write(ResultFormatter formatter, Writer output) {
+		try {
+			formatter.writeTo(output);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void write(String text, Writer output) {
+		try {
+			output.write(text);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Same as {@link #pack(String)} but solving the packages in parallel on a
+	 * dedicated {@link ForkJoinPool}. The results keep the input file order.
+	 * 
+	 * The pool size is bounded by the number of available processors, so several
+	 * jobs can share the same host. The pool is shut down before returning.
+	 * 
+	 * @param inputFile   the absolute path to the input file containing the test
+	 *                    cases
+	 * @param parallelism the max number of packages solved at the same time
+	 * @return a String containing which items were selected for each package
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, or when the parallelism is not
+	 *         positive
+	 */
+	public static String pack(String inputFile, int parallelism) {
+		StringWriter output = new StringWriter();
+		pack(inputFile, parallelism, output);
+		return output.toString();
+	}
+
+	/**
+	 * Same as {@link #pack(String, int)} but writing the results of each batch of
+	 * packages to the given {@link Writer} as soon as it is solved and the
+	 * batches before it were written, so the results are not held in memory. The
+	 * text written is the same one returned by {@link #pack(String, int)}.
+	 * 
+	 * The writer is flushed at the end but not closed.
+	 * 
+	 * @param inputFile   the absolute path to the input file containing the test
+	 *                    cases
+	 * @param parallelism the max number of packages solved at the same time
+	 * @param output      the writer of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, when the parallelism is not
+	 *         positive, or when the results can not be written
+	 */
+	public static void pack(String inputFile, int parallelism, Writer output) {
+		ForkJoinPool pool = newPool(parallelism);
+		try {
+			pack(inputFile, pool, output);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Same as {@link #pack(String, int, Writer)} but writing the results to an
+	 * {@link OutputStream}, UTF-8 encoded and buffered. The stream is flushed at
+	 * the end but not closed.
+	 * 
+	 * @param inputFile   the absolute path to the input file containing the test
+	 *                    cases
+	 * @param parallelism the max number of packages solved at the same time
+	 * @param output      the stream of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, when the parallelism is not
+	 *         positive, or when the results can not be written
+	 */
+	public static void pack(String inputFile, int parallelism, OutputStream output) {
+		pack(inputFile, parallelism, new BufferedWriter(new OutputStreamWriter(output, UTF_8)));
 	}
 
 	/**
+	 * Same as {@link #pack(String)} but solving the packages on the given
+	 * {@link ExecutorService}. The results keep the input file order.
 	 * 
-	 * Dynamic programming algorithm to solve the knapsack problem.
+	 * The executor is not shut down, so it can be shared between several calls.
 	 * 
-	 * @param itemPackage the item package with the list of possible items
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param executor  the executor used to solve the packages
+	 * @return a String containing which items were selected for each package
 	 * 
-	 * @return the selected items list
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data
 	 */
-	private static List<Item> knapsack(ItemPackage itemPackage) {
-		// Store the item size
-		int itemSize = itemPackage.getItems().size();
+	public static String pack(String inputFile, ExecutorService executor) {
+		StringWriter output = new StringWriter();
+		pack(inputFile, executor, output);
+		return output.toString();
+	}
 
-		// Matrix to store the possible solutions
-		double[][] possibleSolutions = new double[itemSize + 1][itemPackage.getMaxWeight() + 1];
+	/**
+	 * Same as {@link #pack(String, ExecutorService)} but writing the results of
+	 * each batch of packages to the given {@link Writer} as soon as it is solved
+	 * and the batches before it were written. The writer is flushed at the end
+	 * but not closed.
+	 *
+	 * Each batch of lines is parsed and solved by the same worker, the calling
+	 * thread only reads the lines and writes the results.
+	 *
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param executor  the executor used to solve the packages
+	 * @param output    the writer of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, or when the results can not be
+	 *         written
+	 */
+	public static void pack(String inputFile, ExecutorService executor, Writer output) {
+		OrderedBatchProcessor<String> processor = new OrderedBatchProcessor<>(executor, parallelBatchSize,
+				workers(executor) * parallelBatchesPerWorker);
 
-		// Initialize first line to zero
-		for (int i = 0; i <= itemPackage.getMaxWeight(); i++) {
-			possibleSolutions[0][i] = 0;
+		// Lines are parsed by the workers, the calling thread only reads them
+		try (Stream<String> inputLines = new InputFileReader().lines(inputFile)) {
+			processor.processBatches(inputLines.iterator(), batch -> getItemsForLines(batch, defaultSolver),
+					result -> {
+						write("\n", output);
+						write(result, output);
+					});
+			output.flush();
+		} catch (IOException | UncheckedIOException e) {
+			throw new APIException("Unable to write the results.", e);
 		}
+	}
+
+	/**
+	 * Same as {@link #pack(String, int)} but memory mapping the input file. The
+	 * file is split in chunks of complete lines and each chunk is parsed and
+	 * solved on its own worker, the results keep the input file order.
+	 * 
+	 * @param inputFile   the absolute path to the input file containing the test
+	 *                    cases
+	 * @param parallelism the max number of chunks processed at the same time
+	 * @return a String containing which items were selected for each package
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, or when the parallelism is not
+	 *         positive
+	 */
+	public static String packMappedFile(String inputFile, int parallelism) {
+		StringWriter output = new StringWriter();
+		packMappedFile(inputFile, parallelism, output);
+		return output.toString();
+	}
 
-		// Iterate items
-		for (int index = 1; index <= itemSize; index++) {
-			
-			// The current item
-			Item item = itemPackage.getItems().get(index - 1);
-			
-			// Iterate weights
-			for (int weight = 1; weight <= itemPackage.getMaxWeight(); weight++) {
+	/**
+	 * Same as {@link #packMappedFile(String, int)} but writing the results of each
+	 * chunk to the given {@link Writer} as soon as it is solved and the chunks
+	 * before it were written, so the results are not held in memory. The writer
+	 * is flushed at the end but not closed.
+	 * 
+	 * @param inputFile   the absolute path to the input file containing the test
+	 *                    cases
+	 * @param parallelism the max number of chunks processed at the same time
+	 * @param output      the writer of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, when the parallelism is not
+	 *         positive, or when the results can not be written
+	 */
+	public static void packMappedFile(String inputFile, int parallelism, Writer output) {
+		ForkJoinPool pool = newPool(parallelism);
+		try {
+			packMappedFile(inputFile, pool, output);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
 
-				// If the item does not fits within the actual weight take the previous solution for the current weight
-				if (item.getWeight() > weight) {
-					possibleSolutions[index][weight] = possibleSolutions[index - 1][weight];
-				} else {
-					// Cost obtained when adding this item cost + previous cost without this item 
-					double tookItemCost = item.getCost() + possibleSolutions[index - 1][weight - item.getWeight()];
-					// If the total cost after adding this item is better than the previous value for this weight, it will became the better cost
-					// Fot the current weight
-					possibleSolutions[index][weight] = max(tookItemCost, possibleSolutions[index - 1][weight]);
+	/**
+	 * Same as {@link #packMappedFile(String, int, Writer)} but writing the
+	 * results to an {@link OutputStream}, UTF-8 encoded and buffered. The stream
+	 * is flushed at the end but not closed.
+	 * 
+	 * @param inputFile   the absolute path to the input file containing the test
+	 *                    cases
+	 * @param parallelism the max number of chunks processed at the same time
+	 * @param output      the stream of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, when the parallelism is not
+	 *         positive, or when the results can not be written
+	 */
+	public static void packMappedFile(String inputFile, int parallelism, OutputStream output) {
+		packMappedFile(inputFile, parallelism, new BufferedWriter(new OutputStreamWriter(output, UTF_8)));
+	}
+
+	/**
+	 * Same as {@link #packMappedFile(String, int)} but processing the chunks on
+	 * the given {@link ExecutorService}, which is not shut down.
+	 * 
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param executor  the executor used to process the chunks
+	 * @return a String containing which items were selected for each package
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data
+	 */
+	public static String packMappedFile(String inputFile, ExecutorService executor) {
+		StringWriter output = new StringWriter();
+		packMappedFile(inputFile, executor, output);
+		return output.toString();
+	}
+
+	/**
+	 * Same as {@link #packMappedFile(String, ExecutorService)} but writing the
+	 * results of each chunk to the given {@link Writer} as soon as it is solved
+	 * and the chunks before it were written. The writer is flushed at the end but
+	 * not closed.
+	 * 
+	 * @param inputFile the absolute path to the input file containing the test
+	 *                  cases
+	 * @param executor  the executor used to process the chunks
+	 * @param output    the writer of the results
+	 * 
+	 * @throws {@link APIException} when the specified file input path does not
+	 *         exist or contains invalid data, or when the results can not be
+	 *         written
+	 */
+	public static void packMappedFile(String inputFile, ExecutorService executor, Writer output) {
+		// Chunks are big, so a single chunk per task and per worker in flight is enough
+		OrderedBatchProcessor<Chunk> processor = new OrderedBatchProcessor<>(executor, 1, workers(executor) * 2);
+
+		try (MappedInputFileReader reader = new MappedInputFileReader(inputFile)) {
+			processor.process(reader.chunks(), chunk -> {
+				List<ItemPackage> chunkPackages = new ArrayList<>();
+				chunk.forEach(chunkPackages::add);
+				StringBuilder chunkResult = new StringBuilder();
+				for (String result : getItemsForPackages(chunkPackages, defaultSolver)) {
+					chunkResult.append("\n").append(result);
 				}
+				return chunkResult.toString();
+			}, chunkResult -> write(chunkResult, output));
+			output.flush();
+		} catch (IOException | UncheckedIOException e) {
+			throw new APIException("Unable to write the results.", e);
+		}
+	}
 
-			}
+	/**
+	 * Creates the pool of the parallel modes, bounded by the number of available
+	 * processors.
+	 * 
+	 * @param parallelism the max number of tasks run at the same time
+	 * @return the pool
+	 * 
+	 * @throws {@link APIException} when the parallelism is not positive
+	 */
+	private static ForkJoinPool newPool(int parallelism) {
+		if (parallelism < 1) {
+			throw new APIException("The parallelism should be a positive number.");
 		}
-		return determineSolution(itemPackage, possibleSolutions);
+		return new ForkJoinPool(Math.min(parallelism, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Gets the number of workers of an {@link ExecutorService}, or the number of
+	 * available processors when it is unknown.
+	 * 
+	 * @param executor the executor
+	 * @return the number of workers
+	 */
+	private static int workers(ExecutorService executor) {
+		return executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism()
+				: Runtime.getRuntime().availableProcessors();
 	}
 
 	/**
+	 * Gets how many packages were solved exactly and how many budgets expired
+	 * since the application started, when the default solver has time or work
+	 * budgets, see {@link DeadlineSolver}.
 	 * 
-	 * Determines the best solution among the previously calculated possibilities
+	 * @return the budgets summary, or null when no budget is configured
+	 */
+	public static String getBudgetReport() {
+		DeadlineSolver budgetSolver = SolverConfiguration.budgetSolver(defaultSolver);
+		return budgetSolver == null ? null : budgetSolver.getReport();
+	}
+
+	/**
+	 * Packs a single test case line, for callers that receive the lines one by one
+	 * instead of in a file. Can be called from several threads at the same time.
 	 * 
-	 * @param itemPackage       the package being processed
-	 * @param possibleSolutions a matrix with possible combinations of packages
+	 * @param inputLine the test case line
+	 * @return a String containing which items were selected for the package
 	 * 
-	 * @return a list of items with the best cost/weight ratio for the package
+	 * @throws {@link APIException} when the line contains invalid data
 	 */
-	private static List<Item> determineSolution(ItemPackage itemPackage, double[][] possibleSolutions) {
+	public static String packLine(String inputLine) {
+		return getItemsForPackage(lineParser.get().parse(inputLine));
+	}
 
-		// Store the item size
-		int itemSize = itemPackage.getItems().size();
+	/**
+	 * Same as {@link #packLine(String)} but accepting a package whose cost is at
+	 * least (1 - epsilon) times the best cost, when it can be found faster, see
+	 * {@link FptasSolver}. Approximate results end with " ~" and the guaranteed
+	 * fraction of the best cost, like "2,7 ~0.95".
+	 * 
+	 * @param inputLine the test case line
+	 * @param epsilon   the max fraction of the best cost that can be lost, between
+	 *                  0 and 1
+	 * @return a String containing which items were selected for the package
+	 * 
+	 * @throws {@link APIException} when the line contains invalid data or epsilon
+	 *         is not between 0 and 1
+	 */
+	public static String packLine(String inputLine, double epsilon) {
+		return getItemsForPackage(lineParser.get().parse(inputLine), new FptasSolver(defaultSolver, epsilon));
+	}
 
-		// Store the capacity
-		int capacity = itemPackage.getMaxWeight();
+	/**
+	 * This method gets the best items for a given {@link ItemPackage}.
+	 * 
+	 * Package private for easy testing.
+	 * 
+	 * @param itemPackage the {@link ItemPackage}
+	 * @return a comma separated string containing the best cost/weight ratio items
+	 *         indexes
+	 */
+	static String getItemsForPackage(ItemPackage itemPackage) {
+		return getItemsForPackage(itemPackage, defaultSolver);
+	}
 
-		// Items with the best value
-		List<Item> selectedItems = new LinkedList<>();
+	/**
+	 * This method gets the best items for a given {@link ItemPackage} using the
+	 * given {@link KnapsackSolver}.
+	 * 
+	 * @param itemPackage the {@link ItemPackage}
+	 * @param solver      the solver used when not all the items fit
+	 * @return a comma separated string containing the best cost/weight ratio items
+	 *         indexes
+	 */
+	static String getItemsForPackage(ItemPackage itemPackage, KnapsackSolver solver) {
+		ResultFormatter formatter = resultFormatter.get();
+		formatter.clear();
+		formatItemsForPackage(itemPackage, solver, formatter);
+		return formatter.toString();
+	}
 
-		// The last row/column stores the maximum cost for this package
-		for (int index = itemSize; index > 0; index--) {
-			
-			/* 
-			 * If the total cost obtained in the last row/column of the matrix is not different
-			 * than the previous row, it means that this item wasn't taken, so skip the item.
-			 * If it's different it means this item is part of the solution
-			 */
-			if (possibleSolutions[index][capacity] != possibleSolutions[index - 1][capacity]) {
-				Item item = itemPackage.getItems().get(index - 1);
-				selectedItems.add(item);
-				// Once we add a new item, we update the total capacity
-				capacity -= item.getWeight();
-			}
-		}
-		return selectedItems;
+	/**
+	 * Same as {@link #getItemsForPackage(ItemPackage, KnapsackSolver)} but
+	 * appending the result to a {@link ResultFormatter}.
+	 * 
+	 * @param itemPackage the {@link ItemPackage}
+	 * @param solver      the solver used when not all the items fit
+	 * @param formatter   the formatter of the result
+	 */
+	private static void formatItemsForPackage(ItemPackage itemPackage, KnapsackSolver solver,
+			ResultFormatter formatter) {
+		formatItemsForPackage(itemPackage, solver, formatter, null);
 	}
 
 	/**
-	 * Gets the indexes of the selected items as a comma separated string.
+	 * Same as {@link #formatItemsForPackage(ItemPackage, KnapsackSolver, ResultFormatter)}
+	 * but with the selected items when they were already found together with
+	 * other packages.
 	 * 
-	 * @return the items indexes as string, comma separated
+	 * @param itemPackage     the {@link ItemPackage}
+	 * @param solver          the solver used when not all the items fit
+	 * @param formatter       the formatter of the result
+	 * @param sharedSelection the selected items, null when the package should be
+	 *                        solved
 	 */
-	private static String itemListToCommaSeparatedIndexString(List<Item> items) {
-		// Return the indexes sorted in ascending order
-		String indexes[] = items.stream().map(Item::getIndex).sorted().map(i -> i.toString()).toArray(String[]::new);
-		return String.join(",", indexes);
+	private static void formatItemsForPackage(ItemPackage itemPackage, KnapsackSolver solver,
+			ResultFormatter formatter, List<Item> sharedSelection) {
+		if (!PackingMetrics.enabled) {
+			selectItems(itemPackage, solver, formatter, sharedSelection);
+			return;
+		}
+		long allocatedBytes = PackingMetrics.currentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		selectItems(itemPackage, solver, formatter, sharedSelection);
+		PackingMetrics.get().recordPackage(System.nanoTime() - start,
+				PackingMetrics.currentThreadAllocatedBytes() - allocatedBytes);
+	}
+
+	private static void selectItems(ItemPackage itemPackage, KnapsackSolver solver, ResultFormatter formatter,
+			List<Item> sharedSelection) {
+		/*
+		 * Items that does not fit in the package were removed previously in the
+		 * InputFileReader. If the item package does not contain any items return "-"
+		 */
+		if (!itemPackage.hasItems()) {
+			if (PackingMetrics.enabled) {
+				PackingMetrics.get().recordEmptyPackage();
+			}
+			formatter.append('-');
+			return;
+		}
+		/*
+		 * If all the items fit inside the package, return the complete list of items
+		 */
+		if (itemPackage.getTotalWeight() < itemPackage.getMaxWeight()) {
+			if (PackingMetrics.enabled) {
+				PackingMetrics.get().recordAllItemsFitPackage();
+			}
+			formatter.appendIndexes(itemPackage);
+			return;
+		}
+
+		if (sharedSelection != null) {
+			formatter.appendIndexes(sharedSelection);
+			return;
+		}
+
+		/*
+		 * Otherwise call the knapsack algorithm and calculate the best possible
+		 * solution
+		 */
+		long start = PackingMetrics.enabled ? System.nanoTime() : 0;
+		List<Item> selectedItems = solver.solve(itemPackage);
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordSolvedPackage(solver.getName(), System.nanoTime() - start);
+		}
+		formatter.appendIndexes(selectedItems);
+		if (selectedItems instanceof ApproximateSelection) {
+			formatter.appendMinCostRatio(((ApproximateSelection) selectedItems).getMinCostRatio());
+		}
 	}
 
 }
@@ -0,0 +1,168 @@
+package com.mobiquityinc.packer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Formats the result lines in a reusable char buffer, so results can be
+ * written without building a String for each one.
+ * 
+ * Not thread safe, every thread should use its own formatter.
+ * 
+ * @author dfjmax
+ *
+ */
+final class ResultFormatter {
+
+	/**
+	 * Units of the cost ratios, 4 decimals.
+	 */
+	private static final int ratioUnits = 10000;
+
+	private char[] chars = new char[256];
+	private int length = 0;
+
+	// Indexes being sorted
+	private int[] indexes = new int[64];
+
+	/**
+	 * Removes the formatted text.
+	 */
+	void clear() {
+		this.length = 0;
+	}
+
+	/**
+	 * Appends a character.
+	 * 
+	 * @param c the character
+	 */
+	void append(char c) {
+		ensureCapacity(1);
+		this.chars[this.length++] = c;
+	}
+
+	/**
+	 * Appends the indexes of all the items of a package, sorted and comma
+	 * separated.
+	 * 
+	 * @param itemPackage the package
+	 */
+	void appendIndexes(ItemPackage itemPackage) {
+		int count = itemPackage.getItemCount();
+		int[] sortedIndexes = indexes(count);
+		for (int position = 0; position < count; position++) {
+			sortedIndexes[position] = itemPackage.getIndex(position);
+		}
+		appendSorted(sortedIndexes, count);
+	}
+
+	/**
+	 * Appends the indexes of the given items, sorted and comma separated.
+	 * 
+	 * @param items the items
+	 */
+	void appendIndexes(List<Item> items) {
+		int[] sortedIndexes = indexes(items.size());
+		int count = 0;
+		for (Item item : items) {
+			sortedIndexes[count++] = item.getIndex();
+		}
+		appendSorted(sortedIndexes, count);
+	}
+
+	/**
+	 * Appends the flag of an approximate result: a space, '~' and the guaranteed
+	 * fraction of the best cost, rounded down to 4 decimals, like " ~0.95".
+	 * 
+	 * @param minCostRatio the guaranteed fraction of the best cost
+	 */
+	void appendMinCostRatio(double minCostRatio) {
+		append(' ');
+		append('~');
+		// The tolerance keeps ratios like 1 - 0.07 from being rounded down to 0.9299
+		int units = (int) Math.floor(Math.min(1, Math.max(0, minCostRatio)) * ratioUnits + 1e-9);
+		if (units == ratioUnits) {
+			append('1');
+			return;
+		}
+		append('0');
+		append('.');
+		for (int unit = ratioUnits / 10; units > 0; unit /= 10) {
+			append((char) ('0' + units / unit));
+			units %= unit;
+		}
+		if (this.chars[this.length - 1] == '.') {
+			append('0');
+		}
+	}
+
+	/**
+	 * Writes the formatted text.
+	 * 
+	 * @param writer the writer
+	 * @throws IOException when the text can not be written
+	 */
+	void writeTo(Writer writer) throws IOException {
+		writer.write(this.chars, 0, this.length);
+	}
+
+	@Override
+	public String toString() {
+		return new String(this.chars, 0, this.length);
+	}
+
+	private int[] indexes(int count) {
+		if (this.indexes.length < count) {
+			this.indexes = new int[Math.max(count, this.indexes.length * 2)];
+		}
+		return this.indexes;
+	}
+
+	private void appendSorted(int[] sortedIndexes, int count) {
+		// Return the indexes sorted in ascending order
+		Arrays.sort(sortedIndexes, 0, count);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				append(',');
+			}
+			appendInt(sortedIndexes[i]);
+		}
+	}
+
+	private void appendInt(int value) {
+		if (value == Integer.MIN_VALUE) {
+			String digits = Integer.toString(value);
+			ensureCapacity(digits.length());
+			digits.getChars(0, digits.length(), this.chars, this.length);
+			this.length += digits.length();
+			return;
+		}
+		if (value < 0) {
+			append('-');
+			value = -value;
+		}
+		int digits = 1;
+		for (int rest = value / 10; rest > 0; rest /= 10) {
+			digits++;
+		}
+		ensureCapacity(digits);
+		for (int pos = this.length + digits - 1; pos >= this.length; pos--) {
+			this.chars[pos] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		this.length += digits;
+	}
+
+	private void ensureCapacity(int extra) {
+		if (this.length + extra > this.chars.length) {
+			this.chars = Arrays.copyOf(this.chars, Math.max(this.length + extra, this.chars.length * 2));
+		}
+	}
+
+}
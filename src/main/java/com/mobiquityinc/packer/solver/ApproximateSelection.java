@@ -0,0 +1,44 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+
+import com.mobiquityinc.model.Item;
+
+/**
+ * Items selected by a solver that does not guarantee the best package, together
+ * with the fraction of the best package cost that is guaranteed.
+ * 
+ * Solvers that return the best package return any other {@link java.util.List}
+ * of items.
+ * 
+ * @author dfjmax
+ *
+ */
+public class ApproximateSelection extends ArrayList<Item> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final double minCostRatio;
+
+	/**
+	 * Creates an empty selection.
+	 * 
+	 * @param minCostRatio the guaranteed fraction of the best package cost,
+	 *                     between 0 and 1
+	 */
+	public ApproximateSelection(double minCostRatio) {
+		super();
+		this.minCostRatio = minCostRatio;
+	}
+
+	/**
+	 * Gets the guaranteed fraction of the best package cost: the cost of the
+	 * selected items is at least the best cost multiplied by this ratio.
+	 * 
+	 * @return the guaranteed ratio, between 0 and 1
+	 */
+	public double getMinCostRatio() {
+		return this.minCostRatio;
+	}
+
+}
@@ -0,0 +1,194 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Exact branch and bound search, meant for packages with few items where the
+ * dynamic programming matrix does far more work than needed.
+ *
+ * Items are explored from the best to the worst cost/weight ratio and a branch
+ * is pruned when even the fractional knapsack bound of the remaining items can
+ * not beat the best package found so far.
+ *
+ * The selection follows the tie-break rule of the challenge: between packages
+ * with the same cost the lighter one is preferred. If they weigh the same as
+ * well, the one with the items that come first in the package is preferred, so
+ * the result is always the same.
+ *
+ * @author dfjmax
+ *
+ */
+public class BranchAndBoundSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "branch-and-bound";
+
+	/**
+	 * Max number of items supported, the selected items are stored as bits of a
+	 * long.
+	 */
+	public static final int maxItems = 63;
+
+	/**
+	 * Costs closer than this are considered equal, so rounding errors do not break
+	 * the tie-break rule.
+	 */
+	private static final double costTolerance = 1e-9;
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		int itemCount = itemPackage.getItemCount();
+		if (itemCount > maxItems) {
+			throw new APIException("Too many items to be solved with branch and bound.");
+		}
+
+		Search search = new Search(itemPackage);
+		search.explore(0, 0, itemPackage.getMaxWeight(), 0, 0);
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordSearchNodes(search.nodes);
+		}
+
+		// Selected bits map to the item positions, first position is the highest bit
+		List<Item> selectedItems = new ArrayList<>(Long.bitCount(search.bestSelection));
+		for (int position = 0; position < itemCount; position++) {
+			if ((search.bestSelection & (1L << (itemCount - 1 - position))) != 0) {
+				selectedItems.add(itemPackage.getItem(position));
+			}
+		}
+		return selectedItems;
+	}
+
+	/**
+	 * State of the search of a single package.
+	 */
+	private static class Search {
+
+		// Items sorted by cost/weight ratio, the buffers may be longer
+		private final int itemSize;
+		private final int[] weights;
+		private final double[] costs;
+		private final long[] bits;
+
+		// Best package found so far
+		private double bestCost = 0;
+		private int bestWeight = 0;
+		private long bestSelection = 0;
+		private long nodes = 0;
+
+		private Search(ItemPackage itemPackage) {
+			int itemSize = itemPackage.getItemCount();
+			this.itemSize = itemSize;
+			ScratchArena arena = ScratchArena.current();
+			int[] order = arena.itemOrder(itemSize);
+			// Best ratio first, cost * weight products avoid dividing by zero weights.
+			// The insertion sort is stable so items with the same ratio keep the package order
+			for (int i = 0; i < itemSize; i++) {
+				int position = i;
+				while (position > 0 && isBetterRatio(itemPackage, i, order[position - 1])) {
+					order[position] = order[position - 1];
+					position--;
+				}
+				order[position] = i;
+			}
+
+			this.weights = arena.itemWeights(itemSize);
+			this.costs = arena.itemCosts(itemSize);
+			this.bits = arena.itemBits(itemSize);
+			for (int i = 0; i < itemSize; i++) {
+				this.weights[i] = itemPackage.getWeight(order[i]);
+				this.costs[i] = itemPackage.getCost(order[i]);
+				this.bits[i] = 1L << (itemSize - 1 - order[i]);
+			}
+		}
+
+		/**
+		 * Checks if an item has a strictly better cost/weight ratio than another one.
+		 * Items without weight and cost have no ratio, they go last.
+		 */
+		private static boolean isBetterRatio(ItemPackage itemPackage, int item, int other) {
+			if (itemPackage.getWeight(other) == 0 && itemPackage.getCost(other) == 0) {
+				return itemPackage.getWeight(item) != 0 || itemPackage.getCost(item) != 0;
+			}
+			return (double) itemPackage.getCost(item) * itemPackage.getWeight(other) > (double) itemPackage
+					.getCost(other) * itemPackage.getWeight(item);
+		}
+
+		/**
+		 * Explores the packages that can be built adding the items from the given
+		 * depth to the current package.
+		 *
+		 * @param depth     the next item to be decided
+		 * @param cost      the current package cost
+		 * @param capacity  the weight still available
+		 * @param weight    the current package weight
+		 * @param selection the current package items
+		 */
+		private void explore(int depth, double cost, int capacity, int weight, long selection) {
+			this.nodes++;
+			if (isBetter(cost, weight, selection)) {
+				this.bestCost = cost;
+				this.bestWeight = weight;
+				this.bestSelection = selection;
+			}
+			if (depth == this.itemSize) {
+				return;
+			}
+			// Only equal or more expensive packages can still win, and only if they are not heavier
+			double bound = bound(depth, cost, capacity);
+			if (bound + costTolerance < this.bestCost
+					|| (bound - costTolerance <= this.bestCost && weight > this.bestWeight)) {
+				return;
+			}
+			if (this.weights[depth] <= capacity) {
+				explore(depth + 1, cost + this.costs[depth], capacity - this.weights[depth],
+						weight + this.weights[depth], selection | this.bits[depth]);
+			}
+			explore(depth + 1, cost, capacity, weight, selection);
+		}
+
+		/**
+		 * Fractional knapsack bound: remaining items are added by ratio and the first
+		 * one that does not fit is added partially.
+		 */
+		private double bound(int depth, double cost, int capacity) {
+			for (int i = depth; i < this.itemSize; i++) {
+				if (this.weights[i] <= capacity) {
+					capacity -= this.weights[i];
+					cost += this.costs[i];
+				} else {
+					return cost + this.costs[i] * capacity / this.weights[i];
+				}
+			}
+			return cost;
+		}
+
+		/**
+		 * Checks the tie-break rule: higher cost, then lower weight, then the items
+		 * that come first in the package.
+		 */
+		private boolean isBetter(double cost, int weight, long selection) {
+			if (cost > this.bestCost + costTolerance) {
+				return true;
+			}
+			if (cost < this.bestCost - costTolerance) {
+				return false;
+			}
+			return weight < this.bestWeight || (weight == this.bestWeight && selection > this.bestSelection);
+		}
+
+	}
+
+}
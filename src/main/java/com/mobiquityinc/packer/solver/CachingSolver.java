@@ -0,0 +1,311 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Solver that keeps the results of another solver in a bounded least recently
+ * used cache.
+ * 
+ * Packages are keyed by their max weight and their (weight, cost) pairs, which
+ * are already sorted by the {@link ItemPackage}. The cached result is the
+ * positions of the selected items in that order, so a package with the same
+ * items in a different order or with different indexes gets the result mapped
+ * to its own items.
+ * 
+ * The cache is split in segments with their own lock, so it can be used from
+ * several solving threads. The size limit is shared by all the segments: a new
+ * package evicts the least recently used packages of its own segment first,
+ * and then of the next segments, so the least recently used order is only
+ * approximate. Only the best packages are cached, an {@link ApproximateSelection}
+ * is returned as it is.
+ * 
+ * @author dfjmax
+ *
+ */
+public class CachingSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "cache";
+
+	private static final int segmentCount = 16;
+
+	private final KnapsackSolver solver;
+	private final long capacity;
+	private final boolean weighByItems;
+	private final Segment[] segments;
+	private final AtomicLong weight = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private CachingSolver(KnapsackSolver solver, long capacity, boolean weighByItems) {
+		super();
+		if (capacity < 1) {
+			throw new APIException("The cache capacity should be a positive number.");
+		}
+		this.solver = solver;
+		this.capacity = capacity;
+		this.weighByItems = weighByItems;
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			this.segments[i] = new Segment();
+		}
+	}
+
+	/**
+	 * Creates a cache that holds up to a number of packages.
+	 * 
+	 * @param solver     the solver of the packages that are not cached
+	 * @param maxEntries the max number of cached packages
+	 * @return the caching solver
+	 * 
+	 * @throws {@link APIException} when the max number of packages is not positive
+	 */
+	public static CachingSolver withMaxEntries(KnapsackSolver solver, long maxEntries) {
+		return new CachingSolver(solver, maxEntries, false);
+	}
+
+	/**
+	 * Creates a cache that holds up to a total number of items, so packages with
+	 * more items take more room.
+	 * 
+	 * @param solver   the solver of the packages that are not cached
+	 * @param maxItems the max number of items of all the cached packages
+	 * @return the caching solver
+	 * 
+	 * @throws {@link APIException} when the max number of items is not positive
+	 */
+	public static CachingSolver withMaxItems(KnapsackSolver solver, long maxItems) {
+		return new CachingSolver(solver, maxItems, true);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		PackageKey key = new PackageKey(itemPackage);
+		int segmentIndex = (key.hash & 0x7FFFFFFF) % segmentCount;
+
+		int[] positions = this.segments[segmentIndex].get(key);
+		if (positions != null) {
+			this.hits.increment();
+		} else {
+			this.misses.increment();
+			List<Item> solvedItems = this.solver.solve(itemPackage);
+			if (solvedItems instanceof ApproximateSelection) {
+				// Only the best packages are cached, approximate ones keep their ratio
+				return solvedItems;
+			}
+			positions = positions(itemPackage, solvedItems);
+			put(segmentIndex, key, positions, this.weighByItems ? Math.max(1, itemPackage.getItemCount()) : 1);
+		}
+
+		List<Item> selectedItems = new ArrayList<>(positions.length);
+		for (int position : positions) {
+			selectedItems.add(itemPackage.getItem(position));
+		}
+		return selectedItems;
+	}
+
+	/**
+	 * Caches a package and evicts the least recently used packages, from its
+	 * segment and then from the next ones, until the cache is within its size.
+	 */
+	private void put(int segmentIndex, PackageKey key, int[] positions, int entryWeight) {
+		// Packages bigger than the whole cache are not cached
+		if (entryWeight > this.capacity) {
+			return;
+		}
+		this.weight.addAndGet(this.segments[segmentIndex].put(key, positions, entryWeight));
+		// Segments are locked one at a time, so threads evicting together can not deadlock
+		for (int i = 0; i < segmentCount && this.weight.get() > this.capacity;) {
+			int evictedWeight = this.segments[(segmentIndex + i) % segmentCount].evictEldest(key);
+			if (evictedWeight == 0) {
+				i++;
+			} else {
+				this.weight.addAndGet(-evictedWeight);
+				this.evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Gets the positions of the selected items in the package.
+	 */
+	private static int[] positions(ItemPackage itemPackage, List<Item> selectedItems) {
+		// Solvers return the package item instances, in any order
+		boolean[] selected = itemPackage.getPositions(selectedItems);
+		int[] positions = new int[selectedItems.size()];
+		int count = 0;
+		for (int position = 0; position < selected.length; position++) {
+			if (selected[position]) {
+				positions[count++] = position;
+			}
+		}
+		return count == positions.length ? positions : Arrays.copyOf(positions, count);
+	}
+
+	/**
+	 * Gets the solver of the packages not found in the cache.
+	 * 
+	 * @return the cached solver
+	 */
+	KnapsackSolver getSolver() {
+		return this.solver;
+	}
+
+	/**
+	 * Gets the number of packages found in the cache.
+	 * 
+	 * @return the number of hits
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Gets the number of packages not found in the cache.
+	 * 
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Gets the number of packages removed from the cache to make room.
+	 * 
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+	/**
+	 * Gets the number of cached packages.
+	 * 
+	 * @return the number of cached packages
+	 */
+	public long getSize() {
+		long size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Canonical key of a package: max weight and sorted (weight, cost) pairs.
+	 */
+	private static final class PackageKey {
+
+		private final int maxWeight;
+		private final int[] weights;
+		private final int[] costs;
+		private final int hash;
+
+		private PackageKey(ItemPackage itemPackage) {
+			this.maxWeight = itemPackage.getMaxWeight();
+			this.weights = new int[itemPackage.getItemCount()];
+			this.costs = new int[itemPackage.getItemCount()];
+			int hash = this.maxWeight;
+			for (int i = 0; i < this.weights.length; i++) {
+				this.weights[i] = itemPackage.getWeight(i);
+				this.costs[i] = Float.floatToIntBits(itemPackage.getCost(i));
+				hash = 31 * (31 * hash + this.weights[i]) + this.costs[i];
+			}
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PackageKey)) {
+				return false;
+			}
+			PackageKey other = (PackageKey) obj;
+			return this.hash == other.hash && this.maxWeight == other.maxWeight
+					&& Arrays.equals(this.weights, other.weights) && Arrays.equals(this.costs, other.costs);
+		}
+
+	}
+
+	/**
+	 * A segment of the cache, with its packages in least recently used order.
+	 */
+	private static final class Segment {
+
+		private final Map<PackageKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		private synchronized int[] get(PackageKey key) {
+			Entry entry = this.entries.get(key);
+			return entry == null ? null : entry.positions;
+		}
+
+		/**
+		 * Caches a package, returning the weight added to the segment.
+		 */
+		private synchronized int put(PackageKey key, int[] positions, int entryWeight) {
+			Entry previous = this.entries.put(key, new Entry(positions, entryWeight));
+			return entryWeight - (previous == null ? 0 : previous.weight);
+		}
+
+		/**
+		 * Removes the least recently used package other than the given one,
+		 * returning its weight, or 0 when there is none.
+		 */
+		private synchronized int evictEldest(PackageKey keptKey) {
+			Iterator<Map.Entry<PackageKey, Entry>> eldest = this.entries.entrySet().iterator();
+			while (eldest.hasNext()) {
+				Map.Entry<PackageKey, Entry> entry = eldest.next();
+				if (!entry.getKey().equals(keptKey)) {
+					eldest.remove();
+					return entry.getValue().weight;
+				}
+			}
+			return 0;
+		}
+
+		private synchronized int size() {
+			return this.entries.size();
+		}
+
+	}
+
+	/**
+	 * A cached result.
+	 */
+	private static final class Entry {
+
+		private final int[] positions;
+		private final int weight;
+
+		private Entry(int[] positions, int weight) {
+			this.positions = positions;
+			this.weight = weight;
+		}
+
+	}
+
+}
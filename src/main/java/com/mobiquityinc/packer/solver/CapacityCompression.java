@@ -0,0 +1,116 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Preprocessing stage that divides the capacity and all the item weights of a
+ * package by their greatest common divisor.
+ * 
+ * Weights are multiplied by 100 to remove the decimals, so packages with
+ * integer weights, or weights with a common factor, get a dynamic programming
+ * row 100 or more times shorter. The selected items of the compressed package
+ * are the same ones as in the original package, they just weigh less.
+ * 
+ * @author dfjmax
+ *
+ */
+public class CapacityCompression {
+
+	private final ItemPackage originalPackage;
+	private final ItemPackage compressedPackage;
+	private final int divisor;
+
+	private CapacityCompression(ItemPackage originalPackage, ItemPackage compressedPackage, int divisor) {
+		super();
+		this.originalPackage = originalPackage;
+		this.compressedPackage = compressedPackage;
+		this.divisor = divisor;
+	}
+
+	/**
+	 * Compresses a package.
+	 * 
+	 * @param itemPackage the item package
+	 * @return the compression, with a divisor of 1 when the package can not be
+	 *         compressed
+	 */
+	public static CapacityCompression of(ItemPackage itemPackage) {
+		int divisor = PackageFeatures.of(itemPackage).getWeightGcd();
+		if (divisor <= 1) {
+			return new CapacityCompression(itemPackage, itemPackage, 1);
+		}
+		return new CapacityCompression(itemPackage, itemPackage.divideWeights(divisor), divisor);
+	}
+
+	/**
+	 * Gets the package with the weights divided by the divisor.
+	 * 
+	 * @return the compressed package, the original one when the divisor is 1
+	 */
+	public ItemPackage getCompressedPackage() {
+		return this.compressedPackage;
+	}
+
+	/**
+	 * Gets the common divisor of the capacity and the item weights.
+	 * 
+	 * @return the divisor, 1 when the package is not compressed
+	 */
+	public int getDivisor() {
+		return this.divisor;
+	}
+
+	/**
+	 * Gets the capacity of the original package.
+	 * 
+	 * @return the original capacity
+	 */
+	public int getOriginalCapacity() {
+		return this.originalPackage.getMaxWeight();
+	}
+
+	/**
+	 * Gets the capacity of the compressed package.
+	 * 
+	 * @return the compressed capacity
+	 */
+	public int getCompressedCapacity() {
+		return this.compressedPackage.getMaxWeight();
+	}
+
+	/**
+	 * Gets the number of dynamic programming cells saved by the compression.
+	 * 
+	 * @return (original capacity - compressed capacity) x items
+	 */
+	public long getSavedCells() {
+		return (long) (getOriginalCapacity() - getCompressedCapacity()) * this.originalPackage.getItemCount();
+	}
+
+	/**
+	 * Maps the items selected in the compressed package back to the items of the
+	 * original package.
+	 * 
+	 * @param selectedItems the items selected in the compressed package
+	 * @return the same items in the original package
+	 */
+	public List<Item> decompress(List<Item> selectedItems) {
+		if (this.compressedPackage == this.originalPackage) {
+			return selectedItems;
+		}
+		// Items keep their positions in the compressed package
+		boolean[] selected = this.compressedPackage.getPositions(selectedItems);
+		List<Item> items = new ArrayList<>(selectedItems.size());
+		for (int position = 0; position < selected.length; position++) {
+			if (selected[position]) {
+				items.add(this.originalPackage.getItem(position));
+			}
+		}
+		return items;
+	}
+
+}
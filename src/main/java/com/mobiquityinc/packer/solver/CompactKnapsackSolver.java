@@ -0,0 +1,89 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Dynamic programming algorithm to solve the knapsack problem keeping a single
+ * row of costs instead of the full matrix of possible solutions.
+ * 
+ * The take/skip decision of every item and weight cell is recorded in a bit
+ * packed matrix (one bit per cell), which is all that is needed to rebuild the
+ * selected items afterwards, and takes 1/64 of the {@link DenseKnapsackSolver}
+ * matrix. The cost row and the decision matrix are reused between packages
+ * solved by the same thread, see {@link ScratchArena}.
+ * 
+ * The selected items are the same ones returned by the
+ * {@link DenseKnapsackSolver}.
+ * 
+ * @author dfjmax
+ *
+ */
+public class CompactKnapsackSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "compact";
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		int itemSize = itemPackage.getItemCount();
+		int capacity = itemPackage.getMaxWeight();
+
+		// Words needed to store one bit per weight (0..capacity) of an item row
+		int rowWords = (capacity >>> 6) + 1;
+		ScratchArena arena = ScratchArena.current();
+		long[] taken = arena.decisionBits(itemSize * rowWords);
+		double[] costs = arena.costRow(capacity + 1);
+
+		// Iterate items
+		for (int index = 0; index < itemSize; index++) {
+			int itemWeight = itemPackage.getWeight(index);
+			float itemCost = itemPackage.getCost(index);
+			int rowOffset = index * rowWords;
+
+			/*
+			 * Iterate weights from the highest to the lowest one, so the cost of the
+			 * remaining weight still belongs to the previous item row. Weight 0 is never
+			 * evaluated, same as in the dense matrix.
+			 */
+			for (int weight = capacity; weight >= itemWeight && weight > 0; weight--) {
+				double tookItemCost = itemCost + costs[weight - itemWeight];
+				// The item is only taken when it improves the cost for the current weight
+				if (tookItemCost > costs[weight]) {
+					costs[weight] = tookItemCost;
+					taken[rowOffset + (weight >>> 6)] |= 1L << weight;
+				}
+			}
+		}
+
+		if (PackingMetrics.enabled) {
+			long cells = 0;
+			for (int index = 0; index < itemSize; index++) {
+				cells += Math.max(0, capacity - Math.max(itemPackage.getWeight(index), 1) + 1);
+			}
+			PackingMetrics.get().recordDynamicProgrammingCells(cells);
+		}
+
+		// Walk the decisions back from the last item and the full capacity
+		List<Item> selectedItems = new LinkedList<>();
+		for (int index = itemSize - 1; index >= 0; index--) {
+			if ((taken[index * rowWords + (capacity >>> 6)] & (1L << capacity)) != 0) {
+				selectedItems.add(itemPackage.getItem(index));
+				capacity -= itemPackage.getWeight(index);
+			}
+		}
+		return selectedItems;
+	}
+
+}
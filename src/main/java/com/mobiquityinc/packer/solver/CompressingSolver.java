@@ -0,0 +1,89 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Solver that applies a {@link CapacityCompression} to every package before
+ * passing it to another solver, and maps the solution back afterwards.
+ * 
+ * The compression of each package is reported to an optional listener, and
+ * the totals are kept in counters.
+ * 
+ * @author dfjmax
+ *
+ */
+public class CompressingSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "gcd-compression";
+
+	private final KnapsackSolver solver;
+	private final Consumer<CapacityCompression> listener;
+
+	private final LongAdder compressedPackages = new LongAdder();
+	private final LongAdder savedCells = new LongAdder();
+
+	/**
+	 * Creates a compressing solver.
+	 * 
+	 * @param solver the solver of the compressed packages
+	 */
+	public CompressingSolver(KnapsackSolver solver) {
+		this(solver, compression -> {
+		});
+	}
+
+	/**
+	 * Creates a compressing solver that reports every compression.
+	 * 
+	 * @param solver   the solver of the compressed packages
+	 * @param listener the listener of the compression of each package
+	 */
+	public CompressingSolver(KnapsackSolver solver, Consumer<CapacityCompression> listener) {
+		super();
+		this.solver = solver;
+		this.listener = listener;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		CapacityCompression compression = CapacityCompression.of(itemPackage);
+		this.listener.accept(compression);
+		if (compression.getDivisor() > 1) {
+			this.compressedPackages.increment();
+			this.savedCells.add(compression.getSavedCells());
+		}
+		return compression.decompress(this.solver.solve(compression.getCompressedPackage()));
+	}
+
+	/**
+	 * Gets the number of packages that were compressed.
+	 * 
+	 * @return the number of compressed packages
+	 */
+	public long getCompressedPackageCount() {
+		return this.compressedPackages.sum();
+	}
+
+	/**
+	 * Gets the total number of dynamic programming cells saved.
+	 * 
+	 * @return the saved cells
+	 */
+	public long getSavedCellCount() {
+		return this.savedCells.sum();
+	}
+
+}
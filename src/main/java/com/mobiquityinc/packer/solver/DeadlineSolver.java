@@ -0,0 +1,197 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Solver that answers every package within a time budget and a work budget,
+ * with either the exact package or the greedy one.
+ * 
+ * A greedy package is built first: items are taken by cost per weight, from the
+ * highest one, while they fit, or the most expensive item alone when it costs
+ * more. Then the package is solved exactly, once the capacity is compressed,
+ * by the {@link FixedPointKnapsackSolver}, or by the
+ * {@link HirschbergKnapsackSolver} when its decision matrix is too large. The
+ * exact solvers check the time budget before every item row and the work
+ * budget, in dynamic programming cells, is checked before starting, so the
+ * exact package is returned when they finish in time and the greedy package
+ * otherwise. It is not an anytime algorithm: the dynamic programming does not
+ * hold any package until it finishes, so nothing better than the greedy
+ * package is kept when the budget expires.
+ * 
+ * Greedy packages are returned as an {@link ApproximateSelection}: the items
+ * taken by cost per weight plus a fraction of the first one that does not fit
+ * cost at least as much as the best package, so the greedy cost divided by that
+ * bound is guaranteed, and it is never less than a half. Exact packages follow
+ * the tie-break rule.
+ * 
+ * @author dfjmax
+ *
+ */
+public class DeadlineSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "deadline";
+
+	private final long timeBudgetNanos;
+	private final long cellBudget;
+	private final FixedPointKnapsackSolver dynamicProgrammingSolver = new FixedPointKnapsackSolver();
+	private final HirschbergKnapsackSolver largePackageSolver = new HirschbergKnapsackSolver();
+
+	private final LongAdder optimalPackages = new LongAdder();
+	private final LongAdder expiredBudgets = new LongAdder();
+
+	/**
+	 * Creates a solver with budgets per package.
+	 * 
+	 * @param timeBudgetNanos the time allowed to solve a package, in nanoseconds
+	 * @param cellBudget      the max dynamic programming cells, items x
+	 *                        (compressed capacity + 1), of a package solved
+	 *                        exactly
+	 * 
+	 * @throws {@link APIException} when a budget is negative
+	 */
+	public DeadlineSolver(long timeBudgetNanos, long cellBudget) {
+		super();
+		if (timeBudgetNanos < 0 || cellBudget < 0) {
+			throw new APIException("The budgets should not be negative.");
+		}
+		this.timeBudgetNanos = timeBudgetNanos;
+		this.cellBudget = cellBudget;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		long deadline = System.nanoTime() + this.timeBudgetNanos;
+		ApproximateSelection greedySelection = greedy(itemPackage);
+
+		CapacityCompression compression = CapacityCompression.of(itemPackage);
+		ItemPackage compressedPackage = compression.getCompressedPackage();
+		int itemSize = compressedPackage.getItemCount();
+		int capacity = compressedPackage.getMaxWeight();
+
+		List<Item> selectedItems = null;
+		if ((long) itemSize * (capacity + 1) <= this.cellBudget) {
+			BooleanSupplier budgetExpired = () -> System.nanoTime() - deadline > 0;
+			selectedItems = (long) itemSize * ((capacity >>> 6) + 1) > SolverSelector.maxDecisionMatrixWords
+					? this.largePackageSolver.solve(compressedPackage, budgetExpired)
+					: this.dynamicProgrammingSolver.solve(compressedPackage, budgetExpired);
+		}
+
+		if (selectedItems == null) {
+			this.expiredBudgets.increment();
+			if (PackingMetrics.enabled) {
+				PackingMetrics.get().recordExpiredBudget();
+			}
+			return greedySelection;
+		}
+		this.optimalPackages.increment();
+		return compression.decompress(selectedItems);
+	}
+
+	/**
+	 * Builds the greedy package, with the items in the package order.
+	 * 
+	 * @param itemPackage the item package
+	 * @return the greedy selection and its guaranteed cost ratio
+	 */
+	static ApproximateSelection greedy(ItemPackage itemPackage) {
+		int capacity = itemPackage.getMaxWeight();
+
+		// Items that fit and cost something, by cost per weight and then by position
+		List<Integer> order = new ArrayList<>();
+		for (int index = 0; index < itemPackage.getItemCount(); index++) {
+			if (itemPackage.getWeight(index) <= capacity && itemPackage.getCost(index) > 0) {
+				order.add(index);
+			}
+		}
+		order.sort((first, second) -> Double.compare(
+				(double) itemPackage.getCost(second) * itemPackage.getWeight(first),
+				(double) itemPackage.getCost(first) * itemPackage.getWeight(second)));
+
+		boolean[] taken = new boolean[itemPackage.getItemCount()];
+		int remainingWeight = capacity;
+		double cost = 0;
+		double upperBound = -1;
+		int mostExpensive = -1;
+		for (int index : order) {
+			int itemWeight = itemPackage.getWeight(index);
+			if (itemWeight <= remainingWeight) {
+				taken[index] = true;
+				remainingWeight -= itemWeight;
+				cost += itemPackage.getCost(index);
+			} else if (upperBound < 0) {
+				// Fractional bound: the items taken so far and the part of this one that fits
+				upperBound = cost + (double) itemPackage.getCost(index) * remainingWeight / itemWeight;
+			}
+			if (mostExpensive < 0 || itemPackage.getCost(index) > itemPackage.getCost(mostExpensive)) {
+				mostExpensive = index;
+			}
+		}
+		if (upperBound < 0) {
+			upperBound = cost;
+		}
+
+		if (mostExpensive >= 0 && itemPackage.getCost(mostExpensive) > cost) {
+			taken = new boolean[itemPackage.getItemCount()];
+			taken[mostExpensive] = true;
+			cost = itemPackage.getCost(mostExpensive);
+		}
+
+		ApproximateSelection selectedItems = new ApproximateSelection(
+				upperBound > 0 ? Math.min(1, cost / upperBound) : 1);
+		for (int index = 0; index < taken.length; index++) {
+			if (taken[index]) {
+				selectedItems.add(itemPackage.getItem(index));
+			}
+		}
+		return selectedItems;
+	}
+
+	/**
+	 * Gets the number of packages solved exactly within the budgets.
+	 * 
+	 * @return the number of optimal packages
+	 */
+	public long getOptimalPackageCount() {
+		return this.optimalPackages.sum();
+	}
+
+	/**
+	 * Gets the number of packages whose budget expired, answered with the greedy
+	 * package.
+	 * 
+	 * @return the number of expired budgets
+	 */
+	public long getExpiredBudgetCount() {
+		return this.expiredBudgets.sum();
+	}
+
+	/**
+	 * Gets a summary of the packages solved so far, to be reported at the end of
+	 * a run.
+	 * 
+	 * @return the number of optimal packages and expired budgets
+	 */
+	public String getReport() {
+		return String.format(Locale.ROOT,
+				"Budgets: %d packages solved exactly, %d budgets expired and answered with the greedy package",
+				getOptimalPackageCount(), getExpiredBudgetCount());
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.mobiquityinc.packer.solver;
+
+import static java.lang.Math.max;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Dynamic programming algorithm to solve the knapsack problem using the full
+ * (items + 1) x (max weight + 1) matrix of possible solutions.
+ * 
+ * @author dfjmax
+ *
+ */
+public class DenseKnapsackSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "dense";
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		// Store the item size
+		int itemSize = itemPackage.getItemCount();
+
+		// Matrix to store the possible solutions
+		double[][] possibleSolutions = new double[itemSize + 1][itemPackage.getMaxWeight() + 1];
+
+		// Initialize first line to zero
+		for (int i = 0; i <= itemPackage.getMaxWeight(); i++) {
+			possibleSolutions[0][i] = 0;
+		}
+
+		// Iterate items
+		for (int index = 1; index <= itemSize; index++) {
+			
+			// The current item
+			int itemWeight = itemPackage.getWeight(index - 1);
+			float itemCost = itemPackage.getCost(index - 1);
+			
+			// Iterate weights
+			for (int weight = 1; weight <= itemPackage.getMaxWeight(); weight++) {
+
+				// If the item does not fits within the actual weight take the previous solution for the current weight
+				if (itemWeight > weight) {
+					possibleSolutions[index][weight] = possibleSolutions[index - 1][weight];
+				} else {
+					// Cost obtained when adding this item cost + previous cost without this item 
+					double tookItemCost = itemCost + possibleSolutions[index - 1][weight - itemWeight];
+					// If the total cost after adding this item is better than the previous value for this weight, it will became the better cost
+					// Fot the current weight
+					possibleSolutions[index][weight] = max(tookItemCost, possibleSolutions[index - 1][weight]);
+				}
+
+			}
+		}
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordDynamicProgrammingCells((long) itemSize * itemPackage.getMaxWeight());
+		}
+		return determineSolution(itemPackage, possibleSolutions);
+	}
+
+	/**
+	 * 
+	 * Determines the best solution among the previously calculated possibilities
+	 * 
+	 * @param itemPackage       the package being processed
+	 * @param possibleSolutions a matrix with possible combinations of packages
+	 * 
+	 * @return a list of items with the best cost/weight ratio for the package
+	 */
+	private static List<Item> determineSolution(ItemPackage itemPackage, double[][] possibleSolutions) {
+
+		// Store the item size
+		int itemSize = itemPackage.getItemCount();
+
+		// Store the capacity
+		int capacity = itemPackage.getMaxWeight();
+
+		// Items with the best value
+		List<Item> selectedItems = new LinkedList<>();
+
+		// The last row/column stores the maximum cost for this package
+		for (int index = itemSize; index > 0; index--) {
+			
+			/* 
+			 * If the total cost obtained in the last row/column of the matrix is not different
+			 * than the previous row, it means that this item wasn't taken, so skip the item.
+			 * If it's different it means this item is part of the solution
+			 */
+			if (possibleSolutions[index][capacity] != possibleSolutions[index - 1][capacity]) {
+				selectedItems.add(itemPackage.getItem(index - 1));
+				// Once we add a new item, we update the total capacity
+				capacity -= itemPackage.getWeight(index - 1);
+			}
+		}
+		return selectedItems;
+	}
+
+}
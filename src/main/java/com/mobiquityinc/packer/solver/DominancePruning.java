@@ -0,0 +1,141 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Preprocessing stage that removes the items that can never be part of the
+ * best package.
+ * 
+ * An item beats another one when it is not heavier and costs more, or costs the
+ * same and is lighter, or is an exact duplicate that comes first in the
+ * package. If an item can not fit in the package together with all the items
+ * that beat it, any package containing it is missing one of them, and
+ * replacing the item by the missing one gives a package that is preferred by
+ * the tie-break rule. So the item can be removed, and exact duplicates beyond
+ * the ones that fit together are removed as well.
+ * 
+ * The best package is the same with and without the removed items for solvers
+ * that follow the tie-break rule, like the {@link BranchAndBoundSolver}. It is
+ * not applied before the dynamic programming solvers, which return any of the
+ * packages with the best cost, so removing items could change which one they
+ * return.
+ * 
+ * @author dfjmax
+ *
+ */
+public class DominancePruning {
+
+	private final ItemPackage originalPackage;
+	private final ItemPackage prunedPackage;
+	private final int[] retainedPositions;
+
+	private DominancePruning(ItemPackage originalPackage, ItemPackage prunedPackage, int[] retainedPositions) {
+		super();
+		this.originalPackage = originalPackage;
+		this.prunedPackage = prunedPackage;
+		this.retainedPositions = retainedPositions;
+	}
+
+	/**
+	 * Prunes a package.
+	 * 
+	 * @param itemPackage the item package
+	 * @return the pruning, with the original package when no item was removed
+	 */
+	public static DominancePruning of(ItemPackage itemPackage) {
+		int itemCount = itemPackage.getItemCount();
+		// Only allocated once an item is removed, most packages keep all of them
+		int[] retainedPositions = null;
+		int retainedCount = 0;
+		for (int position = 0; position < itemCount; position++) {
+			// Weight of the item plus the items that beat it
+			long weight = itemPackage.getWeight(position);
+			for (int other = 0; other < itemCount && weight <= itemPackage.getMaxWeight(); other++) {
+				if (other != position && beats(itemPackage, other, position)) {
+					weight += itemPackage.getWeight(other);
+				}
+			}
+			if (weight > itemPackage.getMaxWeight()) {
+				if (retainedPositions == null) {
+					// Every previous position was retained
+					retainedPositions = new int[itemCount];
+					for (int retained = 0; retained < position; retained++) {
+						retainedPositions[retained] = retained;
+					}
+				}
+			} else {
+				if (retainedPositions != null) {
+					retainedPositions[retainedCount] = position;
+				}
+				retainedCount++;
+			}
+		}
+		if (retainedCount == itemCount) {
+			return new DominancePruning(itemPackage, itemPackage, null);
+		}
+		return new DominancePruning(itemPackage, itemPackage.retainItems(retainedPositions, retainedCount),
+				retainedPositions);
+	}
+
+	/**
+	 * Checks if replacing an item by another one gives a package that is
+	 * preferred by the tie-break rule.
+	 */
+	private static boolean beats(ItemPackage itemPackage, int other, int position) {
+		if (itemPackage.getWeight(other) > itemPackage.getWeight(position)
+				|| itemPackage.getCost(other) < itemPackage.getCost(position)) {
+			return false;
+		}
+		if (itemPackage.getCost(other) > itemPackage.getCost(position)
+				|| itemPackage.getWeight(other) < itemPackage.getWeight(position)) {
+			return true;
+		}
+		// Exact duplicates, the first one wins
+		return other < position;
+	}
+
+	/**
+	 * Gets the package without the removed items.
+	 * 
+	 * @return the pruned package, the original one when no item was removed
+	 */
+	public ItemPackage getPrunedPackage() {
+		return this.prunedPackage;
+	}
+
+	/**
+	 * Gets the number of removed items, which is the number of dynamic
+	 * programming rows or search levels saved.
+	 * 
+	 * @return the number of removed items
+	 */
+	public int getRemovedItemCount() {
+		return this.originalPackage.getItemCount() - this.prunedPackage.getItemCount();
+	}
+
+	/**
+	 * Maps the items selected in the pruned package back to the items of the
+	 * original package.
+	 * 
+	 * @param selectedItems the items selected in the pruned package
+	 * @return the same items in the original package
+	 */
+	public List<Item> restore(List<Item> selectedItems) {
+		if (this.prunedPackage == this.originalPackage) {
+			return selectedItems;
+		}
+		boolean[] selected = this.prunedPackage.getPositions(selectedItems);
+		List<Item> items = new ArrayList<>(selectedItems.size());
+		for (int position = 0; position < selected.length; position++) {
+			if (selected[position]) {
+				items.add(this.originalPackage.getItem(this.retainedPositions[position]));
+			}
+		}
+		return items;
+	}
+
+}
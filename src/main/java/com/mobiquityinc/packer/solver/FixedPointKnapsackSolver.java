@@ -0,0 +1,177 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Dynamic programming algorithm working with integer costs, which follows the
+ * tie-break rule of the challenge.
+ * 
+ * Costs are converted to integers, to cents when some cost has decimals, and
+ * every cell of the cost row holds a single long: the integer cost shifted left
+ * by the bits needed for the capacity, minus the weight used. Comparing two cells compares the costs first and the
+ * weights, lighter is better, when the costs are equal, so the tie-break rule
+ * is a single integer comparison and there are no rounding errors.
+ * 
+ * Items are evaluated from the last one to the first one and taken when they
+ * are at least as good as skipping them, so between packages with the same cost
+ * and weight the one with the items that come first in the package is
+ * preferred, the same selection as the {@link BranchAndBoundSolver}. The
+ * decisions are kept in a bit packed matrix, as in the
+ * {@link CompactKnapsackSolver}.
+ * 
+ * Packages whose total integer cost does not fit next to the weights in a long
+ * are solved by the {@link ParetoFrontierSolver}, which follows the same rule.
+ * 
+ * @author dfjmax
+ *
+ */
+public class FixedPointKnapsackSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "fixed-point";
+
+	/**
+	 * Costs with decimals are multiplied by this scale and rounded, so they keep
+	 * two decimals.
+	 */
+	static final int costScale = 100;
+
+	private final KnapsackSolver overflowSolver = new ParetoFrontierSolver();
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		return solve(itemPackage, () -> false);
+	}
+
+	/**
+	 * Solves a package unless a budget expires first, it is checked before every
+	 * item row. Packages solved by the overflow solver do not check it.
+	 * 
+	 * @param itemPackage   the item package
+	 * @param budgetExpired tells whether the budget expired
+	 * @return the selected items, or null when the budget expired
+	 */
+	List<Item> solve(ItemPackage itemPackage, BooleanSupplier budgetExpired) {
+		int itemSize = itemPackage.getItemCount();
+		int capacity = itemPackage.getMaxWeight();
+
+		int weightBits = weightBits(capacity);
+		ScratchArena arena = ScratchArena.current();
+		long[] costs = integerCosts(itemPackage, arena);
+		if (!fitInKeys(costs, itemSize, weightBits)) {
+			return this.overflowSolver.solve(itemPackage);
+		}
+
+		// Words needed to store one bit per weight (0..capacity) of an item row
+		int rowWords = (capacity >>> 6) + 1;
+		long[] taken = arena.decisionBits(itemSize * rowWords);
+		long[] values = arena.valueRow(capacity + 1);
+
+		// Iterate items from the last one, so the first ones are decided last
+		for (int index = itemSize - 1; index >= 0; index--) {
+			if (budgetExpired.getAsBoolean()) {
+				return null;
+			}
+			int itemWeight = itemPackage.getWeight(index);
+			long itemValue = (costs[index] << weightBits) - itemWeight;
+			int rowOffset = index * rowWords;
+
+			/*
+			 * Iterate weights from the highest to the lowest one, so the value of the
+			 * remaining weight still belongs to the previous item row.
+			 */
+			for (int weight = capacity; weight >= itemWeight; weight--) {
+				long tookItemValue = itemValue + values[weight - itemWeight];
+				// Ties are taken, preferring the items that come first
+				if (tookItemValue >= values[weight]) {
+					values[weight] = tookItemValue;
+					taken[rowOffset + (weight >>> 6)] |= 1L << weight;
+				}
+			}
+		}
+
+		if (PackingMetrics.enabled) {
+			long cells = 0;
+			for (int index = 0; index < itemSize; index++) {
+				cells += Math.max(0, capacity - itemPackage.getWeight(index) + 1);
+			}
+			PackingMetrics.get().recordDynamicProgrammingCells(cells);
+		}
+
+		// Walk the decisions forward from the first item and the full capacity
+		List<Item> selectedItems = new ArrayList<>();
+		for (int index = 0; index < itemSize; index++) {
+			if ((taken[index * rowWords + (capacity >>> 6)] & (1L << capacity)) != 0) {
+				selectedItems.add(itemPackage.getItem(index));
+				capacity -= itemPackage.getWeight(index);
+			}
+		}
+		return selectedItems;
+	}
+
+	/**
+	 * Gets the bits needed by any weight used, at most the capacity, in the low
+	 * bits of the keys.
+	 * 
+	 * @param capacity the package max weight
+	 * @return the bits of the capacity
+	 */
+	static int weightBits(int capacity) {
+		return 32 - Integer.numberOfLeadingZeros(capacity);
+	}
+
+	/**
+	 * Gets the item costs as integers: the costs themselves when all of them are
+	 * whole, or in cents otherwise.
+	 * 
+	 * @param itemPackage the item package
+	 * @param arena       the scratch arena holding the costs
+	 * @return the integer costs, by item position, in a buffer that may be longer
+	 */
+	static long[] integerCosts(ItemPackage itemPackage, ScratchArena arena) {
+		int itemSize = itemPackage.getItemCount();
+		int scale = 1;
+		for (int index = 0; index < itemSize; index++) {
+			if (itemPackage.getCost(index) % 1 != 0) {
+				scale = costScale;
+				break;
+			}
+		}
+		long[] costs = arena.integerCosts(itemSize);
+		for (int index = 0; index < itemSize; index++) {
+			costs[index] = Math.round((double) itemPackage.getCost(index) * scale);
+		}
+		return costs;
+	}
+
+	/**
+	 * Checks if the total cost fits in the high bits of the keys, with a spare
+	 * bit for the sums of two keys.
+	 * 
+	 * @param costs      the integer costs
+	 * @param itemSize   the number of items
+	 * @param weightBits the bits of the capacity
+	 * @return true if the keys of any selection fit in a long
+	 */
+	static boolean fitInKeys(long[] costs, int itemSize, int weightBits) {
+		long totalCost = 0;
+		for (int index = 0; index < itemSize; index++) {
+			totalCost += costs[index];
+		}
+		return totalCost < 1L << (62 - weightBits);
+	}
+
+}
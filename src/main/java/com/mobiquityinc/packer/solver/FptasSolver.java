@@ -0,0 +1,159 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Fully polynomial time approximation scheme: selects items whose cost is at
+ * least (1 - epsilon) times the best package cost, in a time that depends on
+ * the number of items and epsilon but not on the capacity.
+ * 
+ * Costs are divided by epsilon * the highest item cost / items and rounded
+ * down, and a dynamic programming over the scaled costs keeps the lowest weight
+ * reaching every scaled cost. The rounding loses less than that unit per item,
+ * so at most epsilon times the highest item cost in total, which is never more
+ * than epsilon times the best package cost.
+ * 
+ * When the scaled costs would need as many cells as the exact dynamic
+ * programming, the package is solved exactly by another solver instead. The
+ * approximate selections are returned as an {@link ApproximateSelection}.
+ * 
+ * @author dfjmax
+ *
+ */
+public class FptasSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "fptas";
+
+	private final KnapsackSolver exactSolver;
+	private final double epsilon;
+
+	/**
+	 * Creates an approximation solver.
+	 * 
+	 * @param exactSolver the solver used when approximating is not cheaper
+	 * @param epsilon     the max fraction of the best package cost that can be
+	 *                    lost, between 0 and 1, both excluded
+	 * 
+	 * @throws {@link APIException} when epsilon is not between 0 and 1
+	 */
+	public FptasSolver(KnapsackSolver exactSolver, double epsilon) {
+		super();
+		if (!(epsilon > 0 && epsilon < 1)) {
+			throw new APIException("The approximation epsilon should be between 0 and 1.");
+		}
+		this.exactSolver = exactSolver;
+		this.epsilon = epsilon;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the solver used when approximating is not cheaper.
+	 * 
+	 * @return the exact solver
+	 */
+	KnapsackSolver getExactSolver() {
+		return this.exactSolver;
+	}
+
+	/**
+	 * Gets the max fraction of the best package cost that can be lost.
+	 * 
+	 * @return the epsilon
+	 */
+	public double getEpsilon() {
+		return this.epsilon;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		int itemSize = itemPackage.getItemCount();
+		int capacity = itemPackage.getMaxWeight();
+
+		double maxCost = 0;
+		for (int index = 0; index < itemSize; index++) {
+			if (itemPackage.getWeight(index) <= capacity) {
+				maxCost = Math.max(maxCost, itemPackage.getCost(index));
+			}
+		}
+		if (maxCost == 0) {
+			return this.exactSolver.solve(itemPackage);
+		}
+
+		// Scaled costs of the items that fit, the others can not be selected
+		double unit = this.epsilon * maxCost / itemSize;
+		int[] scaledCosts = new int[itemSize];
+		long totalScaledCost = 0;
+		for (int index = 0; index < itemSize; index++) {
+			if (itemPackage.getWeight(index) <= capacity) {
+				scaledCosts[index] = (int) (itemPackage.getCost(index) / unit);
+				totalScaledCost += scaledCosts[index];
+			}
+		}
+		int divisor = Math.max(1, PackageFeatures.of(itemPackage).getWeightGcd());
+		if (totalScaledCost >= capacity / divisor) {
+			return this.exactSolver.solve(itemPackage);
+		}
+		int maxScaledCost = (int) totalScaledCost;
+
+		// Lowest weight reaching every scaled cost, unreachable ones are heavier than the capacity
+		long unreachable = (long) capacity + 1;
+		ScratchArena arena = ScratchArena.current();
+		long[] weights = arena.valueRow(maxScaledCost + 1);
+		Arrays.fill(weights, 1, maxScaledCost + 1, unreachable);
+		int rowWords = (maxScaledCost >>> 6) + 1;
+		long[] taken = arena.decisionBits(itemSize * rowWords);
+
+		int reachedCost = 0;
+		for (int index = 0; index < itemSize; index++) {
+			int itemCost = scaledCosts[index];
+			int itemWeight = itemPackage.getWeight(index);
+			if (itemWeight > capacity) {
+				continue;
+			}
+			reachedCost += itemCost;
+			int rowOffset = index * rowWords;
+			for (int cost = reachedCost; cost >= itemCost; cost--) {
+				long tookItemWeight = weights[cost - itemCost] + itemWeight;
+				// The item is only taken when it reaches the cost with less weight
+				if (tookItemWeight < weights[cost]) {
+					weights[cost] = tookItemWeight;
+					taken[rowOffset + (cost >>> 6)] |= 1L << cost;
+				}
+			}
+		}
+
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordDynamicProgrammingCells((long) itemSize * (maxScaledCost + 1));
+		}
+
+		// Highest scaled cost that fits
+		int cost = maxScaledCost;
+		while (weights[cost] > capacity) {
+			cost--;
+		}
+
+		// Walk the decisions back from the last item and the best scaled cost
+		ApproximateSelection selectedItems = new ApproximateSelection(1 - this.epsilon);
+		for (int index = itemSize - 1; index >= 0; index--) {
+			if ((taken[index * rowWords + (cost >>> 6)] & (1L << cost)) != 0) {
+				selectedItems.add(itemPackage.getItem(index));
+				cost -= scaledCosts[index];
+			}
+		}
+		return selectedItems;
+	}
+
+}
@@ -0,0 +1,312 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Exact dynamic programming algorithm that rebuilds the selected items with
+ * memory proportional to the capacity only, meant for packages with thousands
+ * of items and large capacities where any items x capacity matrix does not fit
+ * in memory.
+ * 
+ * The items are split in two halves, as in Hirschberg's algorithm: a value row
+ * is computed for each half, the best package of the first half for every
+ * weight and the best package of the second half for every weight, and the
+ * capacity is split at the weight where their sum is the best one. Each half is
+ * then solved with its part of the capacity. Halves of up to {@value #leafItems}
+ * items are solved keeping their decisions, which take as much memory as one
+ * value row. Every level of the recursion evaluates at most as many cells as
+ * the plain dynamic programming, and their capacities get smaller, so the total
+ * work is around twice the plain dynamic programming.
+ * 
+ * Values are the same keys as in the {@link FixedPointKnapsackSolver}, so the
+ * best package has the highest cost and, between packages with the same cost,
+ * the lowest weight. Between packages with the same cost and weight the
+ * capacity is split at the lowest weight, so the selection may differ from the
+ * other solvers that follow the tie-break rule. When the total cost is too large
+ * for the keys, which needs at least 2^62 / 10^8 (around 4.6 * 10^10) cells
+ * with the largest costs, the costs and the weights are kept in separate rows
+ * and compared in the same order.
+ * 
+ * The memory is two value rows of 8 bytes per weight and the decisions of a
+ * leaf, one bit per weight for each of its items, so up to 24 bytes per weight,
+ * plus 8 bytes with separate weight rows. Weights are multiplied by 100, so a
+ * max weight of 1000000 takes around 2.4 GB and the largest max weight of the
+ * large limits, 10000000, around 24 GB.
+ * 
+ * @author dfjmax
+ *
+ */
+public class HirschbergKnapsackSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "hirschberg";
+
+	/**
+	 * Max items solved keeping their decisions, one bit per item and weight.
+	 */
+	private static final int leafItems = 64;
+
+	private final boolean alwaysSplitKeys;
+
+	/**
+	 * Creates the solver.
+	 */
+	public HirschbergKnapsackSolver() {
+		this(false);
+	}
+
+	/**
+	 * Creates the solver, keeping the costs and the weights in separate rows even
+	 * when the keys fit, so tests can use them with small packages.
+	 * 
+	 * @param alwaysSplitKeys whether the costs and the weights are always kept in
+	 *                        separate rows
+	 */
+	HirschbergKnapsackSolver(boolean alwaysSplitKeys) {
+		super();
+		this.alwaysSplitKeys = alwaysSplitKeys;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		return solve(itemPackage, () -> false);
+	}
+
+	/**
+	 * Solves a package unless a budget expires first, it is checked before every
+	 * item row of every level of the recursion.
+	 * 
+	 * @param itemPackage   the item package
+	 * @param budgetExpired tells whether the budget expired
+	 * @return the selected items, or null when the budget expired
+	 */
+	List<Item> solve(ItemPackage itemPackage, BooleanSupplier budgetExpired) {
+		int capacity = itemPackage.getMaxWeight();
+		int weightBits = FixedPointKnapsackSolver.weightBits(capacity);
+		ScratchArena arena = ScratchArena.current();
+		long[] costs = FixedPointKnapsackSolver.integerCosts(itemPackage, arena);
+		boolean splitKeys = this.alwaysSplitKeys
+				|| !FixedPointKnapsackSolver.fitInKeys(costs, itemPackage.getItemCount(), weightBits);
+
+		Search search = new Search(itemPackage, costs, weightBits, splitKeys, budgetExpired, arena);
+		search.solve(0, itemPackage.getItemCount(), capacity);
+		if (search.expired) {
+			return null;
+		}
+
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordDynamicProgrammingCells(search.cells);
+		}
+
+		List<Item> selectedItems = new ArrayList<>();
+		for (int index = 0; index < itemPackage.getItemCount(); index++) {
+			if (search.selected[index]) {
+				selectedItems.add(itemPackage.getItem(index));
+			}
+		}
+		return selectedItems;
+	}
+
+	/**
+	 * State of the search of a single package, the rows are reused by every
+	 * level of the recursion.
+	 */
+	private static class Search {
+
+		private final ItemPackage itemPackage;
+		private final long[] costs;
+		private final int weightBits;
+		private final BooleanSupplier budgetExpired;
+
+		// Best values of the first and the second half, by weight, only their costs
+		// when the weights are kept apart
+		private final long[] values;
+		private final long[] secondHalfValues;
+		// Weights of the best values when they do not fit in the keys, null otherwise
+		private final int[] weights;
+		private final int[] secondHalfWeights;
+		// Decisions of the leaf being solved, one row of words per item
+		private final long[] taken;
+
+		private final boolean[] selected;
+		private long cells = 0;
+		private boolean expired = false;
+
+		private Search(ItemPackage itemPackage, long[] costs, int weightBits, boolean splitKeys,
+				BooleanSupplier budgetExpired, ScratchArena arena) {
+			int capacity = itemPackage.getMaxWeight();
+			this.itemPackage = itemPackage;
+			this.costs = costs;
+			this.weightBits = weightBits;
+			this.budgetExpired = budgetExpired;
+			this.values = arena.valueRow(capacity + 1);
+			this.secondHalfValues = arena.secondValueRow(capacity + 1);
+			// Only needed by packages with billions of cells, not worth keeping
+			this.weights = splitKeys ? new int[capacity + 1] : null;
+			this.secondHalfWeights = splitKeys ? new int[capacity + 1] : null;
+			this.taken = arena.decisionBits(Math.min(leafItems, itemPackage.getItemCount()) * ((capacity >>> 6) + 1));
+			this.selected = new boolean[itemPackage.getItemCount()];
+		}
+
+		/**
+		 * Selects the best items among [from, to) with a capacity.
+		 * 
+		 * @param from     the first item position
+		 * @param to       the position after the last item
+		 * @param capacity the weight available for these items
+		 */
+		private void solve(int from, int to, int capacity) {
+			if (to - from <= leafItems) {
+				solveLeaf(from, to, capacity);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			computeValues(from, middle, capacity, this.values, this.weights);
+			computeValues(middle, to, capacity, this.secondHalfValues, this.secondHalfWeights);
+			if (this.expired) {
+				return;
+			}
+
+			// The lowest weight of the first half among the best splits
+			int split = 0;
+			long bestValue = Long.MIN_VALUE;
+			int bestWeight = Integer.MAX_VALUE;
+			for (int weight = 0; weight <= capacity; weight++) {
+				long value = this.values[weight] + this.secondHalfValues[capacity - weight];
+				if (this.weights == null) {
+					if (value > bestValue) {
+						bestValue = value;
+						split = weight;
+					}
+				} else {
+					int totalWeight = this.weights[weight] + this.secondHalfWeights[capacity - weight];
+					if (value > bestValue || value == bestValue && totalWeight < bestWeight) {
+						bestValue = value;
+						bestWeight = totalWeight;
+						split = weight;
+					}
+				}
+			}
+			solve(from, middle, split);
+			solve(middle, to, capacity - split);
+		}
+
+		/**
+		 * Computes the best value of the items among [from, to) for every weight up
+		 * to a capacity, and its weight when the weights are kept apart.
+		 */
+		private void computeValues(int from, int to, int capacity, long[] values, int[] weights) {
+			Arrays.fill(values, 0, capacity + 1, 0);
+			if (weights != null) {
+				Arrays.fill(weights, 0, capacity + 1, 0);
+			}
+			for (int index = from; index < to; index++) {
+				if (isExpired()) {
+					return;
+				}
+				int itemWeight = this.itemPackage.getWeight(index);
+				if (weights == null) {
+					long itemValue = (this.costs[index] << this.weightBits) - itemWeight;
+					for (int weight = capacity; weight >= itemWeight; weight--) {
+						long tookItemValue = itemValue + values[weight - itemWeight];
+						if (tookItemValue > values[weight]) {
+							values[weight] = tookItemValue;
+						}
+					}
+				} else {
+					long itemCost = this.costs[index];
+					for (int weight = capacity; weight >= itemWeight; weight--) {
+						long tookItemCost = itemCost + values[weight - itemWeight];
+						int tookItemWeight = itemWeight + weights[weight - itemWeight];
+						if (tookItemCost > values[weight]
+								|| tookItemCost == values[weight] && tookItemWeight < weights[weight]) {
+							values[weight] = tookItemCost;
+							weights[weight] = tookItemWeight;
+						}
+					}
+				}
+				this.cells += Math.max(0, capacity - itemWeight + 1);
+			}
+		}
+
+		/**
+		 * Selects the best items among [from, to) keeping the decisions, same as the
+		 * {@link FixedPointKnapsackSolver}.
+		 */
+		private void solveLeaf(int from, int to, int capacity) {
+			int rowWords = (capacity >>> 6) + 1;
+			Arrays.fill(this.taken, 0, (to - from) * rowWords, 0);
+			Arrays.fill(this.values, 0, capacity + 1, 0);
+			if (this.weights != null) {
+				Arrays.fill(this.weights, 0, capacity + 1, 0);
+			}
+
+			// Iterate items from the last one, so the first ones are decided last
+			for (int index = to - 1; index >= from; index--) {
+				if (isExpired()) {
+					return;
+				}
+				int itemWeight = this.itemPackage.getWeight(index);
+				int rowOffset = (index - from) * rowWords;
+				if (this.weights == null) {
+					long itemValue = (this.costs[index] << this.weightBits) - itemWeight;
+					for (int weight = capacity; weight >= itemWeight; weight--) {
+						long tookItemValue = itemValue + this.values[weight - itemWeight];
+						// Ties are taken, preferring the items that come first
+						if (tookItemValue >= this.values[weight]) {
+							this.values[weight] = tookItemValue;
+							this.taken[rowOffset + (weight >>> 6)] |= 1L << weight;
+						}
+					}
+				} else {
+					long itemCost = this.costs[index];
+					for (int weight = capacity; weight >= itemWeight; weight--) {
+						long tookItemCost = itemCost + this.values[weight - itemWeight];
+						int tookItemWeight = itemWeight + this.weights[weight - itemWeight];
+						if (tookItemCost > this.values[weight]
+								|| tookItemCost == this.values[weight] && tookItemWeight <= this.weights[weight]) {
+							this.values[weight] = tookItemCost;
+							this.weights[weight] = tookItemWeight;
+							this.taken[rowOffset + (weight >>> 6)] |= 1L << weight;
+						}
+					}
+				}
+				this.cells += Math.max(0, capacity - itemWeight + 1);
+			}
+
+			// Walk the decisions forward from the first item and the capacity
+			for (int index = from; index < to; index++) {
+				if ((this.taken[(index - from) * rowWords + (capacity >>> 6)] & (1L << capacity)) != 0) {
+					this.selected[index] = true;
+					capacity -= this.itemPackage.getWeight(index);
+				}
+			}
+		}
+
+		/**
+		 * Checks the budget, once expired the search stops at every level.
+		 */
+		private boolean isExpired() {
+			if (!this.expired && this.budgetExpired.getAsBoolean()) {
+				this.expired = true;
+			}
+			return this.expired;
+		}
+
+	}
+
+}
@@ -0,0 +1,232 @@
+package com.mobiquityinc.packer.solver;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.PackageLimits;
+
+/**
+ * Package whose items can be added and removed, keeping the dynamic
+ * programming between the changes so the selected items are updated instead of
+ * solved again.
+ * 
+ * The dynamic programming is the one of the {@link FixedPointKnapsackSolver},
+ * with whole costs as they are and costs in cents once an item with decimals is
+ * added, which computes all the rows again, but every row is kept and the items
+ * are evaluated in the order they were added: the row of an item holds the best package of that
+ * item and the ones added before it, for every weight. Adding an item computes
+ * a single row, and removing an item computes again the rows of the items
+ * added after it, the rows before it are still valid.
+ * 
+ * The selected items have the max cost and, between packages with the same
+ * cost, the min weight, the same as {@link com.mobiquityinc.packer.Packer}.
+ * Between packages with the same cost and weight the one without the items
+ * added last is preferred, which may differ from the selection of a package
+ * solved from scratch, where the items are sorted by weight.
+ * 
+ * Rows take 8 bytes per weight, so the memory grows with the items times the
+ * max weight multiplied by 100. This class is not thread safe.
+ * 
+ * @author dfjmax
+ *
+ */
+public class IncrementalPackage {
+
+	private final int maxWeight;
+	private final int capacity;
+	private final int weightBits;
+
+	private final List<Item> items = new ArrayList<>();
+	private final List<long[]> rows = new ArrayList<>();
+	private int costScale = 1;
+	private long totalCost = 0;
+	private long computedRows = 0;
+	private List<Item> selectedItems = null;
+
+	/**
+	 * Creates an empty package.
+	 * 
+	 * @param maxWeight the package max weight
+	 * 
+	 * @throws {@link APIException} when the max weight is invalid
+	 */
+	public IncrementalPackage(int maxWeight) {
+		super();
+		if (maxWeight < 0 || maxWeight > PackageLimits.configured().getMaxPackageWeight()) {
+			throw new APIException("The package can not be built as invalid parameters are being used.");
+		}
+		this.maxWeight = maxWeight;
+		this.capacity = maxWeight * 100;
+		this.weightBits = FixedPointKnapsackSolver.weightBits(this.capacity);
+	}
+
+	/**
+	 * Adds an item after the existing ones, computing one row, or every row when
+	 * it is the first item whose cost has decimals. Costs stay in cents after
+	 * that item is removed.
+	 * 
+	 * @param item the item
+	 * 
+	 * @throws {@link APIException} when the costs are too large to be solved
+	 *         exactly
+	 */
+	public void addItem(Item item) {
+		boolean toCents = this.costScale == 1 && item.getCost() % 1 != 0;
+		int costScale = toCents ? FixedPointKnapsackSolver.costScale : this.costScale;
+		// The previous costs are whole, so their total in cents is exact
+		long totalCost = this.totalCost * (toCents ? costScale : 1) + integerCost(item, costScale);
+		if (totalCost >= 1L << (62 - this.weightBits)) {
+			throw new APIException("The package costs are too large to be solved exactly.");
+		}
+		this.costScale = costScale;
+		this.totalCost = totalCost;
+		this.items.add(item);
+		this.rows.add(new long[this.capacity + 1]);
+		// Costs in cents change the values of every row
+		computeRows(toCents ? 0 : this.items.size() - 1);
+	}
+
+	/**
+	 * Removes the first item with an index, computing again the rows of the items
+	 * added after it.
+	 * 
+	 * @param index the item index
+	 * @return the removed item
+	 * 
+	 * @throws {@link APIException} when no item has the index
+	 */
+	public Item removeItem(int index) {
+		int position = 0;
+		while (position < this.items.size() && this.items.get(position).getIndex() != index) {
+			position++;
+		}
+		if (position == this.items.size()) {
+			throw new APIException("The package does not contain an item with the index " + index + ".");
+		}
+		Item item = this.items.remove(position);
+		this.totalCost -= integerCost(item, this.costScale);
+		// Every row after the removed item moves back one position and is computed again
+		this.rows.remove(position);
+		computeRows(position);
+		return item;
+	}
+
+	/**
+	 * Gets the selected items, in the order they were added. As in
+	 * {@link com.mobiquityinc.packer.Packer}, all the items are selected when
+	 * their total weight is less than the max weight, and items heavier than the
+	 * max weight are never selected.
+	 * 
+	 * @return the selected items
+	 */
+	public List<Item> getSelectedItems() {
+		if (this.selectedItems == null) {
+			this.selectedItems = unmodifiableList(select());
+		}
+		return this.selectedItems;
+	}
+
+	/**
+	 * Gets the items, in the order they were added.
+	 * 
+	 * @return the items
+	 */
+	public List<Item> getItems() {
+		return unmodifiableList(this.items);
+	}
+
+	/**
+	 * Gets the package max weight.
+	 * 
+	 * @return the max weight
+	 */
+	public int getMaxWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * Gets the number of rows computed since the package was created.
+	 * 
+	 * @return the computed rows
+	 */
+	long getComputedRowCount() {
+		return this.computedRows;
+	}
+
+	/**
+	 * Computes the rows from a position to the last item.
+	 */
+	private void computeRows(int fromPosition) {
+		this.selectedItems = null;
+		for (int position = fromPosition; position < this.items.size(); position++) {
+			long[] row = this.rows.get(position);
+			long[] previousRow = position == 0 ? null : this.rows.get(position - 1);
+			Item item = this.items.get(position);
+			int itemWeight = item.getWeight();
+			long itemValue = (integerCost(item, this.costScale) << this.weightBits) - itemWeight;
+			if (previousRow == null) {
+				Arrays.fill(row, 0);
+				if (itemWeight <= this.capacity && itemValue > 0) {
+					Arrays.fill(row, itemWeight, row.length, itemValue);
+				}
+				continue;
+			}
+			System.arraycopy(previousRow, 0, row, 0, row.length);
+			for (int weight = this.capacity; weight >= itemWeight; weight--) {
+				long tookItemValue = itemValue + previousRow[weight - itemWeight];
+				// Taken only when better, so the items added before are preferred
+				if (tookItemValue > row[weight]) {
+					row[weight] = tookItemValue;
+				}
+			}
+		}
+		int computed = this.items.size() - fromPosition;
+		this.computedRows += computed;
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordDynamicProgrammingCells((long) computed * (this.capacity + 1));
+		}
+	}
+
+	/**
+	 * Walks the rows back from the last item and the max weight: an item was
+	 * taken when its row is better than the previous one.
+	 */
+	private List<Item> select() {
+		List<Item> fittingItems = new ArrayList<>();
+		long totalWeight = 0;
+		for (Item item : this.items) {
+			if (item.getWeight() <= this.capacity) {
+				fittingItems.add(item);
+				totalWeight += item.getWeight();
+			}
+		}
+		if (fittingItems.isEmpty() || totalWeight < this.capacity) {
+			return fittingItems;
+		}
+
+		List<Item> selection = new ArrayList<>();
+		int weight = this.capacity;
+		for (int position = this.items.size() - 1; position >= 0; position--) {
+			long previousValue = position == 0 ? 0 : this.rows.get(position - 1)[weight];
+			if (this.rows.get(position)[weight] != previousValue) {
+				Item item = this.items.get(position);
+				selection.add(item);
+				weight -= item.getWeight();
+			}
+		}
+		Collections.reverse(selection);
+		return selection;
+	}
+
+	private static long integerCost(Item item, int costScale) {
+		return Math.round((double) item.getCost() * costScale);
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.List;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Strategy used by the Packer to select the best items for an
+ * {@link ItemPackage}.
+ * 
+ * Implementations are registered by name in a {@link SolverRegistry}, either
+ * programmatically or as a {@link java.util.ServiceLoader} service, and should
+ * be thread safe.
+ * 
+ * @author dfjmax
+ *
+ */
+public interface KnapsackSolver {
+
+	/**
+	 * Gets the name used to register and force this solver.
+	 * 
+	 * @return the solver name
+	 */
+	String getName();
+
+	/**
+	 * Selects the items with the best total cost that fit in the given
+	 * {@link ItemPackage}.
+	 * 
+	 * @param itemPackage the item package with the list of possible items
+	 * 
+	 * @return the selected items list
+	 */
+	List<Item> solve(ItemPackage itemPackage);
+
+}
@@ -0,0 +1,271 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Solves a catalogue of items for several max weights with a single dynamic
+ * programming up to the largest one.
+ * 
+ * The dynamic programming is the one of the {@link FixedPointKnapsackSolver}:
+ * the decisions of an item for a weight do not depend on the max weight, so
+ * the selected items of every max weight are rebuilt from the same decision
+ * matrix, and they follow the tie-break rule like the selected items of each
+ * package solved on its own.
+ * 
+ * Packages of a batch can be grouped by catalogue as well, see
+ * {@link #solveShared(List)}.
+ * 
+ * @author dfjmax
+ *
+ */
+public class MultiCapacitySolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "multi-capacity";
+
+	/**
+	 * Solves a catalogue of items for several max weights.
+	 * 
+	 * @param items      the catalogue of items
+	 * @param maxWeights the max weights of the packages
+	 * @return the selected items of each max weight, in the same order
+	 * 
+	 * @throws {@link APIException} when a max weight is invalid, or the costs are
+	 *         too large to be solved exactly
+	 */
+	public List<List<Item>> solve(List<Item> items, int... maxWeights) {
+		int largestMaxWeight = 0;
+		for (int maxWeight : maxWeights) {
+			if (maxWeight < 0) {
+				throw new APIException("The package can not be built as invalid parameters are being used.");
+			}
+			largestMaxWeight = Math.max(largestMaxWeight, maxWeight);
+		}
+		ItemPackage catalogue = new ItemPackage(largestMaxWeight, items);
+		int[] capacities = new int[maxWeights.length];
+		for (int i = 0; i < maxWeights.length; i++) {
+			capacities[i] = maxWeights[i] * 100;
+		}
+
+		int divisor = weightGcd(catalogue, capacities);
+		long[] costs = FixedPointKnapsackSolver.integerCosts(catalogue, ScratchArena.current());
+		if (!FixedPointKnapsackSolver.fitInKeys(costs, catalogue.getItemCount(),
+				FixedPointKnapsackSolver.weightBits(largestMaxWeight * 100 / divisor))) {
+			throw new APIException("The package costs are too large to be solved exactly.");
+		}
+		return solve(catalogue, capacities, divisor);
+	}
+
+	/**
+	 * Solves the packages of a batch that share their catalogue of items.
+	 * 
+	 * Items heavier than the max weight are not part of a package, so a package
+	 * shares the catalogue of another one when its items are the first items of
+	 * the other package, which are sorted by weight, and the next item of the
+	 * other package does not fit in its max weight. Every group of packages is
+	 * solved with a single dynamic programming when it takes less work than
+	 * solving each package with the solver the {@link SolverSelector} chooses for
+	 * it, and the selection is the same.
+	 * 
+	 * @param itemPackages the packages of the batch
+	 * @return the selected items of each package, in the same order, or null for
+	 *         the packages that should be solved on their own
+	 */
+	public List<List<Item>> solveShared(List<ItemPackage> itemPackages) {
+		List<List<Item>> selections = new ArrayList<>(Collections.nCopies(itemPackages.size(), null));
+		for (Group group : groups(itemPackages)) {
+			if (group.members.size() < 2) {
+				continue;
+			}
+			int[] capacities = new int[group.members.size()];
+			double separateWork = 0;
+			for (int i = 0; i < capacities.length; i++) {
+				ItemPackage member = itemPackages.get(group.members.get(i));
+				capacities[i] = member.getMaxWeight();
+				separateWork += SolverSelector.estimatedWork(member);
+			}
+
+			ItemPackage catalogue = group.catalogue;
+			int divisor = weightGcd(catalogue, capacities);
+			int capacity = group.maxCapacity / divisor;
+			int itemSize = catalogue.getItemCount();
+			if ((double) itemSize * (capacity + 1) > separateWork
+					|| (long) itemSize * ((capacity >>> 6) + 1) > SolverSelector.maxDecisionMatrixWords
+					|| !FixedPointKnapsackSolver.fitInKeys(
+							FixedPointKnapsackSolver.integerCosts(catalogue, ScratchArena.current()), itemSize,
+							FixedPointKnapsackSolver.weightBits(capacity))) {
+				continue;
+			}
+
+			long start = PackingMetrics.enabled ? System.nanoTime() : 0;
+			List<List<Item>> groupSelections = solve(catalogue, capacities, divisor);
+			for (int i = 0; i < capacities.length; i++) {
+				selections.set(group.members.get(i), groupSelections.get(i));
+			}
+			if (PackingMetrics.enabled) {
+				// Every member is counted as solved, sharing the time of the group
+				long nanos = (System.nanoTime() - start) / capacities.length;
+				for (int i = 0; i < capacities.length; i++) {
+					PackingMetrics.get().recordSolvedPackage(name, nanos);
+				}
+			}
+		}
+		return selections;
+	}
+
+	/**
+	 * Runs the dynamic programming up to the largest capacity and rebuilds the
+	 * selected items of every capacity. The costs should fit in the keys.
+	 * 
+	 * @param catalogue  the catalogue of items
+	 * @param capacities the capacities, max weights multiplied by 100
+	 * @param divisor    a common divisor of the item weights and the capacities
+	 * @return the selected items of each capacity
+	 */
+	private static List<List<Item>> solve(ItemPackage catalogue, int[] capacities, int divisor) {
+		int itemSize = catalogue.getItemCount();
+		int capacity = 0;
+		for (int itemCapacity : capacities) {
+			capacity = Math.max(capacity, itemCapacity / divisor);
+		}
+		int weightBits = FixedPointKnapsackSolver.weightBits(capacity);
+		ScratchArena arena = ScratchArena.current();
+		long[] costs = FixedPointKnapsackSolver.integerCosts(catalogue, arena);
+
+		int rowWords = (capacity >>> 6) + 1;
+		long[] taken = arena.decisionBits(itemSize * rowWords);
+		long[] values = arena.valueRow(capacity + 1);
+
+		// Same recurrence as the fixed-point solver, up to the largest capacity
+		for (int index = itemSize - 1; index >= 0; index--) {
+			int itemWeight = catalogue.getWeight(index) / divisor;
+			long itemValue = (costs[index] << weightBits) - itemWeight;
+			int rowOffset = index * rowWords;
+			for (int weight = capacity; weight >= itemWeight; weight--) {
+				long tookItemValue = itemValue + values[weight - itemWeight];
+				if (tookItemValue >= values[weight]) {
+					values[weight] = tookItemValue;
+					taken[rowOffset + (weight >>> 6)] |= 1L << weight;
+				}
+			}
+		}
+
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordDynamicProgrammingCells((long) itemSize * (capacity + 1));
+		}
+
+		// Walk the decisions forward from the first item and every capacity
+		List<List<Item>> selections = new ArrayList<>(capacities.length);
+		for (int i = 0; i < capacities.length; i++) {
+			int weight = capacities[i] / divisor;
+			List<Item> selectedItems = new ArrayList<>();
+			for (int index = 0; index < itemSize; index++) {
+				if ((taken[index * rowWords + (weight >>> 6)] & (1L << weight)) != 0) {
+					selectedItems.add(catalogue.getItem(index));
+					weight -= catalogue.getWeight(index) / divisor;
+				}
+			}
+			selections.add(selectedItems);
+		}
+		return selections;
+	}
+
+	/**
+	 * Gets the greatest common divisor of the item weights and the capacities.
+	 */
+	private static int weightGcd(ItemPackage catalogue, int[] capacities) {
+		int gcd = 0;
+		for (int capacity : capacities) {
+			gcd = PackageFeatures.gcd(gcd, capacity);
+		}
+		for (int position = 0; position < catalogue.getItemCount(); position++) {
+			gcd = PackageFeatures.gcd(gcd, catalogue.getWeight(position));
+		}
+		return Math.max(1, gcd);
+	}
+
+	/**
+	 * Groups the packages by catalogue, from the packages with the most items.
+	 */
+	private static List<Group> groups(List<ItemPackage> itemPackages) {
+		List<Integer> order = new ArrayList<>(itemPackages.size());
+		for (int i = 0; i < itemPackages.size(); i++) {
+			if (itemPackages.get(i).hasItems()) {
+				order.add(i);
+			}
+		}
+		// Stable, so the first package with the most items is the catalogue
+		order.sort((a, b) -> Integer.compare(itemPackages.get(b).getItemCount(), itemPackages.get(a).getItemCount()));
+
+		List<Group> groups = new ArrayList<>();
+		// Groups by their lightest item, which every member shares
+		Map<Long, List<Group>> groupsByFirstItem = new HashMap<>();
+		for (int i : order) {
+			ItemPackage itemPackage = itemPackages.get(i);
+			long firstItem = ((long) itemPackage.getWeight(0) << 32) | (itemPackage.getIndex(0) & 0xFFFFFFFFL);
+			List<Group> candidates = groupsByFirstItem.computeIfAbsent(firstItem, key -> new ArrayList<>());
+			Group group = null;
+			for (Group candidate : candidates) {
+				if (sharesCatalogue(candidate.catalogue, itemPackage)) {
+					group = candidate;
+					break;
+				}
+			}
+			if (group == null) {
+				group = new Group(itemPackage);
+				candidates.add(group);
+				groups.add(group);
+			}
+			group.members.add(i);
+			group.maxCapacity = Math.max(group.maxCapacity, itemPackage.getMaxWeight());
+		}
+		return groups;
+	}
+
+	/**
+	 * Checks if the items of a package are the items of the catalogue that fit in
+	 * its max weight.
+	 */
+	private static boolean sharesCatalogue(ItemPackage catalogue, ItemPackage itemPackage) {
+		int itemCount = itemPackage.getItemCount();
+		if (itemCount > catalogue.getItemCount()) {
+			return false;
+		}
+		for (int position = 0; position < itemCount; position++) {
+			if (itemPackage.getWeight(position) != catalogue.getWeight(position)
+					|| itemPackage.getIndex(position) != catalogue.getIndex(position)
+					|| Float.floatToIntBits(itemPackage.getCost(position)) != Float
+							.floatToIntBits(catalogue.getCost(position))) {
+				return false;
+			}
+		}
+		return itemCount == catalogue.getItemCount() || catalogue.getWeight(itemCount) > itemPackage.getMaxWeight();
+	}
+
+	/**
+	 * Packages sharing a catalogue, the package with the most items.
+	 */
+	private static final class Group {
+
+		private final ItemPackage catalogue;
+		private final List<Integer> members = new ArrayList<>();
+		private int maxCapacity = 0;
+
+		private Group(ItemPackage catalogue) {
+			this.catalogue = catalogue;
+		}
+
+	}
+
+}
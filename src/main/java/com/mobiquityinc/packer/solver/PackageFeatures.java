@@ -0,0 +1,103 @@
+package com.mobiquityinc.packer.solver;
+
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Cheap features of an {@link ItemPackage}, computed in a single pass over its
+ * items, used to choose the fastest solver for it.
+ * 
+ * @author dfjmax
+ *
+ */
+public class PackageFeatures {
+
+	private final int itemCount;
+	private final int capacity;
+	private final int weightGcd;
+	private final int fittingItems;
+
+	private PackageFeatures(int itemCount, int capacity, int weightGcd, int fittingItems) {
+		super();
+		this.itemCount = itemCount;
+		this.capacity = capacity;
+		this.weightGcd = weightGcd;
+		this.fittingItems = fittingItems;
+	}
+
+	/**
+	 * Computes the features of an {@link ItemPackage}.
+	 * 
+	 * @param itemPackage the item package
+	 * @return the package features
+	 */
+	public static PackageFeatures of(ItemPackage itemPackage) {
+		int itemCount = itemPackage.getItemCount();
+		int capacity = itemPackage.getMaxWeight();
+		int gcd = capacity;
+		int fittingItems = 0;
+		long fittingWeight = 0;
+		// Items are sorted by weight, so the lightest ones come first
+		for (int position = 0; position < itemCount; position++) {
+			gcd = gcd(gcd, itemPackage.getWeight(position));
+			fittingWeight += itemPackage.getWeight(position);
+			if (fittingWeight <= capacity) {
+				fittingItems++;
+			}
+		}
+		return new PackageFeatures(itemCount, capacity, gcd, fittingItems);
+	}
+
+	/**
+	 * Greatest common divisor of two non negative numbers.
+	 * 
+	 * @param a the first number
+	 * @param b the second number
+	 * @return the greatest common divisor, 0 when both numbers are 0
+	 */
+	static int gcd(int a, int b) {
+		while (b != 0) {
+			int remainder = a % b;
+			a = b;
+			b = remainder;
+		}
+		return a;
+	}
+
+	/**
+	 * Gets the number of items of the package.
+	 * 
+	 * @return the number of items
+	 */
+	public int getItemCount() {
+		return this.itemCount;
+	}
+
+	/**
+	 * Gets the package max weight.
+	 * 
+	 * @return the package capacity
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Gets the greatest common divisor of the capacity and all the item weights.
+	 * 
+	 * @return the weights greatest common divisor, 0 if all of them are 0
+	 */
+	public int getWeightGcd() {
+		return this.weightGcd;
+	}
+
+	/**
+	 * Gets the max number of items that fit together in the package, which are
+	 * the lightest ones.
+	 * 
+	 * @return the number of fitting items
+	 */
+	public int getFittingItems() {
+		return this.fittingItems;
+	}
+
+}
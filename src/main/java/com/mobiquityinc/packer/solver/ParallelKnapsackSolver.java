@@ -0,0 +1,188 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Dynamic programming algorithm that splits the weights of every item row
+ * across fork-join tasks, so a single very large package uses several cores.
+ * 
+ * Every row only depends on the previous one, so two cost rows are kept: the
+ * tasks read the previous row and write their own weight range of the current
+ * one. Weight ranges are aligned to 64 weights, so every task also writes its
+ * own words of the bit packed decision matrix, the same one kept by the
+ * {@link CompactKnapsackSolver}.
+ * 
+ * Packages with rows shorter than the parallel threshold are not worth the
+ * synchronization of every row and are solved by the
+ * {@link CompactKnapsackSolver} instead. Both select the same items.
+ * 
+ * @author dfjmax
+ *
+ */
+public class ParallelKnapsackSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "parallel";
+
+	/**
+	 * Default row length, capacity + 1, from which rows are solved in parallel.
+	 */
+	public static final int defaultMinParallelWeights = 1 << 14;
+
+	/**
+	 * Words of the decision matrix, 64 weights each, solved by a single task at
+	 * least.
+	 */
+	private static final int minTaskWords = 32;
+
+	private final ForkJoinPool pool;
+	private final int minParallelWeights;
+	private final KnapsackSolver sequentialSolver = new CompactKnapsackSolver();
+
+	/**
+	 * Creates a solver running on the common fork-join pool with the default
+	 * parallel threshold.
+	 */
+	public ParallelKnapsackSolver() {
+		this(ForkJoinPool.commonPool(), defaultMinParallelWeights);
+	}
+
+	/**
+	 * Creates a solver.
+	 * 
+	 * @param pool               the pool running the row tasks
+	 * @param minParallelWeights the row length, capacity + 1, from which rows are
+	 *                           solved in parallel
+	 */
+	public ParallelKnapsackSolver(ForkJoinPool pool, int minParallelWeights) {
+		super();
+		this.pool = pool;
+		this.minParallelWeights = minParallelWeights;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		int capacity = itemPackage.getMaxWeight();
+		if (capacity + 1 < this.minParallelWeights || this.pool.getParallelism() < 2) {
+			return this.sequentialSolver.solve(itemPackage);
+		}
+
+		int itemSize = itemPackage.getItemCount();
+		int rowWords = (capacity >>> 6) + 1;
+		ScratchArena arena = ScratchArena.current();
+		long[] taken = arena.decisionBits(itemSize * rowWords);
+		double[] previousCosts = arena.costRow(capacity + 1);
+		double[] costs = arena.secondCostRow(capacity + 1);
+
+		// Enough tasks per row to balance the load among the pool threads
+		int taskWords = Math.max(minTaskWords, rowWords / (this.pool.getParallelism() * 4) + 1);
+
+		// Iterate items
+		for (int index = 0; index < itemSize; index++) {
+			this.pool.invoke(new RowTask(itemPackage.getWeight(index), itemPackage.getCost(index), capacity,
+					previousCosts, costs, taken, index * rowWords, 0, rowWords, taskWords));
+			double[] solvedRow = costs;
+			costs = previousCosts;
+			previousCosts = solvedRow;
+		}
+
+		if (PackingMetrics.enabled) {
+			long cells = 0;
+			for (int index = 0; index < itemSize; index++) {
+				cells += Math.max(0, capacity - Math.max(itemPackage.getWeight(index), 1) + 1);
+			}
+			PackingMetrics.get().recordDynamicProgrammingCells(cells);
+		}
+
+		// Walk the decisions back from the last item and the full capacity
+		List<Item> selectedItems = new LinkedList<>();
+		for (int index = itemSize - 1; index >= 0; index--) {
+			if ((taken[index * rowWords + (capacity >>> 6)] & (1L << capacity)) != 0) {
+				selectedItems.add(itemPackage.getItem(index));
+				capacity -= itemPackage.getWeight(index);
+			}
+		}
+		return selectedItems;
+	}
+
+	/**
+	 * Solves the words [fromWord, toWord) of an item row, splitting them in
+	 * halves until they are small enough.
+	 */
+	private static final class RowTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int itemWeight;
+		private final float itemCost;
+		private final int capacity;
+		private final double[] previousCosts;
+		private final double[] costs;
+		private final long[] taken;
+		private final int rowOffset;
+		private final int fromWord;
+		private final int toWord;
+		private final int taskWords;
+
+		private RowTask(int itemWeight, float itemCost, int capacity, double[] previousCosts, double[] costs,
+				long[] taken, int rowOffset, int fromWord, int toWord, int taskWords) {
+			super();
+			this.itemWeight = itemWeight;
+			this.itemCost = itemCost;
+			this.capacity = capacity;
+			this.previousCosts = previousCosts;
+			this.costs = costs;
+			this.taken = taken;
+			this.rowOffset = rowOffset;
+			this.fromWord = fromWord;
+			this.toWord = toWord;
+			this.taskWords = taskWords;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.toWord - this.fromWord > this.taskWords) {
+				int middleWord = (this.fromWord + this.toWord) >>> 1;
+				invokeAll(split(this.fromWord, middleWord), split(middleWord, this.toWord));
+				return;
+			}
+
+			int fromWeight = this.fromWord << 6;
+			int toWeight = Math.min(this.toWord << 6, this.capacity + 1);
+			// Weight 0 is never evaluated, same as in the sequential solvers
+			int firstFitting = Math.min(Math.max(Math.max(this.itemWeight, 1), fromWeight), toWeight);
+			System.arraycopy(this.previousCosts, fromWeight, this.costs, fromWeight, firstFitting - fromWeight);
+			for (int weight = firstFitting; weight < toWeight; weight++) {
+				double tookItemCost = this.itemCost + this.previousCosts[weight - this.itemWeight];
+				// The item is only taken when it improves the cost for the current weight
+				if (tookItemCost > this.previousCosts[weight]) {
+					this.costs[weight] = tookItemCost;
+					this.taken[this.rowOffset + (weight >>> 6)] |= 1L << weight;
+				} else {
+					this.costs[weight] = this.previousCosts[weight];
+				}
+			}
+		}
+
+		private RowTask split(int from, int to) {
+			return new RowTask(this.itemWeight, this.itemCost, this.capacity, this.previousCosts, this.costs,
+					this.taken, this.rowOffset, from, to, this.taskWords);
+		}
+
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Exact sparse dynamic programming that keeps only the packages that are not
+ * dominated, instead of one cell for every capacity.
+ *
+ * After every item the frontier contains the reachable (weight, cost) states
+ * sorted by weight, each one more expensive than the lighter ones. The next
+ * frontier is the merge of the current one with the current one plus the item,
+ * so the running time depends on the number of reachable states and not on
+ * the capacity or the weight precision.
+ *
+ * Items are added from the last one to the first one, so when two states weigh
+ * and cost the same the one with the item that comes first in the package is
+ * kept, and the selection follows the tie-break rule of the challenge like the
+ * {@link BranchAndBoundSolver}.
+ *
+ * @author dfjmax
+ *
+ */
+public class ParetoFrontierSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "pareto-frontier";
+
+	/**
+	 * Costs closer than this are considered equal, so rounding errors do not break
+	 * the tie-break rule.
+	 */
+	private static final double costTolerance = 1e-9;
+
+	private static final int initialSize = 64;
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		int capacity = itemPackage.getMaxWeight();
+
+		// Back pointers, one node for every state that takes an item
+		Nodes nodes = new Nodes();
+
+		// Current and next frontier, starting with the empty package
+		Frontier frontier = new Frontier();
+		Frontier next = new Frontier();
+		frontier.add(0, 0, -1);
+		long states = 0;
+
+		for (int position = itemPackage.getItemCount() - 1; position >= 0; position--) {
+			int itemWeight = itemPackage.getWeight(position);
+			double itemCost = itemPackage.getCost(position);
+			next.clear();
+
+			int skip = 0;
+			int take = 0;
+			int size = frontier.size;
+			while (skip < size || take < size) {
+				boolean canTake = take < size && frontier.weights[take] <= capacity - itemWeight;
+				if (!canTake && skip == size) {
+					break;
+				}
+				int weight;
+				double cost;
+				int node;
+				if (canTake && (skip == size || frontier.weights[take] + itemWeight <= frontier.weights[skip])) {
+					weight = frontier.weights[take] + itemWeight;
+					cost = frontier.costs[take] + itemCost;
+					node = -1;
+					// Same weight, the item that comes first wins unless the other costs more
+					if (skip < size && frontier.weights[skip] == weight
+							&& frontier.costs[skip] > cost + costTolerance) {
+						cost = frontier.costs[skip];
+						node = frontier.nodes[skip];
+					}
+					if (skip < size && frontier.weights[skip] == weight) {
+						skip++;
+					}
+					if (node == -1 && cost > next.lastCost() + costTolerance) {
+						node = nodes.add(position, frontier.nodes[take]);
+					}
+					take++;
+				} else {
+					weight = frontier.weights[skip];
+					cost = frontier.costs[skip];
+					node = frontier.nodes[skip];
+					skip++;
+				}
+				// Only states more expensive than the lighter ones are kept
+				if (cost > next.lastCost() + costTolerance) {
+					next.add(weight, cost, node);
+				}
+			}
+
+			states += next.size;
+			Frontier swap = frontier;
+			frontier = next;
+			next = swap;
+		}
+
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordDynamicProgrammingCells(states);
+		}
+
+		// The most expensive state is the last one, and no lighter one costs the same.
+		// Nodes are followed from the first item to the last one
+		List<Item> selectedItems = new ArrayList<>();
+		for (int node = frontier.nodes[frontier.size - 1]; node != -1; node = nodes.parents[node]) {
+			selectedItems.add(itemPackage.getItem(nodes.positions[node]));
+		}
+		return selectedItems;
+	}
+
+	/**
+	 * Non dominated states sorted by weight.
+	 */
+	private static class Frontier {
+
+		private int[] weights = new int[initialSize];
+		private double[] costs = new double[initialSize];
+		private int[] nodes = new int[initialSize];
+		private int size = 0;
+
+		private void add(int weight, double cost, int node) {
+			if (this.size == this.weights.length) {
+				this.weights = Arrays.copyOf(this.weights, this.size * 2);
+				this.costs = Arrays.copyOf(this.costs, this.size * 2);
+				this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+			}
+			this.weights[this.size] = weight;
+			this.costs[this.size] = cost;
+			this.nodes[this.size] = node;
+			this.size++;
+		}
+
+		private double lastCost() {
+			return this.size == 0 ? Double.NEGATIVE_INFINITY : this.costs[this.size - 1];
+		}
+
+		private void clear() {
+			this.size = 0;
+		}
+
+	}
+
+	/**
+	 * Selected item positions, each one pointing to the next selected item.
+	 */
+	private static class Nodes {
+
+		private int[] positions = new int[initialSize];
+		private int[] parents = new int[initialSize];
+		private int size = 0;
+
+		private int add(int position, int parent) {
+			if (this.size == this.positions.length) {
+				this.positions = Arrays.copyOf(this.positions, this.size * 2);
+				this.parents = Arrays.copyOf(this.parents, this.size * 2);
+			}
+			this.positions[this.size] = position;
+			this.parents[this.size] = parent;
+			return this.size++;
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Solver that applies a {@link DominancePruning} to every package before
+ * passing it to another solver, which should follow the tie-break rule.
+ * 
+ * The selected items are mapped back to the items of the original package.
+ * 
+ * @author dfjmax
+ *
+ */
+public class PruningSolver implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "dominance-pruning";
+
+	private final KnapsackSolver solver;
+
+	private final LongAdder prunedPackages = new LongAdder();
+	private final LongAdder removedItems = new LongAdder();
+
+	/**
+	 * Creates a pruning solver.
+	 * 
+	 * @param solver the solver of the pruned packages
+	 */
+	public PruningSolver(KnapsackSolver solver) {
+		super();
+		this.solver = solver;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		DominancePruning pruning = DominancePruning.of(itemPackage);
+		if (pruning.getRemovedItemCount() > 0) {
+			this.prunedPackages.increment();
+			this.removedItems.add(pruning.getRemovedItemCount());
+		}
+		return pruning.restore(this.solver.solve(pruning.getPrunedPackage()));
+	}
+
+	/**
+	 * Gets the number of packages with removed items.
+	 * 
+	 * @return the number of pruned packages
+	 */
+	public long getPrunedPackageCount() {
+		return this.prunedPackages.sum();
+	}
+
+	/**
+	 * Gets the total number of removed items, which is the number of rows saved.
+	 * 
+	 * @return the number of removed items
+	 */
+	public long getRemovedItemCount() {
+		return this.removedItems.sum();
+	}
+
+}
@@ -0,0 +1,245 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.Arrays;
+
+/**
+ * Scratch buffers of the current thread, reused by every package solved in it,
+ * so once they have grown to the largest package seen the solvers do not
+ * allocate them again.
+ * 
+ * Every buffer has a single purpose and is only valid until the solver that
+ * asked for it returns: solvers that call other solvers, like the
+ * {@link PruningSolver} or the {@link FptasSolver}, never hold a buffer that
+ * the called solver uses. Buffers longer than {@value #maxRetainedLength}
+ * elements are handed out without being kept, so a single huge package does
+ * not pin its memory for the life of the thread.
+ * 
+ * @author dfjmax
+ *
+ */
+final class ScratchArena {
+
+	/**
+	 * Max length of a buffer kept for the next packages, 32 MB of longs.
+	 */
+	static final int maxRetainedLength = 1 << 22;
+
+	private static final ThreadLocal<ScratchArena> arenas = ThreadLocal.withInitial(ScratchArena::new);
+
+	// Dynamic programming rows and decisions
+	private long[] valueRow = new long[0];
+	private long[] secondValueRow = new long[0];
+	private double[] costRow = new double[0];
+	private double[] secondCostRow = new double[0];
+	private long[] decisionBits = new long[0];
+
+	// Items of the package being solved
+	private long[] integerCosts = new long[0];
+	private int[] itemOrder = new int[0];
+	private int[] itemWeights = new int[0];
+	private double[] itemCosts = new double[0];
+	private long[] itemBits = new long[0];
+
+	private ScratchArena() {
+		super();
+	}
+
+	/**
+	 * Gets the buffers of the current thread.
+	 * 
+	 * @return the scratch arena of the current thread
+	 */
+	static ScratchArena current() {
+		return arenas.get();
+	}
+
+	/**
+	 * Gets the value row of the dynamic programming over long keys.
+	 * 
+	 * @param length the cells needed
+	 * @return a row with at least length zeroed cells
+	 */
+	long[] valueRow(int length) {
+		long[] row = cleared(this.valueRow, length);
+		if (length <= maxRetainedLength) {
+			this.valueRow = row;
+		}
+		return row;
+	}
+
+	/**
+	 * Gets a second value row, for solvers that keep two of them.
+	 * 
+	 * @param length the cells needed
+	 * @return a row with at least length zeroed cells
+	 */
+	long[] secondValueRow(int length) {
+		long[] row = cleared(this.secondValueRow, length);
+		if (length <= maxRetainedLength) {
+			this.secondValueRow = row;
+		}
+		return row;
+	}
+
+	/**
+	 * Gets the cost row of the dynamic programming over decimal costs.
+	 * 
+	 * @param length the cells needed
+	 * @return a row with at least length zeroed cells
+	 */
+	double[] costRow(int length) {
+		double[] row = cleared(this.costRow, length);
+		if (length <= maxRetainedLength) {
+			this.costRow = row;
+		}
+		return row;
+	}
+
+	/**
+	 * Gets a second cost row, for solvers that keep two of them.
+	 * 
+	 * @param length the cells needed
+	 * @return a row with at least length zeroed cells
+	 */
+	double[] secondCostRow(int length) {
+		double[] row = cleared(this.secondCostRow, length);
+		if (length <= maxRetainedLength) {
+			this.secondCostRow = row;
+		}
+		return row;
+	}
+
+	/**
+	 * Gets the bit packed decision matrix of the dynamic programming.
+	 * 
+	 * @param length the words needed
+	 * @return a matrix with at least length zeroed words
+	 */
+	long[] decisionBits(int length) {
+		long[] bits = cleared(this.decisionBits, length);
+		if (length <= maxRetainedLength) {
+			this.decisionBits = bits;
+		}
+		return bits;
+	}
+
+	/**
+	 * Gets the buffer for the integer costs of the items.
+	 * 
+	 * @param length the items of the package
+	 * @return a buffer with at least length elements, not cleared
+	 */
+	long[] integerCosts(int length) {
+		long[] costs = grown(this.integerCosts, length);
+		if (length <= maxRetainedLength) {
+			this.integerCosts = costs;
+		}
+		return costs;
+	}
+
+	/**
+	 * Gets the buffer for the item positions in the order they are explored.
+	 * 
+	 * @param length the items of the package
+	 * @return a buffer with at least length elements, not cleared
+	 */
+	int[] itemOrder(int length) {
+		int[] order = grown(this.itemOrder, length);
+		if (length <= maxRetainedLength) {
+			this.itemOrder = order;
+		}
+		return order;
+	}
+
+	/**
+	 * Gets the buffer for the item weights in the order they are explored.
+	 * 
+	 * @param length the items of the package
+	 * @return a buffer with at least length elements, not cleared
+	 */
+	int[] itemWeights(int length) {
+		int[] weights = grown(this.itemWeights, length);
+		if (length <= maxRetainedLength) {
+			this.itemWeights = weights;
+		}
+		return weights;
+	}
+
+	/**
+	 * Gets the buffer for the item costs in the order they are explored.
+	 * 
+	 * @param length the items of the package
+	 * @return a buffer with at least length elements, not cleared
+	 */
+	double[] itemCosts(int length) {
+		double[] costs = grown(this.itemCosts, length);
+		if (length <= maxRetainedLength) {
+			this.itemCosts = costs;
+		}
+		return costs;
+	}
+
+	/**
+	 * Gets the buffer for the selection bits of the items in the order they are
+	 * explored.
+	 * 
+	 * @param length the items of the package
+	 * @return a buffer with at least length elements, not cleared
+	 */
+	long[] itemBits(int length) {
+		long[] bits = grown(this.itemBits, length);
+		if (length <= maxRetainedLength) {
+			this.itemBits = bits;
+		}
+		return bits;
+	}
+
+	/**
+	 * Gets a buffer with at least length zeroed elements, the given one when it
+	 * is long enough.
+	 */
+	private static long[] cleared(long[] buffer, int length) {
+		if (buffer.length < length) {
+			return new long[length];
+		}
+		Arrays.fill(buffer, 0, length, 0);
+		return buffer;
+	}
+
+	/**
+	 * Gets a buffer with at least length zeroed elements, the given one when it
+	 * is long enough.
+	 */
+	private static double[] cleared(double[] buffer, int length) {
+		if (buffer.length < length) {
+			return new double[length];
+		}
+		Arrays.fill(buffer, 0, length, 0);
+		return buffer;
+	}
+
+	/**
+	 * Gets a buffer with at least length elements, the given one when it is long
+	 * enough. The elements are not cleared.
+	 */
+	private static long[] grown(long[] buffer, int length) {
+		return buffer.length < length ? new long[length] : buffer;
+	}
+
+	/**
+	 * Gets a buffer with at least length elements, the given one when it is long
+	 * enough. The elements are not cleared.
+	 */
+	private static int[] grown(int[] buffer, int length) {
+		return buffer.length < length ? new int[length] : buffer;
+	}
+
+	/**
+	 * Gets a buffer with at least length elements, the given one when it is long
+	 * enough. The elements are not cleared.
+	 */
+	private static double[] grown(double[] buffer, int length) {
+		return buffer.length < length ? new double[length] : buffer;
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.concurrent.TimeUnit;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Builds the solver used by default from the system properties:
+ * <ul>
+ * <li>{@value #solverProperty}: name of a registered solver to be used for
+ * every package, by default each package gets the fastest solver for it
+ * ({@value SolverSelector#name}).</li>
+ * <li>{@value #budgetMicrosProperty} and {@value #budgetCellsProperty}: enable
+ * a {@link DeadlineSolver} that answers every package within this time, in
+ * microseconds, and this number of dynamic programming cells, with the greedy
+ * package when the best one is not found in time. It can not be combined with
+ * a forced solver.</li>
+ * <li>{@value #epsilonProperty}: enables a {@link FptasSolver} that accepts
+ * packages whose cost is at least (1 - epsilon) times the best cost, when they
+ * are found faster.</li>
+ * <li>{@value #cacheMaxEntriesProperty}: enables a {@link CachingSolver} that
+ * holds up to this number of packages.</li>
+ * <li>{@value #cacheMaxItemsProperty}: enables a {@link CachingSolver} that
+ * holds up to this number of items in total.</li>
+ * </ul>
+ * 
+ * @author dfjmax
+ *
+ */
+public final class SolverConfiguration {
+
+	/**
+	 * System property used to force a solver by name.
+	 */
+	public static final String solverProperty = "com.mobiquityinc.solver";
+
+	/**
+	 * System property used to set the time budget of every package.
+	 */
+	public static final String budgetMicrosProperty = "com.mobiquityinc.budget.micros";
+
+	/**
+	 * System property used to set the work budget of every package.
+	 */
+	public static final String budgetCellsProperty = "com.mobiquityinc.budget.cells";
+
+	/**
+	 * System property used to accept approximate packages.
+	 */
+	public static final String epsilonProperty = "com.mobiquityinc.approximation.epsilon";
+
+	/**
+	 * System property used to cache up to a number of packages.
+	 */
+	public static final String cacheMaxEntriesProperty = "com.mobiquityinc.cache.maxEntries";
+
+	/**
+	 * System property used to cache up to a total number of items.
+	 */
+	public static final String cacheMaxItemsProperty = "com.mobiquityinc.cache.maxItems";
+
+	private SolverConfiguration() {
+	}
+
+	/**
+	 * Gets the configured solver.
+	 * 
+	 * @return the configured solver
+	 * 
+	 * @throws {@link APIException} when the forced solver does not exist, the
+	 *         budgets are combined with a forced solver, or the budgets, the
+	 *         epsilon or the cache size are invalid
+	 */
+	public static KnapsackSolver configuredSolver() {
+		String solverName = System.getProperty(solverProperty, SolverSelector.name);
+		KnapsackSolver solver;
+		if (System.getProperty(budgetMicrosProperty) != null || System.getProperty(budgetCellsProperty) != null) {
+			if (!SolverSelector.name.equals(solverName)) {
+				throw new APIException("The budgets can not be combined with a forced solver.");
+			}
+			// Budgets not set are unlimited
+			long timeBudgetMicros = longProperty(budgetMicrosProperty, Long.MAX_VALUE);
+			solver = new DeadlineSolver(TimeUnit.MICROSECONDS.toNanos(timeBudgetMicros),
+					longProperty(budgetCellsProperty, Long.MAX_VALUE));
+		} else {
+			solver = SolverSelector.name.equals(solverName) ? new SolverSelector(SolverRegistry.defaultRegistry())
+					: SolverRegistry.defaultRegistry().get(solverName);
+		}
+		if (System.getProperty(epsilonProperty) != null) {
+			solver = new FptasSolver(solver, doubleProperty(epsilonProperty));
+		}
+
+		if (System.getProperty(cacheMaxEntriesProperty) != null) {
+			return CachingSolver.withMaxEntries(solver, longProperty(cacheMaxEntriesProperty));
+		}
+		if (System.getProperty(cacheMaxItemsProperty) != null) {
+			return CachingSolver.withMaxItems(solver, longProperty(cacheMaxItemsProperty));
+		}
+		return solver;
+	}
+
+	/**
+	 * Gets the {@link DeadlineSolver} of a solver built by
+	 * {@link #configuredSolver()}, behind the cache and the approximation.
+	 * 
+	 * @param solver the configured solver
+	 * @return the deadline solver, or null when no budget is configured
+	 */
+	public static DeadlineSolver budgetSolver(KnapsackSolver solver) {
+		if (solver instanceof CachingSolver) {
+			return budgetSolver(((CachingSolver) solver).getSolver());
+		}
+		if (solver instanceof FptasSolver) {
+			return budgetSolver(((FptasSolver) solver).getExactSolver());
+		}
+		return solver instanceof DeadlineSolver ? (DeadlineSolver) solver : null;
+	}
+
+	/**
+	 * Gets a decimal system property.
+	 */
+	private static double doubleProperty(String property) {
+		try {
+			return Double.parseDouble(System.getProperty(property));
+		} catch (NumberFormatException e) {
+			throw new APIException("The " + property + " property should be a number.", e);
+		}
+	}
+
+	/**
+	 * Gets a numeric system property.
+	 */
+	private static long longProperty(String property) {
+		try {
+			return Long.parseLong(System.getProperty(property));
+		} catch (NumberFormatException e) {
+			throw new APIException("The " + property + " property should be a number.", e);
+		}
+	}
+
+	/**
+	 * Gets a numeric system property, or a default value when it is not set.
+	 */
+	private static long longProperty(String property, long defaultValue) {
+		return System.getProperty(property) == null ? defaultValue : longProperty(property);
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Registry of the available {@link KnapsackSolver} implementations by name.
+ * 
+ * The default registry contains the built-in solvers and every solver declared
+ * as a {@link ServiceLoader} service in
+ * META-INF/services/com.mobiquityinc.packer.solver.KnapsackSolver.
+ * 
+ * @author dfjmax
+ *
+ */
+public class SolverRegistry {
+
+	private static final SolverRegistry defaultRegistry = new SolverRegistry().registerBuiltInSolvers()
+			.registerServices();
+
+	private final Map<String, KnapsackSolver> solvers = new LinkedHashMap<>();
+
+	/**
+	 * Gets the default registry, with the built-in solvers and the ones declared
+	 * as services.
+	 * 
+	 * @return the default registry
+	 */
+	public static SolverRegistry defaultRegistry() {
+		return defaultRegistry;
+	}
+
+	/**
+	 * Registers the built-in solvers.
+	 * 
+	 * @return this registry
+	 */
+	public SolverRegistry registerBuiltInSolvers() {
+		register(new DenseKnapsackSolver());
+		register(new CompactKnapsackSolver());
+		register(new BranchAndBoundSolver());
+		register(new ParetoFrontierSolver());
+		register(new ParallelKnapsackSolver());
+		register(new FixedPointKnapsackSolver());
+		register(new HirschbergKnapsackSolver());
+		return this;
+	}
+
+	/**
+	 * Registers the solvers declared as {@link ServiceLoader} services.
+	 * 
+	 * @return this registry
+	 */
+	public SolverRegistry registerServices() {
+		for (KnapsackSolver solver : ServiceLoader.load(KnapsackSolver.class)) {
+			register(solver);
+		}
+		return this;
+	}
+
+	/**
+	 * Registers a solver, replacing any solver registered with the same name.
+	 * 
+	 * @param solver the solver
+	 * @return this registry
+	 */
+	public synchronized SolverRegistry register(KnapsackSolver solver) {
+		this.solvers.put(solver.getName(), solver);
+		return this;
+	}
+
+	/**
+	 * Gets a solver by name.
+	 * 
+	 * @param name the solver name
+	 * @return the solver
+	 * 
+	 * @throws {@link APIException} when there is no solver with that name
+	 */
+	public synchronized KnapsackSolver get(String name) {
+		KnapsackSolver solver = this.solvers.get(name);
+		if (solver == null) {
+			throw new APIException("Unknown solver '" + name + "', available solvers: " + this.solvers.keySet());
+		}
+		return solver;
+	}
+
+	/**
+	 * Gets the names of the registered solvers.
+	 * 
+	 * @return the solver names, in registration order
+	 */
+	public synchronized Set<String> getNames() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(this.solvers.keySet()));
+	}
+
+}
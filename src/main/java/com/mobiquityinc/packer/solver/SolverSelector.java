@@ -0,0 +1,148 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.List;
+
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Solver that chooses, for every package, the solver expected to be the
+ * fastest one according to the {@link PackageFeatures}.
+ * 
+ * The cost of the dynamic programming solvers grows with items x capacity,
+ * where the capacity is divided by the greatest common divisor of the weights,
+ * while the cost of the branch and bound search grows with the number of item
+ * combinations that fit in the package, which is small when the package has
+ * few items or only a few of them fit together. The memory of the dynamic
+ * programming decisions grows with items x capacity as well, so the largest
+ * packages are solved by the {@link HirschbergKnapsackSolver}.
+ * 
+ * A solver can be forced for every package instead, see
+ * {@link SolverConfiguration}.
+ * 
+ * @author dfjmax
+ *
+ */
+public class SolverSelector implements KnapsackSolver {
+
+	/**
+	 * Name of this solver.
+	 */
+	public static final String name = "auto";
+
+	/**
+	 * Branch and bound is always chosen up to this number of items, it explores
+	 * at most 2^20 combinations even if the bound does not prune anything.
+	 */
+	private static final int smallPackageMaxItems = 20;
+
+	/**
+	 * Max words of the decision matrix of the dynamic programming, 32 MB. Larger
+	 * packages are solved keeping memory proportional to the capacity only.
+	 */
+	static final long maxDecisionMatrixWords = 1 << 22;
+
+	private final KnapsackSolver dynamicProgrammingSolver;
+	private final KnapsackSolver largePackageSolver;
+	private final KnapsackSolver branchAndBoundSolver;
+
+	/**
+	 * Creates a selector choosing among the solvers of a registry.
+	 * 
+	 * @param registry the solvers registry
+	 */
+	public SolverSelector(SolverRegistry registry) {
+		super();
+		// Dynamic programming packages are compressed first, see dynamicProgrammingCells.
+		// Both solvers follow the tie-break rule, so the selection does not change the answer
+		this.dynamicProgrammingSolver = new CompressingSolver(registry.get(FixedPointKnapsackSolver.name));
+		this.largePackageSolver = new CompressingSolver(registry.get(HirschbergKnapsackSolver.name));
+		// Branch and bound follows the tie-break rule, so dominated items can be removed first
+		this.branchAndBoundSolver = new PruningSolver(registry.get(BranchAndBoundSolver.name));
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		KnapsackSolver solver = select(itemPackage);
+		if (!PackingMetrics.enabled) {
+			return solver.solve(itemPackage);
+		}
+		long start = System.nanoTime();
+		List<Item> selectedItems = solver.solve(itemPackage);
+		PackingMetrics.get().recordSolver(solver.getName(), System.nanoTime() - start);
+		return selectedItems;
+	}
+
+	/**
+	 * Chooses the solver for a package.
+	 * 
+	 * @param itemPackage the item package
+	 * @return the solver expected to be the fastest one
+	 */
+	public KnapsackSolver select(ItemPackage itemPackage) {
+		PackageFeatures features = PackageFeatures.of(itemPackage);
+		if (features.getItemCount() <= smallPackageMaxItems) {
+			return this.branchAndBoundSolver;
+		}
+		if (features.getItemCount() <= BranchAndBoundSolver.maxItems
+				&& combinations(features) <= dynamicProgrammingCells(features)) {
+			return this.branchAndBoundSolver;
+		}
+		if (decisionMatrixWords(features) > maxDecisionMatrixWords) {
+			return this.largePackageSolver;
+		}
+		return this.dynamicProgrammingSolver;
+	}
+
+	/**
+	 * Estimates the work of solving a package with the solver chosen for it: the
+	 * item combinations explored by branch and bound or the dynamic programming
+	 * cells, whichever is lower.
+	 * 
+	 * @param itemPackage the item package
+	 * @return the estimated work
+	 */
+	static double estimatedWork(ItemPackage itemPackage) {
+		PackageFeatures features = PackageFeatures.of(itemPackage);
+		return Math.min(combinations(features), dynamicProgrammingCells(features));
+	}
+
+	/**
+	 * Upper bound of the item combinations that fit in the package: combinations
+	 * of up to {@link PackageFeatures#getFittingItems()} items.
+	 */
+	private static double combinations(PackageFeatures features) {
+		double combinations = 1;
+		double total = 1;
+		for (int k = 1; k <= features.getFittingItems(); k++) {
+			combinations = combinations * (features.getItemCount() - k + 1) / k;
+			total += combinations;
+		}
+		return total;
+	}
+
+	/**
+	 * Words of the decision matrix, one bit per cell, once the weights are divided
+	 * by their greatest common divisor.
+	 */
+	private static long decisionMatrixWords(PackageFeatures features) {
+		int divisor = Math.max(1, features.getWeightGcd());
+		return (long) features.getItemCount() * ((features.getCapacity() / divisor >>> 6) + 1);
+	}
+
+	/**
+	 * Cells evaluated by the dynamic programming solver once the weights are
+	 * divided by their greatest common divisor.
+	 */
+	private static double dynamicProgrammingCells(PackageFeatures features) {
+		int divisor = Math.max(1, features.getWeightGcd());
+		return (double) features.getItemCount() * (features.getCapacity() / divisor + 1);
+	}
+
+}
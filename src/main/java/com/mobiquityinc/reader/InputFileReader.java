@@ -1,41 +1,50 @@
 package com.mobiquityinc.reader;
 
-import java.io.File;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.mobiquityinc.exception.APIException;
-import com.mobiquityinc.model.Item;
 import com.mobiquityinc.model.ItemPackage;
 
 /**
  * This class is responsible for reading an input file from an absolute file
  * path and converting it to a {@link List} of {@link ItemPackage}.
  * 
+ * The file can also be read lazily with {@link #stream(String)} or
+ * {@link #forEach(String, Consumer)}, which parse one line at a time so the
+ * memory used does not depend on the file size, or {@link #lines(String)},
+ * which leaves the lines to be parsed by the caller.
+ * 
  * If one of the constraints is not met, the program will throw an
  * {@APIException} with the details and will be terminated.
  * 
+ * Lines are parsed with a {@link LineParser} owned by the reader, so a reader
+ * should not be shared between threads.
+ * 
  * @author dfjmax
  *
  */
 public class InputFileReader {
 
 	/**
-	 * Regular expression that represents a valid input line in the file. Example
-	 * valid line: " 10 : (1,20,€20) (2,40,€15) "
+	 * Parser of the input lines, it reuses its buffers between lines.
 	 */
-	private static String inputLineRegex = "^\\d+\\s*?:\\s*\\(\\s*\\d+\\s*,\\s*\\d*\\.{0,1}\\d+\\s*,\\s*€\\d*\\.{0,1}\\d+\\s*\\).*$";
-
-	/**
-	 * Regular expression that represents a sanitized(without spaces/euro sign)
-	 * item. Example valid item: "(1,20,20)"
-	 */
-	private static Pattern itemRegex = Pattern.compile("\\((\\d+),(\\d+\\.?\\d*?),(\\d+)\\)");
+	private final LineParser lineParser = new LineParser();
 
 	/**
 	 * Reads a {@link List} of {@link ItemPackage} from an absolute file path.
@@ -47,34 +56,91 @@ public class InputFileReader {
 	 *         file contains invalid data
 	 */
 	public List<ItemPackage> read(String inputFilePath) {
+		// Stream is automatically closed at the end of the try statement
+		try (Stream<ItemPackage> itemPackages = stream(inputFilePath)) {
+			return itemPackages.collect(Collectors.toList());
+		}
+	}
 
-		// Create the file pointer
-		File inputFile = new File(inputFilePath);
-
-		// Create empty list of packages
-		List<ItemPackage> itemPackages = new ArrayList<>();
-
-		// Scanner is automatically closed at the end of the try statement
-		try (Scanner scanner = new Scanner(inputFile)) {
+	/**
+	 * Passes every {@link ItemPackage} of the file to the consumer as soon as its
+	 * line is parsed.
+	 * 
+	 * @param inputFilePath the input file absolute path
+	 * @param consumer      the consumer of the {@link ItemPackage}
+	 * 
+	 * @throws {@link APIException} when the input file path is invalid or when the
+	 *         file contains invalid data
+	 */
+	public void forEach(String inputFilePath, Consumer<ItemPackage> consumer) {
+		try (Stream<ItemPackage> itemPackages = stream(inputFilePath)) {
+			itemPackages.forEachOrdered(consumer);
+		}
+	}
 
-			// Iterate through the file
-			while (scanner.hasNextLine()) {
-				// Parse and add the test case to the list
-				String inputLine = scanner.nextLine();
-				itemPackages.add(parseLine(inputLine));
-			}
+	/**
+	 * Opens a lazy, ordered {@link Stream} of {@link ItemPackage} from an absolute
+	 * file path. Lines are read and parsed one at a time while the stream is
+	 * consumed.
+	 * 
+	 * The stream holds the open file, so it should be closed after being used,
+	 * for example with a try-with-resources statement.
+	 * 
+	 * @param inputFilePath the input file absolute path
+	 * @return a {@link Stream} of {@link ItemPackage}
+	 * 
+	 * @throws {@link APIException} when the input file path is invalid, or when the
+	 *         file contains invalid data while the stream is consumed
+	 */
+	public Stream<ItemPackage> stream(String inputFilePath) {
+		return lines(inputFilePath).map(this::parseLine);
+	}
 
-		} catch (IOException e) {
+	/**
+	 * Opens a lazy, ordered {@link Stream} of the lines of a file, without parsing
+	 * them, so they can be parsed by other threads with their own
+	 * {@link LineParser}.
+	 * 
+	 * The stream holds the open file, so it should be closed after being used,
+	 * for example with a try-with-resources statement.
+	 * 
+	 * @param inputFilePath the input file absolute path
+	 * @return a {@link Stream} of the input lines
+	 * 
+	 * @throws {@link APIException} when the input file path is invalid, or when the
+	 *         file can not be read while the stream is consumed
+	 */
+	public Stream<String> lines(String inputFilePath) {
+		BufferedReader fileReader;
+		try {
+			fileReader = Files.newBufferedReader(Paths.get(inputFilePath), UTF_8);
+		} catch (IOException | InvalidPathException e) {
 			// Wrap exception
 			throw new APIException("Unable to read the specified test cases file.", e);
 		}
 
-		return itemPackages;
+		Iterator<String> inputLines = new LineIterator(fileReader);
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(inputLines, Spliterator.ORDERED | Spliterator.NONNULL),
+						false)
+				.onClose(() -> close(fileReader));
+	}
+
+	/**
+	 * Closes the file reader of a stream.
+	 * 
+	 * @param fileReader the file reader
+	 */
+	private static void close(BufferedReader fileReader) {
+		try {
+			fileReader.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	/**
-	 * Checks if an input line has the valid format specified in the regular
-	 * expression.
+	 * Checks if an input line has a valid format.
 	 * 
 	 * Package visibility for easy testing.
 	 * 
@@ -82,7 +148,7 @@ public class InputFileReader {
 	 * @return returns true if the line is valid or false if it is not
 	 */
 	boolean isLineValid(String line) {
-		return line.matches(inputLineRegex);
+		return this.lineParser.isValid(line);
 	}
 
 	/**
@@ -91,41 +157,50 @@ public class InputFileReader {
 	 * Package visibility for easy unit testing.
 	 * 
 	 * @param inputLine the input line to be parsed
-	 * @param index     the index of the line being processed
 	 * @return a {@Link ItemPackage}
 	 * 
 	 * @throws APIException when the passed input line is contains invalid data
 	 */
 	ItemPackage parseLine(String inputLine) {
+		return this.lineParser.parse(inputLine);
+	}
 
-		// General validation of the input line
-		if (!isLineValid(inputLine)) {
-			throw new APIException("Error parsing test case: invalid format.");
-		}
-
-		// Sanitize inputLine and split parameters
-		String parameters[] = inputLine.replaceAll("[ €]", "").split(":");
+	/**
+	 * {@link Iterator} that reads the next line of the file only when it is
+	 * requested.
+	 */
+	private static class LineIterator implements Iterator<String> {
 
-		// Parse and check max package weight constraint
-		int maxPackageWeight = Integer.parseInt(parameters[0]);
+		private final BufferedReader fileReader;
+		private String nextLine;
 
-		// Create new list to store the package items
-		List<Item> items = new LinkedList<>();
-		Matcher itemMatcher = itemRegex.matcher(parameters[1]);
+		private LineIterator(BufferedReader fileReader) {
+			this.fileReader = fileReader;
+		}
 
-		while (itemMatcher.find()) {
-			Integer index = Integer.valueOf(itemMatcher.group(1));
-			Float weight = Float.valueOf(itemMatcher.group(2));
-			Float cost = Float.valueOf(itemMatcher.group(3));
+		@Override
+		public boolean hasNext() {
+			if (this.nextLine == null) {
+				try {
+					this.nextLine = this.fileReader.readLine();
+				} catch (IOException e) {
+					// Wrap exception
+					throw new APIException("Unable to read the specified test cases file.", e);
+				}
+			}
+			return this.nextLine != null;
+		}
 
-			// Exclude items that does not fit in the package
-			if (weight <= maxPackageWeight) {
-				items.add(new Item(index, weight, cost));
+		@Override
+		public String next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
 			}
+			String inputLine = this.nextLine;
+			this.nextLine = null;
+			return inputLine;
 		}
 
-		// Return the test case
-		return new ItemPackage(maxPackageWeight, items);
 	}
 
 }
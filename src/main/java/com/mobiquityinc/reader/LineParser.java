@@ -0,0 +1,449 @@
+package com.mobiquityinc.reader;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.metrics.PackingMetrics;
+import com.mobiquityinc.model.ItemPackage;
+import com.mobiquityinc.model.PackageLimits;
+
+/**
+ * Single pass parser of the input lines.
+ *
+ * It accepts and rejects exactly the same lines as the previous regular
+ * expression based parser:
+ * <ul>
+ * <li>The line should start with the package max weight followed by ':' and a
+ * first valid item, like " 10 : (1,20,€20)". Anything can follow.</li>
+ * <li>After removing the spaces and the euro signs, every "(index,weight,cost)"
+ * found between the first and the second ':' is an item, where the index and
+ * the cost are integers and the weight can have decimals.</li>
+ * <li>Items heavier than the package max weight are excluded.</li>
+ * </ul>
+ *
+ * The line is scanned character by character and the values are extracted
+ * straight into primitive buffers which are reused between lines, so no
+ * objects are created while scanning the items. Because of that an instance
+ * should not be shared between threads.
+ *
+ * @author dfjmax
+ *
+ */
+public class LineParser {
+
+	private static final String invalidFormatMessage = "Error parsing test case: invalid format.";
+
+	/**
+	 * The package max weight allowed by the {@link ItemPackage}, heavier packages
+	 * are rejected.
+	 */
+	private final int maxPackageWeight = PackageLimits.configured().getMaxPackageWeight();
+
+	// Characters of the line being parsed
+	private char[] line = new char[128];
+	private int length;
+
+	// Items of the line being parsed
+	private int itemCount;
+	private int[] indexes = new int[16];
+	private float[] weights = new float[16];
+	private float[] costs = new float[16];
+
+	// Weight digits, only used for weights that can not be resolved exactly
+	private final StringBuilder weightDigits = new StringBuilder();
+
+	/**
+	 * Parses an {@link ItemPackage} from an input line.
+	 *
+	 * @param inputLine the input line to be parsed
+	 * @return a {@link ItemPackage}
+	 *
+	 * @throws {@link APIException} when the passed input line contains invalid
+	 *         data
+	 */
+	public ItemPackage parse(String inputLine) {
+		long start = PackingMetrics.enabled ? System.nanoTime() : 0;
+		load(inputLine);
+		ItemPackage itemPackage = parseLoadedLine();
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordParse(System.nanoTime() - start);
+		}
+		return itemPackage;
+	}
+
+	/**
+	 * Parses an {@link ItemPackage} from an UTF-8 encoded input line stored in a
+	 * buffer, without its line terminator.
+	 *
+	 * @param buffer the buffer containing the line
+	 * @param from   the position of the first byte of the line
+	 * @param to     the position after the last byte of the line
+	 * @return a {@link ItemPackage}
+	 *
+	 * @throws {@link APIException} when the passed input line contains invalid
+	 *         data
+	 */
+	public ItemPackage parse(ByteBuffer buffer, int from, int to) {
+		long start = PackingMetrics.enabled ? System.nanoTime() : 0;
+		load(buffer, from, to);
+		ItemPackage itemPackage = parseLoadedLine();
+		if (PackingMetrics.enabled) {
+			PackingMetrics.get().recordParse(System.nanoTime() - start);
+		}
+		return itemPackage;
+	}
+
+	/**
+	 * Checks if an input line has a valid format.
+	 *
+	 * @param inputLine the line to be validated
+	 * @return true if the line is valid or false if it is not
+	 */
+	public boolean isValid(String inputLine) {
+		load(inputLine);
+		return validate() >= 0;
+	}
+
+	/**
+	 * Copies a line to the characters buffer.
+	 *
+	 * @param inputLine the input line
+	 */
+	private void load(String inputLine) {
+		this.length = inputLine.length();
+		if (this.line.length < this.length) {
+			this.line = new char[Math.max(this.length, this.line.length * 2)];
+		}
+		inputLine.getChars(0, this.length, this.line, 0);
+	}
+
+	/**
+	 * Decodes an UTF-8 encoded line to the characters buffer. Only ASCII and the
+	 * euro sign matter to the parser, so other characters are decoded just enough
+	 * to keep the line terminators, supplementary characters are replaced.
+	 *
+	 * @param buffer the buffer containing the line
+	 * @param from   the position of the first byte of the line
+	 * @param to     the position after the last byte of the line
+	 */
+	private void load(ByteBuffer buffer, int from, int to) {
+		if (this.line.length < to - from) {
+			this.line = new char[Math.max(to - from, this.line.length * 2)];
+		}
+		int length = 0;
+		for (int pos = from; pos < to;) {
+			int b = buffer.get(pos++);
+			if (b >= 0) {
+				this.line[length++] = (char) b;
+				continue;
+			}
+			// Number of continuation bytes of a multi byte character
+			int continuation = (b & 0xE0) == 0xC0 ? 1 : (b & 0xF0) == 0xE0 ? 2 : (b & 0xF8) == 0xF0 ? 3 : 0;
+			int c = b & (0x3F >> continuation);
+			for (int i = 0; i < continuation && pos < to; i++) {
+				c = (c << 6) | (buffer.get(pos++) & 0x3F);
+			}
+			this.line[length++] = continuation == 0 || c > Character.MAX_VALUE ? '\uFFFD' : (char) c;
+		}
+		this.length = length;
+	}
+
+	/**
+	 * Parses the line loaded in the characters buffer.
+	 *
+	 * @return a {@link ItemPackage}
+	 */
+	private ItemPackage parseLoadedLine() {
+		int colon = validate();
+		if (colon < 0) {
+			throw new APIException(invalidFormatMessage);
+		}
+
+		// The max weight is followed by spaces only, any other white space is invalid
+		int maxWeight = 0;
+		for (int pos = 0; pos < colon; pos++) {
+			char c = this.line[pos];
+			if (isDigit(c)) {
+				maxWeight = maxWeight * 10 + (c - '0');
+				if (maxWeight > maxPackageWeight) {
+					// Not a valid package weight, and it would overflow at some point
+					throw new APIException("The package can not be built as invalid parameters are being used.");
+				}
+			} else if (c != ' ') {
+				throw new APIException(invalidFormatMessage);
+			}
+		}
+
+		// The items are found between the first and the second ':'
+		int end = colon + 1;
+		while (end < this.length && this.line[end] != ':') {
+			end++;
+		}
+		this.itemCount = 0;
+		for (int pos = colon + 1; pos < end; pos++) {
+			if (this.line[pos] == '(') {
+				int matchEnd = parseItem(pos + 1, end, maxWeight);
+				if (matchEnd > 0) {
+					pos = matchEnd - 1;
+				}
+			}
+		}
+
+		return new ItemPackage(maxWeight, this.indexes, this.weights, this.costs, this.itemCount);
+	}
+
+	/**
+	 * Validates the beginning of the line: max weight, ':' and a first item.
+	 * Everything after the first item is accepted unless it contains a line
+	 * terminator.
+	 *
+	 * @return the position of the first ':' or -1 if the line is not valid
+	 */
+	private int validate() {
+		int pos = skipDigits(0);
+		if (pos == 0) {
+			return -1;
+		}
+		pos = skipWhitespaces(pos);
+		if (!isAt(pos, ':')) {
+			return -1;
+		}
+		int colon = pos;
+
+		// First item
+		pos = skipWhitespaces(pos + 1);
+		if (!isAt(pos, '(')) {
+			return -1;
+		}
+		pos = skipWhitespaces(pos + 1);
+		int indexEnd = skipDigits(pos);
+		if (indexEnd == pos) {
+			return -1;
+		}
+		pos = skipWhitespaces(indexEnd);
+		if (!isAt(pos, ',')) {
+			return -1;
+		}
+		pos = skipNumber(skipWhitespaces(pos + 1));
+		if (pos < 0) {
+			return -1;
+		}
+		pos = skipWhitespaces(pos);
+		if (!isAt(pos, ',')) {
+			return -1;
+		}
+		pos = skipWhitespaces(pos + 1);
+		if (!isAt(pos, '€')) {
+			return -1;
+		}
+		pos = skipNumber(pos + 1);
+		if (pos < 0) {
+			return -1;
+		}
+		pos = skipWhitespaces(pos);
+		if (!isAt(pos, ')')) {
+			return -1;
+		}
+
+		// Rest of the line
+		for (pos++; pos < this.length; pos++) {
+			if (isLineTerminator(this.line[pos])) {
+				return -1;
+			}
+		}
+		return colon;
+	}
+
+	/**
+	 * Parses an "index,weight,cost)" item ignoring spaces and euro signs, and adds
+	 * it to the items when it fits in the package.
+	 *
+	 * @param pos       the position after the opening parenthesis
+	 * @param end       the position where the items section ends
+	 * @param maxWeight the package max weight
+	 * @return the position after the closing parenthesis, or -1 when there is no
+	 *         item at the given position
+	 */
+	private int parseItem(int pos, int end, int maxWeight) {
+		// Index
+		long index = 0;
+		int digits = 0;
+		for (pos = visible(pos, end); pos < end && isDigit(this.line[pos]); pos = visible(pos + 1, end)) {
+			index = Math.min(index * 10 + (this.line[pos] - '0'), Integer.MAX_VALUE + 1L);
+			digits++;
+		}
+		if (digits == 0 || !isAt(pos, ',')) {
+			return -1;
+		}
+
+		// Weight: integer part, and the first four decimals which are enough to
+		// resolve it exactly in most cases
+		int weightStart = pos + 1;
+		long integerPart = 0;
+		digits = 0;
+		for (pos = visible(pos + 1, end); pos < end && isDigit(this.line[pos]); pos = visible(pos + 1, end)) {
+			integerPart = Math.min(integerPart * 10 + (this.line[pos] - '0'), Integer.MAX_VALUE);
+			digits++;
+		}
+		if (digits == 0) {
+			return -1;
+		}
+		int fraction = 0;
+		int fractionDigits = 0;
+		boolean fractionIsZero = true;
+		if (isAt(pos, '.')) {
+			for (pos = visible(pos + 1, end); pos < end && isDigit(this.line[pos]); pos = visible(pos + 1, end)) {
+				if (fractionDigits < 4) {
+					fraction = fraction * 10 + (this.line[pos] - '0');
+				}
+				fractionIsZero &= this.line[pos] == '0';
+				fractionDigits++;
+			}
+		}
+		if (!isAt(pos, ',')) {
+			return -1;
+		}
+		int weightEnd = pos;
+
+		// Cost
+		long cost = 0;
+		digits = 0;
+		for (pos = visible(pos + 1, end); pos < end && isDigit(this.line[pos]); pos = visible(pos + 1, end)) {
+			cost = Math.min(cost * 10 + (this.line[pos] - '0'), Integer.MAX_VALUE);
+			digits++;
+		}
+		if (digits == 0 || !isAt(pos, ')')) {
+			return -1;
+		}
+
+		// It is an item, from here on invalid values make the whole line invalid
+		if (index > Integer.MAX_VALUE) {
+			throw new APIException(invalidFormatMessage);
+		}
+
+		/*
+		 * Decide if the item fits in the package and its integer weight. Weights with
+		 * an integer part below 1000 and decimals at least 0.0001 away from an integer
+		 * can not be rounded to a different integer as a float, other ones are parsed
+		 * as a float like the previous parser did. Over 1000 a float has too few
+		 * decimals, for example 9999999.5 is rounded to 10000000.
+		 */
+		float weight;
+		boolean fits;
+		for (int i = fractionDigits; i < 4; i++) {
+			fraction *= 10;
+		}
+		if (integerPart > maxWeight) {
+			return pos + 1;
+		} else if (fractionIsZero) {
+			weight = integerPart;
+			fits = true;
+		} else if (integerPart < 1000 && fraction != 0 && fraction != 9999) {
+			weight = integerPart;
+			fits = integerPart < maxWeight;
+		} else {
+			weight = parseWeight(weightStart, weightEnd);
+			fits = weight <= maxWeight;
+		}
+		if (fits) {
+			addItem((int) index, weight, cost);
+		}
+		return pos + 1;
+	}
+
+	/**
+	 * Parses a weight as a float, ignoring spaces and euro signs.
+	 *
+	 * @param start the position where the weight starts
+	 * @param end   the position where the weight ends
+	 * @return the weight
+	 */
+	private float parseWeight(int start, int end) {
+		this.weightDigits.setLength(0);
+		for (int pos = visible(start, end); pos < end; pos = visible(pos + 1, end)) {
+			this.weightDigits.append(this.line[pos]);
+		}
+		return Float.parseFloat(this.weightDigits.toString());
+	}
+
+	/**
+	 * Adds an item to the items buffers.
+	 *
+	 * @param index  the item index
+	 * @param weight the item weight
+	 * @param cost   the item cost
+	 */
+	private void addItem(int index, float weight, long cost) {
+		if (this.itemCount == this.indexes.length) {
+			int capacity = this.itemCount * 2;
+			this.indexes = Arrays.copyOf(this.indexes, capacity);
+			this.weights = Arrays.copyOf(this.weights, capacity);
+			this.costs = Arrays.copyOf(this.costs, capacity);
+		}
+		this.indexes[this.itemCount] = index;
+		this.weights[this.itemCount] = weight;
+		this.costs[this.itemCount] = cost;
+		this.itemCount++;
+	}
+
+	/**
+	 * Skips the spaces and euro signs, which are ignored inside the items.
+	 *
+	 * @param pos the current position
+	 * @param end the position where the items section ends
+	 * @return the position of the next character that is not ignored
+	 */
+	private int visible(int pos, int end) {
+		while (pos < end && (this.line[pos] == ' ' || this.line[pos] == '€')) {
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Skips a number with optional decimals, like "20", "20.5" or ".5".
+	 *
+	 * @param pos the current position
+	 * @return the position after the number, or -1 if there is no number
+	 */
+	private int skipNumber(int pos) {
+		int integerEnd = skipDigits(pos);
+		if (isAt(integerEnd, '.')) {
+			int fractionEnd = skipDigits(integerEnd + 1);
+			return fractionEnd > integerEnd + 1 ? fractionEnd : -1;
+		}
+		return integerEnd > pos ? integerEnd : -1;
+	}
+
+	private int skipDigits(int pos) {
+		while (pos < this.length && isDigit(this.line[pos])) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private int skipWhitespaces(int pos) {
+		while (pos < this.length && isWhitespace(this.line[pos])) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private boolean isAt(int pos, char c) {
+		return pos < this.length && this.line[pos] == c;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+}
@@ -0,0 +1,221 @@
+package com.mobiquityinc.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * This class reads very large input files by memory mapping them instead of
+ * decoding them with a reader.
+ *
+ * The file is split in {@link Chunk}s which end right after a new line, so
+ * every chunk contains complete lines and can be parsed independently, for
+ * example on a different thread. Chunks are mapped only when they are parsed.
+ *
+ * The reader holds the open file, so it should be closed after being used, for
+ * example with a try-with-resources statement.
+ *
+ * @author dfjmax
+ *
+ */
+public class MappedInputFileReader implements Closeable {
+
+	/**
+	 * Default chunk size, 8MB.
+	 */
+	public static final int defaultChunkSize = 8 * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final int chunkSize;
+
+	/**
+	 * Opens an input file with the default chunk size.
+	 *
+	 * @param inputFilePath the input file absolute path
+	 *
+	 * @throws {@link APIException} when the input file path is invalid
+	 */
+	public MappedInputFileReader(String inputFilePath) {
+		this(inputFilePath, defaultChunkSize);
+	}
+
+	/**
+	 * Opens an input file.
+	 *
+	 * @param inputFilePath the input file absolute path
+	 * @param chunkSize     the approximate size in bytes of each chunk, chunks are
+	 *                      extended to the end of their last line
+	 *
+	 * @throws {@link APIException} when the input file path or the chunk size are
+	 *         invalid
+	 */
+	public MappedInputFileReader(String inputFilePath, int chunkSize) {
+		super();
+		if (chunkSize < 1) {
+			throw new APIException("The chunk size should be a positive number.");
+		}
+		try {
+			this.channel = FileChannel.open(Paths.get(inputFilePath), StandardOpenOption.READ);
+			this.fileSize = this.channel.size();
+		} catch (IOException | InvalidPathException e) {
+			// Wrap exception
+			throw new APIException("Unable to read the specified test cases file.", e);
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Gets an {@link Iterator} over the file chunks, in file order. Chunk
+	 * boundaries are found while iterating.
+	 *
+	 * @return the file chunks
+	 */
+	public Iterator<Chunk> chunks() {
+		return new Iterator<Chunk>() {
+
+			private long start = 0;
+
+			@Override
+			public boolean hasNext() {
+				return this.start < fileSize;
+			}
+
+			@Override
+			public Chunk next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				long end = endOfLine(Math.min(this.start + chunkSize, fileSize));
+				Chunk chunk = new Chunk(this.start, end);
+				this.start = end;
+				return chunk;
+			}
+
+		};
+	}
+
+	/**
+	 * Finds the end of the line containing the given position.
+	 *
+	 * @param position the file position
+	 * @return the position after the next new line, or the file size
+	 */
+	private long endOfLine(long position) {
+		if (position >= this.fileSize || position == 0) {
+			return position;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		try {
+			// The new line could be the byte before the position
+			for (long pos = position - 1; pos < this.fileSize;) {
+				buffer.clear();
+				int read = this.channel.read(buffer, pos);
+				for (int i = 0; i < read; i++) {
+					if (buffer.get(i) == '\n') {
+						return pos + i + 1;
+					}
+				}
+				pos += read;
+			}
+		} catch (IOException e) {
+			throw new APIException("Unable to read the specified test cases file.", e);
+		}
+		return this.fileSize;
+	}
+
+	@Override
+	public void close() {
+		try {
+			this.channel.close();
+		} catch (IOException e) {
+			throw new APIException("Unable to close the specified test cases file.", e);
+		}
+	}
+
+	/**
+	 * A range of the file containing complete lines.
+	 */
+	public class Chunk {
+
+		private final long start;
+		private final long end;
+
+		private Chunk(long start, long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * Gets the position of the first byte of the chunk.
+		 *
+		 * @return the chunk start
+		 */
+		public long getStart() {
+			return this.start;
+		}
+
+		/**
+		 * Gets the position after the last byte of the chunk.
+		 *
+		 * @return the chunk end
+		 */
+		public long getEnd() {
+			return this.end;
+		}
+
+		/**
+		 * Maps the chunk and passes an {@link ItemPackage} for every line to the
+		 * consumer, in file order. Lines end with "\n", "\r\n" or "\r".
+		 *
+		 * @param consumer the consumer of the {@link ItemPackage}
+		 *
+		 * @throws {@link APIException} when the chunk can not be read or contains
+		 *         invalid data
+		 */
+		public void forEach(Consumer<ItemPackage> consumer) {
+			if (this.end - this.start > Integer.MAX_VALUE) {
+				throw new APIException("Unable to read the specified test cases file: line too long.");
+			}
+			MappedByteBuffer buffer;
+			try {
+				buffer = channel.map(MapMode.READ_ONLY, this.start, this.end - this.start);
+			} catch (IOException e) {
+				throw new APIException("Unable to read the specified test cases file.", e);
+			}
+
+			LineParser lineParser = new LineParser();
+			int size = buffer.limit();
+			int lineStart = 0;
+			for (int pos = 0; pos < size; pos++) {
+				byte b = buffer.get(pos);
+				if (b == '\n' || b == '\r') {
+					consumer.accept(lineParser.parse(buffer, lineStart, pos));
+					// "\r\n" is a single line terminator
+					if (b == '\r' && pos + 1 < size && buffer.get(pos + 1) == '\n') {
+						pos++;
+					}
+					lineStart = pos + 1;
+				}
+			}
+			// Last line of the file without line terminator
+			if (lineStart < size) {
+				consumer.accept(lineParser.parse(buffer, lineStart, size));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,398 @@
+package com.mobiquityinc.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.packer.Packer;
+
+/**
+ * Long running packing service, so small and frequent jobs do not pay the JVM
+ * start up and warm up every time.
+ * 
+ * The server listens on a local TCP port. Every line received is a test case,
+ * in the same format as the input files, and is answered with a line in the
+ * same format as the {@link Packer} output, or with a line starting with
+ * {@value #errorPrefix} when the test case is invalid. Clients can send many
+ * lines without waiting for the answers: lines are packed in parallel by the
+ * solver threads and answered in the same order they were received.
+ * 
+ * A single thread accepts connections, reads and writes with non-blocking
+ * channels. A connection with {@value #maxPendingLines} lines waiting for their
+ * answers, or with {@value #maxPendingOutputBytes} bytes of answers the client
+ * did not read yet, is not read until some of them are written, so clients that
+ * do not read their answers can not exhaust the memory. Lines longer than
+ * {@value #maxLineLength} bytes are answered with an error.
+ * 
+ * @author dfjmax
+ * 
+ */
+public class PackingServer implements Closeable {
+
+	/**
+	 * Prefix of the answers to invalid test cases, followed by the error message.
+	 */
+	public static final String errorPrefix = "ERROR: ";
+
+	/**
+	 * Max number of lines of a connection waiting for their answers.
+	 */
+	public static final int maxPendingLines = 1024;
+
+	/**
+	 * Max bytes of answers of a connection waiting to be written, once reached
+	 * the connection is not read and its answers are not moved to the output.
+	 */
+	public static final int maxPendingOutputBytes = 1024 * 1024;
+
+	/**
+	 * Max bytes of a line, longer lines are answered with an error.
+	 */
+	public static final int maxLineLength = 1024 * 1024;
+
+	private static final int bufferSize = 64 * 1024;
+
+	private final ServerSocketChannel serverChannel;
+	private final Selector selector;
+	private final ExecutorService solverThreads;
+	private final Thread selectorThread;
+
+	// Connections with answers ready to be written
+	private final Queue<Connection> readyConnections = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a server listening on a local port. Connections are not accepted
+	 * until the server is started.
+	 * 
+	 * @param port          the local port, 0 to use any free port
+	 * @param solverThreads the executor that packs the received lines, it is not
+	 *                      shut down when the server is closed
+	 * 
+	 * @throws {@link APIException} when the port can not be opened
+	 */
+	public PackingServer(int port, ExecutorService solverThreads) {
+		super();
+		try {
+			this.selector = Selector.open();
+			this.serverChannel = ServerSocketChannel.open();
+			this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+			this.serverChannel.configureBlocking(false);
+			this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			// Wrap exception
+			throw new APIException("Unable to open the server port.", e);
+		}
+		this.solverThreads = solverThreads;
+		this.selectorThread = new Thread(this::run, "packing-server");
+	}
+
+	/**
+	 * Starts accepting connections.
+	 */
+	public void start() {
+		this.selectorThread.start();
+	}
+
+	/**
+	 * Gets the port the server is listening on.
+	 * 
+	 * @return the local port
+	 */
+	public int getPort() {
+		return this.serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Stops the server and closes all the connections, answers not written yet
+	 * are lost.
+	 */
+	@Override
+	public void close() {
+		this.running = false;
+		this.selector.wakeup();
+		if (this.selectorThread.isAlive() && Thread.currentThread() != this.selectorThread) {
+			try {
+				this.selectorThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		closeChannels();
+	}
+
+	/**
+	 * Selector loop, runs until the server is closed.
+	 */
+	private void run() {
+		try {
+			while (this.running) {
+				this.selector.select();
+				Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) {
+						continue;
+					}
+					if (key.isAcceptable()) {
+						accept();
+					} else {
+						Connection connection = (Connection) key.attachment();
+						try {
+							if (key.isReadable()) {
+								connection.read();
+							}
+							if (key.isValid() && key.isWritable()) {
+								connection.write();
+							}
+						} catch (IOException e) {
+							connection.close();
+						}
+					}
+				}
+				// Answers completed by the solver threads
+				Connection connection;
+				while ((connection = this.readyConnections.poll()) != null) {
+					connection.ready.set(false);
+					try {
+						connection.write();
+					} catch (IOException e) {
+						connection.close();
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new APIException("Unable to run the server.", e);
+		} finally {
+			closeChannels();
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel = this.serverChannel.accept();
+		if (channel == null) {
+			return;
+		}
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true);
+		Connection connection = new Connection(channel);
+		connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+	}
+
+	private void closeChannels() {
+		try {
+			if (this.selector.isOpen()) {
+				for (SelectionKey key : this.selector.keys()) {
+					key.channel().close();
+				}
+				this.selector.close();
+			}
+			this.serverChannel.close();
+		} catch (IOException e) {
+			throw new APIException("Unable to close the server.", e);
+		}
+	}
+
+	/**
+	 * State of a client connection, only used by the selector thread except for
+	 * the completion of its answers.
+	 */
+	private final class Connection {
+
+		private final SocketChannel channel;
+		private SelectionKey key;
+
+		private final ByteBuffer input = ByteBuffer.allocate(bufferSize);
+		private ByteBuffer output = ByteBuffer.allocate(bufferSize);
+
+		// Bytes of the line being received, the rest of a too long line is skipped
+		private byte[] line = new byte[256];
+		private int lineLength = 0;
+		private boolean lineTooLong = false;
+
+		// Answers in the same order as the lines
+		private final ArrayDeque<CompletableFuture<String>> pendingAnswers = new ArrayDeque<>();
+		private final AtomicBoolean ready = new AtomicBoolean();
+		private boolean endOfInput = false;
+
+		private Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Reads the available bytes and submits the complete lines.
+		 */
+		private void read() throws IOException {
+			if (this.channel.read(this.input) < 0) {
+				this.endOfInput = true;
+			}
+			submitLines();
+			updateInterest();
+		}
+
+		/**
+		 * Submits the complete lines received, stopping once
+		 * {@value PackingServer#maxPendingLines} lines wait for their answers. The
+		 * bytes left are kept in the input buffer until answers are written.
+		 */
+		private void submitLines() {
+			this.input.flip();
+			while (this.input.hasRemaining() && this.pendingAnswers.size() < maxPendingLines) {
+				byte b = this.input.get();
+				if (b == '\n') {
+					submitLine();
+				} else if (this.lineTooLong) {
+					continue;
+				} else if (this.lineLength == maxLineLength) {
+					this.lineTooLong = true;
+					this.lineLength = 0;
+				} else {
+					if (this.lineLength == this.line.length) {
+						this.line = Arrays.copyOf(this.line, Math.min(this.lineLength * 2, maxLineLength));
+					}
+					this.line[this.lineLength++] = b;
+				}
+			}
+			this.input.compact();
+			// Last line without line terminator
+			if (this.endOfInput && this.input.position() == 0 && (this.lineLength > 0 || this.lineTooLong)
+					&& this.pendingAnswers.size() < maxPendingLines) {
+				submitLine();
+			}
+		}
+
+		private void submitLine() {
+			CompletableFuture<String> answer;
+			if (this.lineTooLong) {
+				this.lineTooLong = false;
+				answer = CompletableFuture
+						.completedFuture(errorPrefix + "The line is longer than " + maxLineLength + " bytes.");
+			} else {
+				int length = this.lineLength;
+				if (length > 0 && this.line[length - 1] == '\r') {
+					length--;
+				}
+				String inputLine = new String(this.line, 0, length, UTF_8);
+				this.lineLength = 0;
+				answer = CompletableFuture.supplyAsync(() -> answer(inputLine), solverThreads);
+			}
+			this.pendingAnswers.add(answer);
+			answer.whenComplete((result, e) -> {
+				// Several answers completed at once wake the selector up only once
+				if (this.ready.compareAndSet(false, true)) {
+					readyConnections.add(this);
+					selector.wakeup();
+				}
+			});
+		}
+
+		/**
+		 * Writes the completed answers, in order, until the first one still being
+		 * packed or until {@value PackingServer#maxPendingOutputBytes} bytes wait to
+		 * be written, and submits the lines received while there were too many
+		 * pending lines.
+		 */
+		private void write() throws IOException {
+			if (!this.channel.isOpen()) {
+				return;
+			}
+			CompletableFuture<String> answer;
+			int answersWritten = 0;
+			while ((answer = this.pendingAnswers.peek()) != null && answer.isDone()
+					&& this.output.position() < maxPendingOutputBytes) {
+				answersWritten++;
+				this.pendingAnswers.poll();
+				String result;
+				try {
+					result = answer.join();
+				} catch (CompletionException e) {
+					result = errorPrefix + e.getCause().getMessage();
+				}
+				byte[] bytes = (result + "\n").getBytes(UTF_8);
+				if (this.output.remaining() < bytes.length) {
+					ByteBuffer larger = ByteBuffer
+							.allocate(Math.max(this.output.capacity() * 2, this.output.position() + bytes.length));
+					this.output.flip();
+					larger.put(this.output);
+					this.output = larger;
+				}
+				this.output.put(bytes);
+			}
+			this.output.flip();
+			this.channel.write(this.output);
+			this.output.compact();
+			if (answersWritten > 0) {
+				submitLines();
+			}
+			updateInterest();
+		}
+
+		/**
+		 * Reads while there is room for more pending lines and output, and waits for
+		 * the socket to be writable while there is output left.
+		 */
+		private void updateInterest() throws IOException {
+			boolean outputLeft = this.output.position() > 0;
+			boolean inputLeft = this.input.position() > 0 || this.lineLength > 0 || this.lineTooLong;
+			if (this.endOfInput && this.pendingAnswers.isEmpty() && !outputLeft && !inputLeft) {
+				close();
+				return;
+			}
+			int interest = 0;
+			if (!this.endOfInput && this.pendingAnswers.size() < maxPendingLines
+					&& this.output.position() < maxPendingOutputBytes && this.input.hasRemaining()) {
+				interest |= SelectionKey.OP_READ;
+			}
+			if (outputLeft) {
+				interest |= SelectionKey.OP_WRITE;
+			}
+			this.key.interestOps(interest);
+		}
+
+		private void close() {
+			this.key.cancel();
+			for (CompletableFuture<String> answer : this.pendingAnswers) {
+				answer.cancel(false);
+			}
+			this.pendingAnswers.clear();
+			try {
+				this.channel.close();
+			} catch (IOException e) {
+				// Nothing else to do with a broken connection
+			}
+		}
+
+	}
+
+	/**
+	 * Packs a line, invalid lines are answered with the error message.
+	 */
+	private static String answer(String inputLine) {
+		try {
+			return Packer.packLine(inputLine);
+		} catch (APIException e) {
+			return errorPrefix + e.getMessage();
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.mobiquityinc.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test suite for the {@link LatencyHistogram} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class LatencyHistogramUnitTest {
+
+	@Test
+	public void getPercentile_withoutLatencies_shouldReturnZero() {
+		assertEquals(0, new LatencyHistogram().getPercentile(99));
+	}
+
+	@Test
+	public void getPercentile_withSmallLatencies_shouldBeExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int nanos = 1; nanos <= 10; nanos++) {
+			histogram.record(nanos);
+		}
+		assertEquals(10, histogram.getCount());
+		assertEquals(5, histogram.getPercentile(50));
+		assertEquals(10, histogram.getPercentile(100));
+	}
+
+	@Test
+	public void getPercentile_withLargeLatencies_shouldBeWithinThePrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long nanos = 1; nanos <= 100000; nanos++) {
+			histogram.record(nanos * 1000);
+		}
+		assertWithinPrecision(50000000, histogram.getPercentile(50));
+		assertWithinPrecision(99000000, histogram.getPercentile(99));
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue(actual + " should be close to " + expected,
+				actual >= expected && actual <= expected + expected / 8);
+	}
+
+}
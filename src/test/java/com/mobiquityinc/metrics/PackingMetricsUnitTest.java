@@ -0,0 +1,54 @@
+package com.mobiquityinc.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test suite for the {@link PackingMetrics} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class PackingMetricsUnitTest {
+
+	@Test
+	public void getReport_withRecordedPackages_shouldIncludeEveryMetric() {
+		PackingMetrics metrics = new PackingMetrics();
+		metrics.recordParse(1000);
+		metrics.recordEmptyPackage();
+		metrics.recordPackage(100, 0);
+		metrics.recordAllItemsFitPackage();
+		metrics.recordPackage(200, 0);
+		metrics.recordSolvedPackage("auto", 3000);
+		metrics.recordSolver("compact", 2500);
+		metrics.recordDynamicProgrammingCells(5000);
+		metrics.recordSearchNodes(70);
+		metrics.recordExpiredBudget();
+		metrics.recordPackage(4000, 900);
+
+		assertEquals(3, metrics.getPackageCount());
+		assertEquals(1, metrics.getEmptyPackageCount());
+		assertEquals(1, metrics.getAllItemsFitPackageCount());
+		assertEquals(1, metrics.getSolvedPackageCount());
+		assertEquals(Long.valueOf(2500), metrics.getSolverNanos().get("compact"));
+		assertEquals(Long.valueOf(4000), metrics.getPackageLatencyPercentiles().get("max"));
+
+		String report = metrics.getReport();
+		assertTrue(report, report.startsWith("{\"packages\":{\"total\":3,\"empty\":1,\"allItemsFit\":1,\"solved\":1}"));
+		assertTrue(report, report.contains("\"expiredBudgets\":1"));
+		assertTrue(report, report.contains("\"dynamicProgrammingCells\":5000"));
+		assertTrue(report, report.contains("\"searchNodes\":70"));
+		assertTrue(report, report.contains("\"allocatedBytesPerPackage\":300"));
+		assertTrue(report, report.contains("\"parse\":{\"count\":1,\"totalNanos\":1000"));
+		assertTrue(report, report.contains("\"solvers\":{\"auto\":{\"count\":1,\"totalNanos\":3000"));
+		assertTrue(report, report.contains("\"compact\":{\"count\":1,\"totalNanos\":2500"));
+	}
+
+	@Test
+	public void enabled_readOnce_shouldFollowTheSystemProperty() {
+		assertEquals(Boolean.getBoolean(PackingMetrics.enabledProperty), PackingMetrics.enabled);
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.mobiquityinc.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Test suite for the {@link PackageLimits} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class PackageLimitsUnitTest {
+
+	@After
+	public void tearDown() {
+		System.clearProperty(PackageLimits.profileProperty);
+		PackageLimits.reload();
+	}
+
+	@Test
+	public void fromProperties_withoutProperties_shouldReturnStandardLimits() {
+		PackageLimits limits = PackageLimits.fromProperties(new Properties());
+		assertEquals(100, limits.getMaxPackageWeight());
+		assertEquals(100, limits.getMaxItemWeight());
+		assertEquals(100, limits.getMaxItemCost());
+	}
+
+	@Test
+	public void fromProperties_withLargeProfile_shouldReturnLargeLimits() {
+		Properties properties = new Properties();
+		properties.setProperty(PackageLimits.profileProperty, PackageLimits.largeProfile);
+		PackageLimits limits = PackageLimits.fromProperties(properties);
+		assertEquals(PackageLimits.maxLimit, limits.getMaxPackageWeight());
+		assertEquals(PackageLimits.maxLimit, limits.getMaxItemWeight());
+		assertEquals(1_000_000, limits.getMaxItemCost());
+	}
+
+	@Test
+	public void fromProperties_withSingleLimit_shouldOverrideProfile() {
+		Properties properties = new Properties();
+		properties.setProperty(PackageLimits.maxPackageWeightProperty, "5000");
+		PackageLimits limits = PackageLimits.fromProperties(properties);
+		assertEquals(5000, limits.getMaxPackageWeight());
+		assertEquals(100, limits.getMaxItemWeight());
+	}
+
+	@Test(expected = APIException.class)
+	public void fromProperties_withUnknownProfile_shouldThrowException() {
+		Properties properties = new Properties();
+		properties.setProperty(PackageLimits.profileProperty, "huge");
+		PackageLimits.fromProperties(properties);
+	}
+
+	@Test(expected = APIException.class)
+	public void fromProperties_withInvalidLimit_shouldThrowException() {
+		Properties properties = new Properties();
+		properties.setProperty(PackageLimits.maxItemCostProperty, "many");
+		PackageLimits.fromProperties(properties);
+	}
+
+	@Test(expected = APIException.class)
+	public void constructor_withLimitOverMax_shouldThrowException() {
+		new PackageLimits(PackageLimits.maxLimit + 1, 100, 100);
+	}
+
+	@Test(expected = APIException.class)
+	public void itemPackage_withStandardLimitsAndLargeMaxWeight_shouldThrowException() {
+		new ItemPackage(101, new ArrayList<>());
+	}
+
+	@Test
+	public void itemPackage_withLargeLimits_shouldSortHeavyItems() {
+		System.setProperty(PackageLimits.profileProperty, PackageLimits.largeProfile);
+		PackageLimits.reload();
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 900_000, 5000), new Item(2, 200, 20),
+				new Item(3, 900_000, 4000), new Item(4, 250_000, 3000)));
+		ItemPackage itemPackage = new ItemPackage(1_000_000, items);
+		assertEquals(100_000_000, itemPackage.getMaxWeight());
+		assertEquals(2, itemPackage.getIndex(0));
+		assertEquals(4, itemPackage.getIndex(1));
+		assertEquals(3, itemPackage.getIndex(2));
+		assertEquals(1, itemPackage.getIndex(3));
+		assertEquals(90_000_000, itemPackage.getWeight(3));
+	}
+
+}
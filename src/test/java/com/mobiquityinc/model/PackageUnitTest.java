@@ -2,7 +2,9 @@ package com.mobiquityinc.model;
 
 import static java.lang.Double.valueOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import java.util.Arrays;
 
@@ -47,4 +49,55 @@ public class PackageUnitTest {
 		assertEquals("Sum should of the weights should be 3000", valueOf(3000), itemPackage.getTotalItemsWeight());
 	}
 
+	@Test
+	public void newItemPackage_withUnsortedItems_shouldSortByWeightAndCost() {
+		ItemPackage itemPackage = new ItemPackage(50, Arrays.asList(new Item(1, 30, 5), new Item(2, 10, 9),
+				new Item(3, 30, 2), new Item(4, 10, 9)));
+		assertEquals(4, itemPackage.getItemCount());
+		// Items with the same weight and cost keep their order
+		int[] expectedIndexes = { 2, 4, 3, 1 };
+		for (int position = 0; position < expectedIndexes.length; position++) {
+			assertEquals(expectedIndexes[position], itemPackage.getIndex(position));
+			assertEquals(expectedIndexes[position], itemPackage.getItems().get(position).getIndex());
+		}
+		assertEquals(3000, itemPackage.getWeight(2));
+		assertEquals(2, itemPackage.getCost(2), 0);
+		assertEquals(8000, itemPackage.getTotalWeight());
+	}
+
+	@Test
+	public void newItemPackage_withParsedValues_shouldCopyTheArrays() {
+		int[] indexes = { 1, 2, 3 };
+		float[] weights = { 40.5f, 12.25f, 30 };
+		float[] costs = { 10, 20, 30 };
+		ItemPackage itemPackage = new ItemPackage(50, indexes, weights, costs, 2);
+		indexes[1] = 9;
+		assertEquals(2, itemPackage.getItemCount());
+		assertEquals(2, itemPackage.getIndex(0));
+		assertEquals(1200, itemPackage.getWeight(0));
+		assertEquals(4000, itemPackage.getWeight(1));
+	}
+
+	@Test(expected = APIException.class)
+	public void newItemPackage_withInvalidParsedCost_shouldThrowException() {
+		new ItemPackage(50, new int[] { 1 }, new float[] { 10 }, new float[] { 101 }, 1);
+	}
+
+	@Test
+	public void getItem_calledTwice_shouldReturnTheSameInstance() {
+		ItemPackage itemPackage = new ItemPackage(50, Arrays.asList(testItem1, testItem2));
+		assertSame(itemPackage.getItem(1), itemPackage.getItem(1));
+		assertSame(itemPackage.getItem(1), itemPackage.getItems().get(1));
+	}
+
+	@Test
+	public void getPositions_withSelectedItems_shouldMarkTheirPositions() {
+		// Items with the same weight and cost are different items
+		ItemPackage itemPackage = new ItemPackage(50, Arrays.asList(new Item(1, 30, 5), new Item(2, 10, 9),
+				new Item(3, 30, 2), new Item(4, 10, 9)));
+		assertArrayEquals(new boolean[] { false, true, true, false },
+				itemPackage.getPositions(Arrays.asList(itemPackage.getItem(2), itemPackage.getItem(1))));
+		assertArrayEquals(new boolean[4], itemPackage.getPositions(Arrays.asList()));
+	}
+
 }
@@ -0,0 +1,86 @@
+package com.mobiquityinc.packer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Test suite for the {@link OrderedBatchProcessor} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class OrderedBatchProcessorUnitTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		this.executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void process_withSlowEarlyInputs_shouldKeepInputOrder() {
+		List<Integer> inputs = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		List<String> results = new ArrayList<>();
+		new OrderedBatchProcessor<Integer>(executor, 7, 3).process(inputs.iterator(), input -> {
+			// Make the first inputs finish last
+			if (input < 10) {
+				sleep(5);
+			}
+			return input.toString();
+		}, results::add);
+		assertEquals(inputs.stream().map(String::valueOf).collect(Collectors.toList()), results);
+	}
+
+	@Test
+	public void processBatches_withBatchTask_shouldKeepInputOrder() {
+		List<Integer> inputs = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		List<String> results = new ArrayList<>();
+		new OrderedBatchProcessor<Integer>(executor, 7, 3).processBatches(inputs.iterator(),
+				batch -> batch.stream().map(String::valueOf).toArray(String[]::new), results::add);
+		assertEquals(inputs.stream().map(String::valueOf).collect(Collectors.toList()), results);
+	}
+
+	@Test(expected = APIException.class)
+	public void process_withFailingTask_shouldThrowApiException() {
+		List<Integer> inputs = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		new OrderedBatchProcessor<Integer>(executor, 10, 2).process(inputs.iterator(), input -> {
+			if (input == 50) {
+				throw new APIException("Invalid input");
+			}
+			return input.toString();
+		}, result -> {
+		});
+	}
+
+	@Test(expected = APIException.class)
+	public void newOrderedBatchProcessor_withInvalidBatchSize_shouldThrowException() {
+		new OrderedBatchProcessor<Integer>(executor, 0, 2);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
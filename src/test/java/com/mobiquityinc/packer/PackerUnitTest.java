@@ -1,15 +1,26 @@
 package com.mobiquityinc.packer;
 
 import static com.mobiquityinc.packer.Packer.getItemsForPackage;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.mobiquityinc.exception.APIException;
 import com.mobiquityinc.model.Item;
 import com.mobiquityinc.model.ItemPackage;
 
@@ -54,4 +65,137 @@ public class PackerUnitTest {
 		assertEquals("Result is correct", expectedResult, result);
 	}
 
+	@Test
+	public void pack_inParallel_shouldReturnResultsInInputOrder() {
+		String result = Packer.pack(testCasesFile.getAbsolutePath(), 4);
+		String expectedResult = "\n4\n-\n2,7\n8,9";
+		assertEquals("Result is correct", expectedResult, result);
+	}
+
+	@Test
+	public void packMappedFile_withCompleteTestCasesFile_shouldReturnExpectedResults() {
+		String result = Packer.packMappedFile(testCasesFile.getAbsolutePath(), 2);
+		String expectedResult = "\n4\n-\n2,7\n8,9";
+		assertEquals("Result is correct", expectedResult, result);
+	}
+
+	@Test(expected = APIException.class)
+	public void pack_withInvalidParallelism_shouldThrowException() {
+		Packer.pack(testCasesFile.getAbsolutePath(), 0);
+	}
+
+	@Test
+	public void pack_toWriter_shouldWriteExpectedResults() {
+		StringWriter output = new StringWriter();
+		Packer.pack(testCasesFile.getAbsolutePath(), output);
+		assertEquals("Result is correct", "\n4\n-\n2,7\n8,9", output.toString());
+	}
+
+	@Test
+	public void pack_toOutputStream_shouldWriteExpectedResults() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Packer.pack(testCasesFile.getAbsolutePath(), output);
+		assertEquals("Result is correct", "\n4\n-\n2,7\n8,9", new String(output.toByteArray(), UTF_8));
+	}
+
+	@Test
+	public void pack_inParallelToWriter_shouldWriteResultsInInputOrder() {
+		StringWriter output = new StringWriter();
+		Packer.pack(testCasesFile.getAbsolutePath(), 4, output);
+		assertEquals("Result is correct", "\n4\n-\n2,7\n8,9", output.toString());
+	}
+
+	@Test
+	public void packMappedFile_toOutputStream_shouldWriteExpectedResults() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Packer.packMappedFile(testCasesFile.getAbsolutePath(), 2, output);
+		assertEquals("Result is correct", "\n4\n-\n2,7\n8,9", new String(output.toByteArray(), UTF_8));
+	}
+
+	@Test(expected = APIException.class)
+	public void pack_inParallelToFailingWriter_shouldThrowException() {
+		Packer.pack(testCasesFile.getAbsolutePath(), 2, new Writer() {
+
+			@Override
+			public void write(char[] buffer, int offset, int length) throws IOException {
+				throw new IOException("Closed");
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+
+		});
+	}
+
+	@Test
+	public void pipe_withTestCasesLines_shouldWriteOneResultLinePerLine() throws IOException {
+		String input = new String(Files.readAllBytes(testCasesFile.toPath()), UTF_8);
+		StringWriter output = new StringWriter();
+		Packer.pipe(new StringReader(input), output, 0);
+		assertEquals("Result is correct", "4\n-\n2,7\n8,9\n", output.toString());
+	}
+
+	@Test
+	public void packLine_withEpsilon_shouldFlagApproximateResult() {
+		assertEquals("2,3 ~0.5", Packer.packLine("100 : (1,61,€60) (2,53,€50) (3,47,€49) (4,9,€5)", 0.5));
+	}
+
+	@Test
+	public void packLine_withEpsilonAndExactSolverCheaper_shouldReturnBestPackage() {
+		assertEquals("2,7", Packer.packLine(
+				"75 : (1,85.31,€29) (2,14.55,€74) (3,3.98,€16) (4,26.24,€55) (5,63.69,€52) (6,76.25,€75) (7,60.02,€74) (8,93.18,€35) (9,89.95,€78)",
+				0.1));
+	}
+
+	@Test
+	public void pack_withRepeatedCatalogue_shouldReturnSameResultsAsEachLine() throws IOException {
+		Random random = new Random(37);
+		StringBuilder catalogue = new StringBuilder();
+		for (int index = 1; index <= 40; index++) {
+			catalogue.append(String.format(Locale.ROOT, " (%d,%.2f,€%d)", index, 1 + random.nextFloat() * 99,
+					random.nextInt(101)));
+		}
+		StringBuilder input = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int line = 0; line < 600; line++) {
+			String inputLine = (20 + random.nextInt(81)) + " :" + catalogue;
+			input.append(inputLine).append('\n');
+			expected.append(Packer.packLine(inputLine)).append('\n');
+		}
+		Path inputFile = Files.createTempFile("repeated-catalogue", ".txt");
+		try {
+			Files.write(inputFile, input.toString().getBytes(UTF_8));
+			String path = inputFile.toString();
+			assertEquals(expected.toString().trim(), Packer.pack(path).trim());
+			assertEquals(expected.toString().trim(), Packer.pack(path, 4).trim());
+			assertEquals(expected.toString().trim(), Packer.packMappedFile(path, 2).trim());
+			StringWriter output = new StringWriter();
+			Packer.packMappedFile(path, 2, output);
+			assertEquals(expected.toString().trim(), output.toString().trim());
+		} finally {
+			Files.delete(inputFile);
+		}
+	}
+
+	@Test(expected = APIException.class)
+	public void pack_inParallelWithInvalidLine_shouldThrowException() throws IOException {
+		Path inputFile = Files.createTempFile("invalid-line", ".txt");
+		try {
+			Files.write(inputFile, Arrays.asList("8 : (1,15.3,€34)", "invalid line"), UTF_8);
+			Packer.pack(inputFile.toString(), 2);
+		} finally {
+			Files.delete(inputFile);
+		}
+	}
+
+	@Test(expected = APIException.class)
+	public void pipe_withInvalidLine_shouldThrowException() {
+		Packer.pipe(new StringReader("invalid line\n"), new StringWriter(), 0);
+	}
+
 }
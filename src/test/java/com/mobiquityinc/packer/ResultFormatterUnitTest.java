@@ -0,0 +1,63 @@
+package com.mobiquityinc.packer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link ResultFormatter} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class ResultFormatterUnitTest {
+
+	@Test
+	public void appendIndexes_withUnsortedItems_shouldAppendSortedIndexes() {
+		ResultFormatter formatter = new ResultFormatter();
+		formatter.appendIndexes(Arrays.asList(new Item(10, 1, 1), new Item(3, 1, 1), new Item(105, 1, 1)));
+		assertEquals("3,10,105", formatter.toString());
+	}
+
+	@Test
+	public void appendIndexes_withPackage_shouldAppendAllIndexes() {
+		ResultFormatter formatter = new ResultFormatter();
+		formatter.append('\n');
+		formatter.appendIndexes(new ItemPackage(50,
+				new ArrayList<>(Arrays.asList(new Item(2, 30, 1), new Item(1, 10, 1), new Item(0, 5, 1)))));
+		assertEquals("\n0,1,2", formatter.toString());
+	}
+
+	@Test
+	public void appendMinCostRatio_shouldAppendRatioRoundedDown() {
+		ResultFormatter formatter = new ResultFormatter();
+		formatter.appendMinCostRatio(0.95);
+		formatter.appendMinCostRatio(1 - 0.07);
+		formatter.appendMinCostRatio(0.123456);
+		formatter.appendMinCostRatio(1);
+		formatter.appendMinCostRatio(0);
+		assertEquals(" ~0.95 ~0.93 ~0.1234 ~1 ~0.0", formatter.toString());
+	}
+
+	@Test
+	public void clear_afterManyIndexes_shouldReuseTheBuffers() {
+		ResultFormatter formatter = new ResultFormatter();
+		List<Item> items = new ArrayList<>();
+		for (int index = 1000; index > 0; index--) {
+			items.add(new Item(index, 1, 1));
+		}
+		formatter.appendIndexes(items);
+		assertEquals(3892, formatter.toString().length());
+		formatter.clear();
+		formatter.appendIndexes(items.subList(998, 1000));
+		assertEquals("1,2", formatter.toString());
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.randomItems;
+import static com.mobiquityinc.packer.solver.SolverTestItems.sortedIndexes;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link BranchAndBoundSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class BranchAndBoundSolverUnitTest {
+
+	private final KnapsackSolver solver = new BranchAndBoundSolver();
+
+	@Test
+	public void solve_withSameCostPackages_shouldSelectTheLighterOne() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 40, 50), new Item(2, 20, 25),
+				new Item(3, 25, 25), new Item(4, 30, 50)));
+		// 1 and 4 cost 100 and weigh 70, 2 + 3 + 4 costs 100 too but weighs 75
+		assertEquals("[1, 4]", sortedIndexes(solver.solve(new ItemPackage(75, items))).toString());
+	}
+
+	@Test
+	public void solve_withRandomPackages_shouldFindTheBestCostAndWeight() {
+		Random random = new Random(11);
+		for (int test = 0; test < 300; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			List<Item> items = randomItems(random, 15, maxWeight, 20);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			List<Item> selectedItems = solver.solve(itemPackage);
+
+			double[] best = bruteForce(itemPackage);
+			assertEquals("Best cost", best[0], totalCost(selectedItems), 1e-9);
+			assertEquals("Best weight", best[1], totalWeight(selectedItems), 1e-9);
+		}
+	}
+
+	@Test(expected = APIException.class)
+	public void solve_withTooManyItems_shouldThrowException() {
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= BranchAndBoundSolver.maxItems + 1; index++) {
+			items.add(new Item(index, 1, 1));
+		}
+		solver.solve(new ItemPackage(10, items));
+	}
+
+	/**
+	 * Tries every combination and returns the best cost and, for that cost, the
+	 * lowest weight.
+	 */
+	private static double[] bruteForce(ItemPackage itemPackage) {
+		List<Item> items = itemPackage.getItems();
+		double[] best = { 0, 0 };
+		for (int mask = 0; mask < 1 << items.size(); mask++) {
+			double cost = 0;
+			double weight = 0;
+			for (int i = 0; i < items.size(); i++) {
+				if ((mask & (1 << i)) != 0) {
+					cost += items.get(i).getCost();
+					weight += items.get(i).getWeight();
+				}
+			}
+			if (weight <= itemPackage.getMaxWeight() && (cost > best[0] || (cost == best[0] && weight < best[1]))) {
+				best[0] = cost;
+				best[1] = weight;
+			}
+		}
+		return best;
+	}
+
+	private static double totalCost(List<Item> items) {
+		return items.stream().mapToDouble(Item::getCost).sum();
+	}
+
+	private static double totalWeight(List<Item> items) {
+		return items.stream().mapToDouble(Item::getWeight).sum();
+	}
+
+}
@@ -0,0 +1,146 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.sortedIndexes;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link CachingSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class CachingSolverUnitTest {
+
+	private final KnapsackSolver solver = new BranchAndBoundSolver();
+
+	@Test
+	public void solve_withSameItemsInDifferentOrder_shouldMapResultToOwnIndexes() {
+		CachingSolver cache = CachingSolver.withMaxEntries(solver, 10);
+		ItemPackage first = new ItemPackage(50,
+				new ArrayList<>(Arrays.asList(new Item(1, 40, 50), new Item(2, 10, 20), new Item(3, 20, 30))));
+		ItemPackage second = new ItemPackage(50,
+				new ArrayList<>(Arrays.asList(new Item(1, 20, 30), new Item(2, 40, 50), new Item(3, 10, 20))));
+
+		assertEquals("[1, 2]", sortedIndexes(cache.solve(first)).toString());
+		assertEquals("[2, 3]", sortedIndexes(cache.solve(second)).toString());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void solve_withApproximateSelection_shouldNotCacheIt() {
+		CachingSolver cache = CachingSolver.withMaxEntries(new FptasSolver(solver, 0.5), 10);
+		ItemPackage itemPackage = new ItemPackage(100, new ArrayList<>(Arrays.asList(new Item(1, 61, 60),
+				new Item(2, 53, 50), new Item(3, 47, 49), new Item(4, 9, 5))));
+		cache.solve(itemPackage);
+		assertEquals(true, cache.solve(itemPackage) instanceof ApproximateSelection);
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void solve_withDifferentMaxWeight_shouldMiss() {
+		CachingSolver cache = CachingSolver.withMaxEntries(solver, 10);
+		cache.solve(new ItemPackage(50, new ArrayList<>(Arrays.asList(new Item(1, 40, 50), new Item(2, 10, 20)))));
+		cache.solve(new ItemPackage(45, new ArrayList<>(Arrays.asList(new Item(1, 40, 50), new Item(2, 10, 20)))));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void solve_overCapacity_shouldEvictPackages() {
+		CachingSolver cache = CachingSolver.withMaxEntries(solver, 16);
+		for (int maxWeight = 1; maxWeight <= 100; maxWeight++) {
+			cache.solve(new ItemPackage(maxWeight, new ArrayList<>(Arrays.asList(new Item(1, 1, 1)))));
+		}
+		assertEquals(100, cache.getMissCount());
+		assertEquals(100 - cache.getSize(), cache.getEvictionCount());
+		assertEquals(16, cache.getSize());
+	}
+
+	@Test
+	public void solve_withMaxItems_shouldCachePackagesUpToMaxItems() {
+		CachingSolver cache = CachingSolver.withMaxItems(solver, 60);
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= 60; index++) {
+			items.add(new Item(index, 30, index % 10));
+		}
+		cache.solve(new ItemPackage(50, new ArrayList<>(items.subList(0, 15))));
+		assertEquals(1, cache.getSize());
+		// The whole size is taken, so the smaller package is evicted
+		cache.solve(new ItemPackage(50, new ArrayList<>(items)));
+		assertEquals(1, cache.getSize());
+		assertEquals(1, cache.getEvictionCount());
+		cache.solve(new ItemPackage(50, new ArrayList<>(items)));
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void solve_withMaxItems_shouldNotCachePackagesBiggerThanTheCache() {
+		CachingSolver cache = CachingSolver.withMaxItems(solver, 4);
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= 5; index++) {
+			items.add(new Item(index, 30, index));
+		}
+		cache.solve(new ItemPackage(50, new ArrayList<>(items)));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void solve_withFewerMaxEntriesThanSegments_shouldKeepMaxEntries() {
+		CachingSolver cache = CachingSolver.withMaxEntries(solver, 2);
+		for (int maxWeight = 1; maxWeight <= 100; maxWeight++) {
+			cache.solve(new ItemPackage(maxWeight, new ArrayList<>(Arrays.asList(new Item(1, 1, 1)))));
+			assertEquals(true, cache.getSize() <= 2);
+		}
+		assertEquals(2, cache.getSize());
+		assertEquals(98, cache.getEvictionCount());
+	}
+
+	@Test
+	public void solve_fromSeveralThreads_shouldReturnSameResultsAsSolver() throws Exception {
+		CachingSolver cache = CachingSolver.withMaxItems(solver, 1000);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(() -> {
+					Random random = new Random(3);
+					for (int test = 0; test < 500; test++) {
+						List<Item> items = new ArrayList<>();
+						for (int index = 1; index <= 1 + random.nextInt(5); index++) {
+							items.add(new Item(index, 1 + random.nextInt(50), random.nextInt(3)));
+						}
+						ItemPackage itemPackage = new ItemPackage(1 + random.nextInt(60), items);
+						assertEquals(sortedIndexes(solver.solve(itemPackage)), sortedIndexes(cache.solve(itemPackage)));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2000, cache.getHitCount() + cache.getMissCount());
+	}
+
+	@Test(expected = APIException.class)
+	public void withMaxEntries_withInvalidCapacity_shouldThrowException() {
+		CachingSolver.withMaxEntries(solver, 0);
+	}
+
+}
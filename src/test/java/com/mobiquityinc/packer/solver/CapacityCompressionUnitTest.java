@@ -0,0 +1,64 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.randomItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link CapacityCompression} and {@link CompressingSolver}
+ * classes.
+ * 
+ * @author dfjmax
+ *
+ */
+public class CapacityCompressionUnitTest {
+
+	@Test
+	public void of_withCommonFactor_shouldDivideCapacityAndWeights() {
+		ItemPackage itemPackage = new ItemPackage(60,
+				new ArrayList<>(Arrays.asList(new Item(1, 20, 10), new Item(2, 40, 15))));
+		CapacityCompression compression = CapacityCompression.of(itemPackage);
+		assertEquals(2000, compression.getDivisor());
+		assertEquals(6000, compression.getOriginalCapacity());
+		assertEquals(3, compression.getCompressedCapacity());
+		assertEquals(2, compression.getCompressedPackage().getItems().get(1).getWeight());
+		assertEquals(2 * (6000 - 3), compression.getSavedCells());
+	}
+
+	@Test
+	public void of_withoutItems_shouldKeepThePackage() {
+		ItemPackage itemPackage = new ItemPackage(0, new ArrayList<>());
+		CapacityCompression compression = CapacityCompression.of(itemPackage);
+		assertEquals(1, compression.getDivisor());
+		assertSame(itemPackage, compression.getCompressedPackage());
+	}
+
+	@Test
+	public void solve_withRandomPackages_shouldSelectSameItemsAsUncompressedSolver() {
+		KnapsackSolver solver = new CompactKnapsackSolver();
+		List<CapacityCompression> compressions = new ArrayList<>();
+		CompressingSolver compressingSolver = new CompressingSolver(solver, compressions::add);
+
+		Random random = new Random(5);
+		for (int test = 0; test < 300; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			List<Item> items = randomItems(random, 15, maxWeight, 101);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			assertEquals(new HashSet<>(solver.solve(itemPackage)), new HashSet<>(compressingSolver.solve(itemPackage)));
+		}
+		assertEquals(300, compressions.size());
+		assertEquals(300, compressingSolver.getCompressedPackageCount());
+	}
+
+}
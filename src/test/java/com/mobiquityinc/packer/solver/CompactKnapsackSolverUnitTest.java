@@ -0,0 +1,49 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static com.mobiquityinc.packer.solver.SolverTestItems.randomItems;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link CompactKnapsackSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class CompactKnapsackSolverUnitTest {
+
+	private final KnapsackSolver denseSolver = new DenseKnapsackSolver();
+	private final KnapsackSolver compactSolver = new CompactKnapsackSolver();
+
+	@Test
+	public void solve_withRandomPackages_shouldSelectSameItemsAsDenseSolver() {
+		Random random = new Random(42);
+		for (int test = 0; test < 300; test++) {
+			int maxWeight = random.nextInt(101);
+			List<Item> items = randomItems(random, 15, maxWeight, 101);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			assertEquals("Selected items should match", indexes(denseSolver.solve(itemPackage)),
+					indexes(compactSolver.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void solve_withDecreasingCapacities_shouldReuseCostRow() {
+		List<Item> items = new ArrayList<>();
+		items.add(new Item(1, 40, 40));
+		items.add(new Item(2, 50, 60));
+		items.add(new Item(3, 30, 30));
+		assertEquals("[2, 1]", indexes(compactSolver.solve(new ItemPackage(100, new ArrayList<>(items)))).toString());
+		assertEquals("[1]", indexes(compactSolver.solve(new ItemPackage(45, new ArrayList<>(items)))).toString());
+	}
+
+}
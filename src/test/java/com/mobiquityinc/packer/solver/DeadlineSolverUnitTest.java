@@ -0,0 +1,110 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static com.mobiquityinc.packer.solver.SolverTestItems.randomItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link DeadlineSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class DeadlineSolverUnitTest {
+
+	@Test
+	public void solve_withUnlimitedBudgets_shouldSelectSameItemsAsBranchAndBound() {
+		KnapsackSolver branchAndBoundSolver = new BranchAndBoundSolver();
+		DeadlineSolver solver = new DeadlineSolver(Long.MAX_VALUE, Long.MAX_VALUE);
+		Random random = new Random(23);
+		for (int test = 0; test < 200; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			List<Item> items = randomItems(random, 15, maxWeight, 10);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			List<Item> selectedItems = solver.solve(itemPackage);
+			assertFalse(selectedItems instanceof ApproximateSelection);
+			assertEquals(indexes(branchAndBoundSolver.solve(itemPackage)), indexes(selectedItems));
+		}
+		assertEquals(200, solver.getOptimalPackageCount());
+		assertEquals(0, solver.getExpiredBudgetCount());
+	}
+
+	@Test
+	public void solve_withExceededCellBudget_shouldReturnGreedySelection() {
+		// Item 1 has the best cost per weight, but item 2 alone costs more
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 1, 2), new Item(2, 10, 10)));
+		DeadlineSolver solver = new DeadlineSolver(Long.MAX_VALUE, 1);
+		List<Item> selectedItems = solver.solve(new ItemPackage(10, items));
+		assertEquals("[2]", indexes(selectedItems).toString());
+		assertTrue(selectedItems instanceof ApproximateSelection);
+		// The fractional bound is 2 + 10 * 9 / 10
+		assertEquals(10.0 / 11, ((ApproximateSelection) selectedItems).getMinCostRatio(), 1e-9);
+		assertEquals(0, solver.getOptimalPackageCount());
+		assertEquals(1, solver.getExpiredBudgetCount());
+		assertEquals("Budgets: 0 packages solved exactly, 1 budgets expired and answered with the greedy package",
+				solver.getReport());
+	}
+
+	@Test
+	public void solve_withExpiredTimeBudget_shouldReturnGreedySelection() {
+		Random random = new Random(29);
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= 200; index++) {
+			items.add(new Item(index, 1 + random.nextFloat() * 99, random.nextInt(101)));
+		}
+		DeadlineSolver solver = new DeadlineSolver(0, Long.MAX_VALUE);
+		assertTrue(solver.solve(new ItemPackage(100, items)) instanceof ApproximateSelection);
+		assertEquals(1, solver.getExpiredBudgetCount());
+	}
+
+	@Test
+	public void greedy_withRandomPackages_shouldGuaranteeTheCostRatio() {
+		KnapsackSolver exactSolver = new FixedPointKnapsackSolver();
+		Random random = new Random(31);
+		for (int test = 0; test < 300; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			List<Item> items = randomItems(random, 15, 100, 101);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			ApproximateSelection selectedItems = DeadlineSolver.greedy(itemPackage);
+			assertTrue(selectedItems.getMinCostRatio() >= 0.5);
+			assertTrue(totalWeight(selectedItems) <= itemPackage.getMaxWeight());
+			assertTrue(totalCost(selectedItems) >= selectedItems.getMinCostRatio()
+					* totalCost(exactSolver.solve(itemPackage)) - 1e-6);
+		}
+	}
+
+	@Test(expected = APIException.class)
+	public void constructor_withNegativeBudget_shouldThrowException() {
+		new DeadlineSolver(-1, Long.MAX_VALUE);
+	}
+
+	private static double totalCost(List<Item> items) {
+		double cost = 0;
+		for (Item item : items) {
+			cost += item.getCost();
+		}
+		return cost;
+	}
+
+	private static int totalWeight(List<Item> items) {
+		int weight = 0;
+		for (Item item : items) {
+			weight += item.getWeight();
+		}
+		return weight;
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link DominancePruning} and {@link PruningSolver}
+ * classes.
+ * 
+ * @author dfjmax
+ *
+ */
+public class DominancePruningUnitTest {
+
+	@Test
+	public void of_withDominatedItem_shouldRemoveIt() {
+		// 2 is heavier and cheaper than 1, and both do not fit together
+		ItemPackage itemPackage = new ItemPackage(50,
+				new ArrayList<>(Arrays.asList(new Item(1, 20, 30), new Item(2, 35, 20), new Item(3, 10, 5))));
+		DominancePruning pruning = DominancePruning.of(itemPackage);
+		assertEquals(1, pruning.getRemovedItemCount());
+		assertEquals("[3, 1]", indexes(pruning.getPrunedPackage().getItems()).toString());
+	}
+
+	@Test
+	public void of_withDuplicates_shouldKeepTheOnesThatFitTogether() {
+		ItemPackage itemPackage = new ItemPackage(25, new ArrayList<>(
+				Arrays.asList(new Item(1, 10, 7), new Item(2, 10, 7), new Item(3, 10, 7), new Item(4, 10, 7))));
+		DominancePruning pruning = DominancePruning.of(itemPackage);
+		assertEquals(2, pruning.getRemovedItemCount());
+		assertEquals("[1, 2]", indexes(pruning.getPrunedPackage().getItems()).toString());
+	}
+
+	@Test
+	public void of_withDominatedItemThatFits_shouldKeepThePackage() {
+		ItemPackage itemPackage = new ItemPackage(60,
+				new ArrayList<>(Arrays.asList(new Item(1, 20, 30), new Item(2, 35, 20))));
+		DominancePruning pruning = DominancePruning.of(itemPackage);
+		assertEquals(0, pruning.getRemovedItemCount());
+		assertSame(itemPackage, pruning.getPrunedPackage());
+	}
+
+	@Test
+	public void solve_withRandomPackages_shouldSelectSameItemsAsUnprunedSolver() {
+		KnapsackSolver solver = new BranchAndBoundSolver();
+		PruningSolver pruningSolver = new PruningSolver(solver);
+
+		Random random = new Random(7);
+		for (int test = 0; test < 500; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			List<Item> items = new ArrayList<>();
+			// Few distinct weights and costs, so there are many dominated items and duplicates
+			for (int index = 1; index <= 1 + random.nextInt(15); index++) {
+				items.add(new Item(index, 1 + random.nextInt(Math.min(maxWeight, 10)) * 10, random.nextInt(5)));
+			}
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			assertEquals(indexes(solver.solve(itemPackage)), indexes(pruningSolver.solve(itemPackage)));
+		}
+		assertTrue(pruningSolver.getRemovedItemCount() > 0);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static com.mobiquityinc.packer.solver.SolverTestItems.tiedItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link FixedPointKnapsackSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class FixedPointKnapsackSolverUnitTest {
+
+	private final KnapsackSolver solver = new FixedPointKnapsackSolver();
+
+	@Test
+	public void solve_withSameCostPackages_shouldSelectTheLighterOne() {
+		// The compact solver keeps the heavier 1 and 2
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 3, 5), new Item(2, 3, 5), new Item(3, 5, 10)));
+		assertEquals("[3]", indexes(solver.solve(new ItemPackage(6, items))).toString());
+	}
+
+	@Test
+	public void solve_withSameCostAndWeightPackages_shouldSelectTheFirstItems() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 20, 30), new Item(2, 10, 20),
+				new Item(3, 30, 40), new Item(4, 20, 30)));
+		assertEquals("[2, 3]", indexes(solver.solve(new ItemPackage(40, items))).toString());
+	}
+
+	@Test
+	public void solve_withCentCosts_shouldCompareExactCosts() {
+		// 0.1 + 0.2 and 0.3 are the same cost, so the lighter package wins
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 1, 0.1f), new Item(2, 1, 0.2f),
+				new Item(3, 3, 0.3f)));
+		assertEquals("[1, 2]", indexes(solver.solve(new ItemPackage(3, items))).toString());
+	}
+
+	@Test
+	public void solve_withZeroWeightItemsInAFullPackage_shouldTakeThem() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 10, 30), new Item(2, 0.5f, 20)));
+		assertEquals("[2, 1]", indexes(solver.solve(new ItemPackage(10, items))).toString());
+	}
+
+	@Test
+	public void solve_withRandomPackages_shouldSelectSameItemsAsBranchAndBound() {
+		KnapsackSolver branchAndBoundSolver = new BranchAndBoundSolver();
+		Random random = new Random(13);
+		for (int test = 0; test < 500; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			// Few distinct costs and weights, so there are many ties
+			List<Item> items = tiedItems(random, 15, maxWeight, test % 2 != 0);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			assertEquals(indexes(branchAndBoundSolver.solve(itemPackage)), indexes(solver.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void solve_withManyItems_shouldFindTheBestCost() {
+		KnapsackSolver compactSolver = new CompactKnapsackSolver();
+		Random random = new Random(17);
+		for (int test = 0; test < 50; test++) {
+			List<Item> items = new ArrayList<>();
+			for (int index = 1; index <= 100; index++) {
+				items.add(new Item(index, 1 + random.nextFloat() * 99, random.nextInt(101)));
+			}
+			ItemPackage itemPackage = new ItemPackage(100, items);
+			assertEquals(totalCost(compactSolver.solve(itemPackage)), totalCost(solver.solve(itemPackage)), 1e-9);
+		}
+	}
+
+	private static double totalCost(List<Item> items) {
+		double cost = 0;
+		for (Item item : items) {
+			cost += item.getCost();
+		}
+		return cost;
+	}
+
+	@Test
+	public void solve_whenBudgetExpires_shouldReturnNull() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 3, 5), new Item(2, 3, 5), new Item(3, 5, 10)));
+		int[] rows = new int[1];
+		assertNull(new FixedPointKnapsackSolver().solve(new ItemPackage(6, items), () -> ++rows[0] > 2));
+	}
+
+}
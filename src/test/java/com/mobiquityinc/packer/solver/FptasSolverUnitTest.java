@@ -0,0 +1,83 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.randomItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link FptasSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class FptasSolverUnitTest {
+
+	private final KnapsackSolver exactSolver = new FixedPointKnapsackSolver();
+
+	@Test
+	public void solve_withFewScaledCosts_shouldReturnApproximateSelection() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 61, 60), new Item(2, 53, 50),
+				new Item(3, 47, 49), new Item(4, 9, 5)));
+		List<Item> selectedItems = new FptasSolver(exactSolver, 0.5).solve(new ItemPackage(100, items));
+		assertTrue(selectedItems instanceof ApproximateSelection);
+		assertEquals(0.5, ((ApproximateSelection) selectedItems).getMinCostRatio(), 1e-9);
+		assertEquals(99, totalCost(selectedItems), 1e-9);
+	}
+
+	@Test
+	public void solve_withRandomPackages_shouldGuaranteeTheCostRatio() {
+		Random random = new Random(3);
+		for (int test = 0; test < 300; test++) {
+			double epsilon = 0.2 + random.nextDouble() * 0.7;
+			int maxWeight = 1 + random.nextInt(100);
+			List<Item> items = randomItems(random, 8, maxWeight, 101);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			List<Item> selectedItems = new FptasSolver(exactSolver, epsilon).solve(itemPackage);
+			assertTrue(totalWeight(selectedItems) <= itemPackage.getMaxWeight());
+			assertTrue(totalCost(selectedItems) >= (1 - epsilon) * totalCost(exactSolver.solve(itemPackage)) - 1e-9);
+		}
+	}
+
+	@Test
+	public void solve_whenExactSolverIsCheaper_shouldReturnBestPackage() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 61, 60), new Item(2, 53, 50),
+				new Item(3, 47, 49), new Item(4, 9, 5)));
+		List<Item> selectedItems = new FptasSolver(exactSolver, 0.01).solve(new ItemPackage(100, items));
+		assertFalse(selectedItems instanceof ApproximateSelection);
+		assertEquals(99, totalCost(selectedItems), 1e-9);
+	}
+
+	@Test(expected = APIException.class)
+	public void constructor_withInvalidEpsilon_shouldThrowException() {
+		new FptasSolver(exactSolver, 1);
+	}
+
+	private static double totalCost(List<Item> items) {
+		double cost = 0;
+		for (Item item : items) {
+			cost += item.getCost();
+		}
+		return cost;
+	}
+
+	private static int totalWeight(List<Item> items) {
+		int weight = 0;
+		for (Item item : items) {
+			weight += item.getWeight();
+		}
+		return weight;
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static com.mobiquityinc.packer.solver.SolverTestItems.randomItems;
+import static com.mobiquityinc.packer.solver.SolverTestItems.tiedItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+import com.mobiquityinc.model.PackageLimits;
+
+/**
+ * Test suite for the {@link HirschbergKnapsackSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class HirschbergKnapsackSolverUnitTest {
+
+	private final KnapsackSolver solver = new HirschbergKnapsackSolver();
+	private final KnapsackSolver fixedPointSolver = new FixedPointKnapsackSolver();
+	private final KnapsackSolver splitKeysSolver = new HirschbergKnapsackSolver(true);
+
+	@After
+	public void tearDown() {
+		System.clearProperty(PackageLimits.profileProperty);
+		PackageLimits.reload();
+	}
+
+	@Test
+	public void solve_withSameCostPackages_shouldSelectTheLighterOne() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 3, 5), new Item(2, 3, 5), new Item(3, 5, 10)));
+		assertEquals("[3]", indexes(solver.solve(new ItemPackage(6, items))).toString());
+	}
+
+	@Test
+	public void solve_withFewItems_shouldSelectSameItemsAsFixedPointSolver() {
+		Random random = new Random(5);
+		for (int test = 0; test < 100; test++) {
+			int maxWeight = random.nextInt(101);
+			List<Item> items = randomItems(random, 64, maxWeight, 10);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			assertEquals(indexes(fixedPointSolver.solve(itemPackage)), indexes(solver.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void solve_withManyItems_shouldFindTheBestCostAndWeight() {
+		Random random = new Random(11);
+		for (int test = 0; test < 30; test++) {
+			List<Item> items = new ArrayList<>();
+			for (int index = 1; index <= 65 + random.nextInt(400); index++) {
+				items.add(new Item(index, random.nextFloat() * 30, random.nextInt(101)));
+			}
+			ItemPackage itemPackage = new ItemPackage(100, items);
+			List<Item> expected = fixedPointSolver.solve(itemPackage);
+			List<Item> selected = solver.solve(itemPackage);
+			assertEquals(totalCost(expected), totalCost(selected), 1e-9);
+			assertEquals(totalWeight(expected), totalWeight(selected));
+		}
+	}
+
+	@Test
+	public void solve_withSplitKeys_shouldSelectSameItemsAsWithKeys() {
+		Random random = new Random(13);
+		for (int test = 0; test < 30; test++) {
+			// Few distinct costs and weights, so there are many ties
+			List<Item> items = tiedItems(random, 300, 30, test % 2 != 0);
+			ItemPackage itemPackage = new ItemPackage(random.nextInt(101), items);
+			assertEquals(indexes(solver.solve(itemPackage)), indexes(splitKeysSolver.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void solve_withLargeLimitsAndSplitKeys_shouldFindTheBestCostAndWeight() {
+		System.setProperty(PackageLimits.profileProperty, PackageLimits.largeProfile);
+		PackageLimits.reload();
+		Random random = new Random(17);
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= 300; index++) {
+			// Costs in cents up to the cost limit
+			items.add(new Item(index, 1 + random.nextInt(200), 999_000 + random.nextInt(2000) / 2f));
+		}
+		ItemPackage itemPackage = new ItemPackage(2000, items);
+		List<Item> expected = fixedPointSolver.solve(itemPackage);
+		List<Item> selected = splitKeysSolver.solve(itemPackage);
+		assertEquals(totalCost(expected), totalCost(selected), 1e-9);
+		assertEquals(totalWeight(expected), totalWeight(selected));
+	}
+
+	@Test
+	public void solve_whenBudgetExpires_shouldReturnNull() {
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= 200; index++) {
+			items.add(new Item(index, 1 + index % 30, index % 101));
+		}
+		int[] rows = new int[1];
+		assertNull(new HirschbergKnapsackSolver().solve(new ItemPackage(100, items), () -> ++rows[0] > 150));
+	}
+
+	private static double totalCost(List<Item> items) {
+		double cost = 0;
+		for (Item item : items) {
+			cost += item.getCost();
+		}
+		return cost;
+	}
+
+	private static int totalWeight(List<Item> items) {
+		int weight = 0;
+		for (Item item : items) {
+			weight += item.getWeight();
+		}
+		return weight;
+	}
+
+}
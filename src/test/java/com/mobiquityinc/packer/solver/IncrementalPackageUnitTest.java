@@ -0,0 +1,141 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link IncrementalPackage} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class IncrementalPackageUnitTest {
+
+	@Test
+	public void getSelectedItems_afterRandomChanges_shouldHaveSameCostAndWeightAsFixedPoint() {
+		KnapsackSolver fixedPointSolver = new FixedPointKnapsackSolver();
+		Random random = new Random(47);
+		for (int test = 0; test < 20; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			IncrementalPackage incrementalPackage = new IncrementalPackage(maxWeight);
+			int nextIndex = 1;
+			for (int change = 0; change < 60; change++) {
+				List<Item> items = incrementalPackage.getItems();
+				if (items.isEmpty() || random.nextInt(3) > 0) {
+					// Few distinct costs and weights, so there are many ties
+					float weight = test % 2 == 0 ? random.nextFloat() * 100 : random.nextInt(101) / 5 * 5;
+					incrementalPackage.addItem(new Item(nextIndex++, weight, random.nextInt(10)));
+				} else {
+					incrementalPackage.removeItem(items.get(random.nextInt(items.size())).getIndex());
+				}
+
+				List<Item> fittingItems = new ArrayList<>();
+				for (Item item : incrementalPackage.getItems()) {
+					if (item.getWeight() <= maxWeight * 100) {
+						fittingItems.add(item);
+					}
+				}
+				ItemPackage itemPackage = new ItemPackage(maxWeight, fittingItems);
+				List<Item> expectedItems = itemPackage.getTotalWeight() < itemPackage.getMaxWeight()
+						? itemPackage.getItems()
+						: fixedPointSolver.solve(itemPackage);
+				List<Item> selectedItems = incrementalPackage.getSelectedItems();
+				assertEquals(totalCost(expectedItems), totalCost(selectedItems), 1e-3);
+				assertEquals(totalWeight(expectedItems), totalWeight(selectedItems));
+			}
+		}
+	}
+
+	@Test
+	public void addItem_afterOtherItems_shouldComputeOneRow() {
+		IncrementalPackage incrementalPackage = new IncrementalPackage(50);
+		for (int index = 1; index <= 10; index++) {
+			incrementalPackage.addItem(new Item(index, 10, index));
+			assertEquals(index, incrementalPackage.getComputedRowCount());
+		}
+		// 10 + 10 + 10 + 10 + 9, the cheapest items are left out
+		assertEquals("[6, 7, 8, 9, 10]", indexes(incrementalPackage.getSelectedItems()).toString());
+	}
+
+	@Test
+	public void addItem_firstCostWithDecimals_shouldComputeEveryRowInCents() {
+		IncrementalPackage incrementalPackage = new IncrementalPackage(20);
+		for (int index = 1; index <= 4; index++) {
+			incrementalPackage.addItem(new Item(index, 10, 10));
+		}
+		assertEquals(4, incrementalPackage.getComputedRowCount());
+		incrementalPackage.addItem(new Item(5, 10, 10.01f));
+		assertEquals(9, incrementalPackage.getComputedRowCount());
+		assertEquals("[1, 5]", indexes(incrementalPackage.getSelectedItems()).toString());
+		// Already in cents, a single row
+		incrementalPackage.addItem(new Item(6, 10, 10.02f));
+		assertEquals(10, incrementalPackage.getComputedRowCount());
+		assertEquals("[5, 6]", indexes(incrementalPackage.getSelectedItems()).toString());
+	}
+
+	@Test
+	public void removeItem_inTheMiddle_shouldComputeTheRowsAfterIt() {
+		IncrementalPackage incrementalPackage = new IncrementalPackage(50);
+		for (int index = 1; index <= 10; index++) {
+			incrementalPackage.addItem(new Item(index, 10, index));
+		}
+		assertEquals(8, incrementalPackage.removeItem(8).getIndex());
+		assertEquals(12, incrementalPackage.getComputedRowCount());
+		assertEquals("[5, 6, 7, 9, 10]", indexes(incrementalPackage.getSelectedItems()).toString());
+	}
+
+	@Test
+	public void getSelectedItems_withSameCostAndWeightPackages_shouldSelectTheItemsAddedFirst() {
+		IncrementalPackage incrementalPackage = new IncrementalPackage(40);
+		incrementalPackage.addItem(new Item(1, 20, 30));
+		incrementalPackage.addItem(new Item(2, 20, 30));
+		incrementalPackage.addItem(new Item(3, 20, 30));
+		assertEquals("[1, 2]", indexes(incrementalPackage.getSelectedItems()).toString());
+	}
+
+	@Test
+	public void getSelectedItems_withAllItemsFitting_shouldSelectAllTheItems() {
+		IncrementalPackage incrementalPackage = new IncrementalPackage(50);
+		incrementalPackage.addItem(new Item(1, 10, 0));
+		incrementalPackage.addItem(new Item(2, 60, 10));
+		incrementalPackage.addItem(new Item(3, 20, 5));
+		assertEquals("[1, 3]", indexes(incrementalPackage.getSelectedItems()).toString());
+	}
+
+	@Test(expected = APIException.class)
+	public void removeItem_withUnknownIndex_shouldThrowException() {
+		new IncrementalPackage(50).removeItem(1);
+	}
+
+	@Test(expected = APIException.class)
+	public void newIncrementalPackage_withInvalidMaxWeight_shouldThrowException() {
+		new IncrementalPackage(-1);
+	}
+
+	private static double totalCost(List<Item> items) {
+		double cost = 0;
+		for (Item item : items) {
+			cost += item.getCost();
+		}
+		return cost;
+	}
+
+	private static int totalWeight(List<Item> items) {
+		int weight = 0;
+		for (Item item : items) {
+			weight += item.getWeight();
+		}
+		return weight;
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test solver registered as a service, it always selects the lightest item.
+ * 
+ * @author dfjmax
+ *
+ */
+public class LightestItemSolver implements KnapsackSolver {
+
+	@Override
+	public String getName() {
+		return "lightest-item";
+	}
+
+	@Override
+	public List<Item> solve(ItemPackage itemPackage) {
+		return Collections.singletonList(itemPackage.getItems().get(0));
+	}
+
+}
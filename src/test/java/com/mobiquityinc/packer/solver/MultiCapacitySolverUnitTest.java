@@ -0,0 +1,106 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static com.mobiquityinc.packer.solver.SolverTestItems.tiedItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link MultiCapacitySolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class MultiCapacitySolverUnitTest {
+
+	private final MultiCapacitySolver solver = new MultiCapacitySolver();
+
+	@Test
+	public void solve_withSeveralMaxWeights_shouldSelectSameItemsAsEachPackage() {
+		KnapsackSolver fixedPointSolver = new FixedPointKnapsackSolver();
+		Random random = new Random(41);
+		for (int test = 0; test < 100; test++) {
+			// Few distinct costs and weights, so there are many ties
+			List<Item> items = tiedItems(random, 30, 100, test % 2 != 0);
+			int[] maxWeights = new int[1 + random.nextInt(6)];
+			for (int i = 0; i < maxWeights.length; i++) {
+				maxWeights[i] = random.nextInt(101);
+			}
+			List<List<Item>> selections = solver.solve(items, maxWeights);
+			for (int i = 0; i < maxWeights.length; i++) {
+				assertEquals(indexes(fixedPointSolver.solve(new ItemPackage(maxWeights[i], items))),
+						indexes(selections.get(i)));
+			}
+		}
+	}
+
+	@Test
+	public void solve_withSameCostPackages_shouldSelectTheLighterOne() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 3, 5), new Item(2, 3, 5), new Item(3, 5, 10)));
+		List<List<Item>> selections = solver.solve(items, 6, 3, 10);
+		assertEquals("[3]", indexes(selections.get(0)).toString());
+		assertEquals("[1]", indexes(selections.get(1)).toString());
+		assertEquals("[1, 3]", indexes(selections.get(2)).toString());
+	}
+
+	@Test
+	public void solveShared_withPackagesOfTheSameCatalogue_shouldSelectSameItemsAsTheSelector() {
+		KnapsackSolver selector = new SolverSelector(new SolverRegistry().registerBuiltInSolvers());
+		Random random = new Random(43);
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= 40; index++) {
+			items.add(new Item(index, 1 + random.nextFloat() * 99, random.nextInt(101)));
+		}
+		List<ItemPackage> itemPackages = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			itemPackages.add(catalogueItems(20 + random.nextInt(81), items));
+		}
+		// A package with other items is solved on its own
+		itemPackages.add(new ItemPackage(50, new ArrayList<>(Arrays.asList(new Item(1, 40, 10), new Item(2, 30, 9)))));
+
+		List<List<Item>> selections = solver.solveShared(itemPackages);
+		for (int i = 0; i < 20; i++) {
+			assertNotNull(selections.get(i));
+			assertEquals(indexes(selector.solve(itemPackages.get(i))), indexes(selections.get(i)));
+		}
+		assertNull(selections.get(20));
+	}
+
+	@Test
+	public void solveShared_withSinglePackage_shouldLeaveItToItsSolver() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 40, 10), new Item(2, 30, 9)));
+		assertNull(solver.solveShared(Arrays.asList(new ItemPackage(50, items))).get(0));
+	}
+
+	@Test(expected = APIException.class)
+	public void solve_withNegativeMaxWeight_shouldThrowException() {
+		solver.solve(new ArrayList<>(Arrays.asList(new Item(1, 40, 10))), 50, -1);
+	}
+
+	/**
+	 * Builds a package with the items that fit in the max weight, as the input
+	 * parser does.
+	 */
+	private static ItemPackage catalogueItems(int maxWeight, List<Item> items) {
+		List<Item> fittingItems = new ArrayList<>();
+		for (Item item : items) {
+			if (item.getWeight() <= maxWeight * 100) {
+				fittingItems.add(item);
+			}
+		}
+		return new ItemPackage(maxWeight, fittingItems);
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.indexes;
+import static com.mobiquityinc.packer.solver.SolverTestItems.randomItems;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link ParallelKnapsackSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class ParallelKnapsackSolverUnitTest {
+
+	private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+	private final KnapsackSolver compactSolver = new CompactKnapsackSolver();
+	// Every row is solved in parallel
+	private final KnapsackSolver parallelSolver = new ParallelKnapsackSolver(pool, 0);
+
+	@AfterClass
+	public static void shutDownPool() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void solve_withRandomPackages_shouldSelectSameItemsAsCompactSolver() {
+		Random random = new Random(42);
+		for (int test = 0; test < 200; test++) {
+			int maxWeight = random.nextInt(101);
+			List<Item> items = randomItems(random, 40, maxWeight, 101);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			assertEquals("Selected items should match", indexes(compactSolver.solve(itemPackage)),
+					indexes(parallelSolver.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void solve_withRepeatedCosts_shouldSelectSameItemsAsCompactSolver() {
+		Random random = new Random(7);
+		for (int test = 0; test < 50; test++) {
+			List<Item> items = new ArrayList<>();
+			for (int index = 1; index <= 30; index++) {
+				items.add(new Item(index, 1 + random.nextInt(60), 10 * (1 + random.nextInt(3))));
+			}
+			ItemPackage itemPackage = new ItemPackage(100, items);
+			assertEquals("Selected items should match", indexes(compactSolver.solve(itemPackage)),
+					indexes(parallelSolver.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void solve_belowParallelThreshold_shouldSelectSameItems() {
+		List<Item> items = new ArrayList<>();
+		items.add(new Item(1, 40, 40));
+		items.add(new Item(2, 50, 60));
+		items.add(new Item(3, 30, 30));
+		ItemPackage itemPackage = new ItemPackage(100, items);
+		assertEquals("[2, 1]", indexes(new ParallelKnapsackSolver(pool, 100 * 100 + 2).solve(itemPackage)).toString());
+		assertEquals("[2, 1]", indexes(parallelSolver.solve(itemPackage)).toString());
+	}
+
+}
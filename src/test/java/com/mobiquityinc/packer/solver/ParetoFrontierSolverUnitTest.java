@@ -0,0 +1,76 @@
+package com.mobiquityinc.packer.solver;
+
+import static com.mobiquityinc.packer.solver.SolverTestItems.sortedIndexes;
+import static com.mobiquityinc.packer.solver.SolverTestItems.tiedItems;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link ParetoFrontierSolver} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class ParetoFrontierSolverUnitTest {
+
+	private final KnapsackSolver solver = new ParetoFrontierSolver();
+
+	@Test
+	public void solve_withSameCostPackages_shouldSelectTheLighterOne() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 40, 50), new Item(2, 20, 25),
+				new Item(3, 25, 25), new Item(4, 30, 50)));
+		assertEquals("[1, 4]", sortedIndexes(solver.solve(new ItemPackage(75, items))).toString());
+	}
+
+	@Test
+	public void solve_withoutFittingItems_shouldSelectNothing() {
+		List<Item> items = new ArrayList<>(Arrays.asList(new Item(1, 40, 50), new Item(2, 30, 25)));
+		assertEquals("[]", sortedIndexes(solver.solve(new ItemPackage(20, items))).toString());
+	}
+
+	@Test
+	public void solve_withRandomPackages_shouldSelectSameItemsAsBranchAndBound() {
+		KnapsackSolver branchAndBoundSolver = new BranchAndBoundSolver();
+		Random random = new Random(13);
+		for (int test = 0; test < 500; test++) {
+			int maxWeight = 1 + random.nextInt(100);
+			// Few distinct costs and weights, so there are many ties
+			List<Item> items = tiedItems(random, 15, maxWeight, test % 2 != 0);
+			ItemPackage itemPackage = new ItemPackage(maxWeight, items);
+			assertEquals(sortedIndexes(branchAndBoundSolver.solve(itemPackage)), sortedIndexes(solver.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void solve_withManyItems_shouldFindTheBestCost() {
+		KnapsackSolver compactSolver = new CompactKnapsackSolver();
+		Random random = new Random(17);
+		for (int test = 0; test < 50; test++) {
+			List<Item> items = new ArrayList<>();
+			// The dynamic programming solvers drop zero weight items when the package is full
+			for (int index = 1; index <= 100; index++) {
+				items.add(new Item(index, 1 + random.nextFloat() * 99, random.nextInt(101)));
+			}
+			ItemPackage itemPackage = new ItemPackage(100, items);
+			assertEquals(totalCost(compactSolver.solve(itemPackage)), totalCost(solver.solve(itemPackage)), 1e-9);
+		}
+	}
+
+	private static double totalCost(List<Item> items) {
+		double cost = 0;
+		for (Item item : items) {
+			cost += item.getCost();
+		}
+		return cost;
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.mobiquityinc.packer.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Test suite for the {@link ScratchArena} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class ScratchArenaUnitTest {
+
+	@Test
+	public void valueRow_withSmallerLength_shouldReuseTheClearedRow() {
+		ScratchArena arena = ScratchArena.current();
+		long[] row = arena.valueRow(100);
+		row[10] = 5;
+		long[] reused = arena.valueRow(50);
+		assertSame(row, reused);
+		assertEquals(0, reused[10]);
+	}
+
+	@Test
+	public void decisionBits_withLongerLength_shouldGrow() {
+		ScratchArena arena = ScratchArena.current();
+		long[] bits = arena.decisionBits(10);
+		long[] grown = arena.decisionBits(bits.length + 1);
+		assertNotSame(bits, grown);
+		assertSame(grown, arena.decisionBits(bits.length + 1));
+	}
+
+	@Test
+	public void costRow_overMaxRetainedLength_shouldNotBeKept() {
+		ScratchArena arena = ScratchArena.current();
+		double[] row = arena.costRow(10);
+		double[] huge = arena.costRow(ScratchArena.maxRetainedLength + 1);
+		assertNotSame(row, huge);
+		assertSame(row, arena.costRow(10));
+	}
+
+	@Test
+	public void itemOrder_overMaxRetainedLength_shouldNotBeKept() {
+		ScratchArena arena = ScratchArena.current();
+		int[] order = arena.itemOrder(10);
+		int[] huge = arena.itemOrder(ScratchArena.maxRetainedLength + 1);
+		assertNotSame(order, huge);
+		assertSame(order, arena.itemOrder(10));
+	}
+
+	@Test
+	public void current_fromAnotherThread_shouldReturnAnotherArena() throws InterruptedException {
+		ScratchArena[] otherArena = new ScratchArena[1];
+		Thread thread = new Thread(() -> otherArena[0] = ScratchArena.current());
+		thread.start();
+		thread.join();
+		assertNotSame(ScratchArena.current(), otherArena[0]);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.mobiquityinc.packer.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Test suite for the {@link SolverConfiguration} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class SolverConfigurationUnitTest {
+
+	@After
+	public void tearDown() {
+		System.clearProperty(SolverConfiguration.solverProperty);
+		System.clearProperty(SolverConfiguration.budgetMicrosProperty);
+		System.clearProperty(SolverConfiguration.budgetCellsProperty);
+		System.clearProperty(SolverConfiguration.epsilonProperty);
+		System.clearProperty(SolverConfiguration.cacheMaxEntriesProperty);
+		System.clearProperty(SolverConfiguration.cacheMaxItemsProperty);
+	}
+
+	@Test
+	public void configuredSolver_withForcedSolver_shouldReturnIt() {
+		System.setProperty(SolverConfiguration.solverProperty, DenseKnapsackSolver.name);
+		assertEquals(DenseKnapsackSolver.name, SolverConfiguration.configuredSolver().getName());
+	}
+
+	@Test
+	public void configuredSolver_withoutProperties_shouldReturnSelector() {
+		assertEquals(SolverSelector.name, SolverConfiguration.configuredSolver().getName());
+	}
+
+	@Test
+	public void configuredSolver_withCacheSize_shouldReturnCachingSolver() {
+		System.setProperty(SolverConfiguration.cacheMaxEntriesProperty, "1000");
+		assertEquals(CachingSolver.name, SolverConfiguration.configuredSolver().getName());
+	}
+
+	@Test
+	public void configuredSolver_withEpsilon_shouldReturnFptasSolver() {
+		System.setProperty(SolverConfiguration.epsilonProperty, "0.1");
+		assertEquals(FptasSolver.name, SolverConfiguration.configuredSolver().getName());
+	}
+
+	@Test(expected = APIException.class)
+	public void configuredSolver_withInvalidEpsilon_shouldThrowException() {
+		System.setProperty(SolverConfiguration.epsilonProperty, "2");
+		SolverConfiguration.configuredSolver();
+	}
+
+	@Test
+	public void configuredSolver_withBudget_shouldReturnDeadlineSolver() {
+		System.setProperty(SolverConfiguration.budgetMicrosProperty, "500");
+		assertEquals(DeadlineSolver.name, SolverConfiguration.configuredSolver().getName());
+	}
+
+	@Test
+	public void budgetSolver_withCachedApproximateBudget_shouldReturnDeadlineSolver() {
+		System.setProperty(SolverConfiguration.budgetCellsProperty, "1000000");
+		System.setProperty(SolverConfiguration.epsilonProperty, "0.1");
+		System.setProperty(SolverConfiguration.cacheMaxEntriesProperty, "1000");
+		assertNotNull(SolverConfiguration.budgetSolver(SolverConfiguration.configuredSolver()));
+	}
+
+	@Test
+	public void budgetSolver_withoutBudget_shouldReturnNull() {
+		System.setProperty(SolverConfiguration.cacheMaxEntriesProperty, "1000");
+		assertNull(SolverConfiguration.budgetSolver(SolverConfiguration.configuredSolver()));
+	}
+
+	@Test(expected = APIException.class)
+	public void configuredSolver_withBudgetAndForcedSolver_shouldThrowException() {
+		System.setProperty(SolverConfiguration.budgetCellsProperty, "1000000");
+		System.setProperty(SolverConfiguration.solverProperty, DenseKnapsackSolver.name);
+		SolverConfiguration.configuredSolver();
+	}
+
+	@Test(expected = APIException.class)
+	public void configuredSolver_withUnknownSolver_shouldThrowException() {
+		System.setProperty(SolverConfiguration.solverProperty, "unknown");
+		SolverConfiguration.configuredSolver();
+	}
+
+	@Test(expected = APIException.class)
+	public void configuredSolver_withInvalidCacheSize_shouldThrowException() {
+		System.setProperty(SolverConfiguration.cacheMaxItemsProperty, "many");
+		SolverConfiguration.configuredSolver();
+	}
+
+}
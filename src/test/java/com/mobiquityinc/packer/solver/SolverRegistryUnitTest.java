@@ -0,0 +1,44 @@
+package com.mobiquityinc.packer.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+
+/**
+ * Test suite for the {@link SolverRegistry} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class SolverRegistryUnitTest {
+
+	@Test
+	public void defaultRegistry_shouldContainBuiltInAndServiceSolvers() {
+		SolverRegistry registry = SolverRegistry.defaultRegistry();
+		assertTrue(registry.getNames().contains(DenseKnapsackSolver.name));
+		assertTrue(registry.getNames().contains(CompactKnapsackSolver.name));
+		assertTrue(registry.getNames().contains(BranchAndBoundSolver.name));
+		assertTrue(registry.getNames().contains(ParetoFrontierSolver.name));
+		assertTrue(registry.getNames().contains(ParallelKnapsackSolver.name));
+		assertTrue(registry.getNames().contains(FixedPointKnapsackSolver.name));
+		assertTrue(registry.getNames().contains(HirschbergKnapsackSolver.name));
+		assertEquals(LightestItemSolver.class, registry.get("lightest-item").getClass());
+	}
+
+	@Test
+	public void register_withExistingName_shouldReplaceSolver() {
+		KnapsackSolver solver = new CompactKnapsackSolver();
+		SolverRegistry registry = new SolverRegistry().registerBuiltInSolvers().register(solver);
+		assertSame(solver, registry.get(CompactKnapsackSolver.name));
+	}
+
+	@Test(expected = APIException.class)
+	public void get_withUnknownName_shouldThrowException() {
+		new SolverRegistry().get("unknown");
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.mobiquityinc.packer.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link SolverSelector} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class SolverSelectorUnitTest {
+
+	private final SolverSelector selector = new SolverSelector(new SolverRegistry().registerBuiltInSolvers());
+
+	@Test
+	public void select_withFewItems_shouldChooseBranchAndBound() {
+		assertEquals(PruningSolver.name, selector.select(itemPackage(100, 15, 10)).getName());
+	}
+
+	@Test
+	public void select_withManyItemsFittingTogether_shouldChooseDynamicProgramming() {
+		assertEquals(CompressingSolver.name, selector.select(itemPackage(100, 40, 1)).getName());
+	}
+
+	@Test
+	public void select_withManyItemsAndFewFittingTogether_shouldChooseBranchAndBound() {
+		assertEquals(PruningSolver.name, selector.select(itemPackage(97, 40, 49)).getName());
+	}
+
+	@Test
+	public void solve_withAnyChosenSolver_shouldSelectSameItemsAsBranchAndBound() {
+		KnapsackSolver branchAndBoundSolver = new BranchAndBoundSolver();
+		Random random = new Random(23);
+		for (int test = 0; test < 100; test++) {
+			List<Item> items = new ArrayList<>();
+			// Few distinct costs and weights, so there are many ties
+			for (int index = 1; index <= 21 + random.nextInt(20); index++) {
+				items.add(new Item(index, 1 + random.nextInt(20), random.nextInt(10)));
+			}
+			ItemPackage itemPackage = new ItemPackage(100, items);
+			assertEquals(sortedIndexes(branchAndBoundSolver.solve(itemPackage)),
+					sortedIndexes(selector.solve(itemPackage)));
+		}
+	}
+
+	@Test
+	public void packageFeatures_shouldDescribePackage() {
+		PackageFeatures features = PackageFeatures.of(itemPackage(90, 10, 30));
+		assertEquals(10, features.getItemCount());
+		assertEquals(9000, features.getCapacity());
+		assertEquals(3000, features.getWeightGcd());
+		assertEquals(3, features.getFittingItems());
+	}
+
+	private static List<Integer> sortedIndexes(List<Item> items) {
+		List<Integer> indexes = new ArrayList<>();
+		items.forEach(item -> indexes.add(item.getIndex()));
+		Collections.sort(indexes);
+		return indexes;
+	}
+
+	/**
+	 * Builds a package with items of the same weight.
+	 */
+	private static ItemPackage itemPackage(int maxWeight, int itemCount, int itemWeight) {
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= itemCount; index++) {
+			items.add(new Item(index, itemWeight, index));
+		}
+		return new ItemPackage(maxWeight, items);
+	}
+
+}
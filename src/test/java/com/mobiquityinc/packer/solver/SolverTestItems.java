@@ -0,0 +1,86 @@
+package com.mobiquityinc.packer.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.mobiquityinc.model.Item;
+
+/**
+ * Item helpers shared by the solver tests.
+ *
+ * @author dfjmax
+ *
+ */
+final class SolverTestItems {
+
+	private SolverTestItems() {
+	}
+
+	/**
+	 * Returns the indexes of the given items in the same order.
+	 *
+	 * @param items
+	 * @return the item indexes.
+	 */
+	static List<Integer> indexes(List<Item> items) {
+		List<Integer> indexes = new ArrayList<>();
+		for (Item item : items) {
+			indexes.add(item.getIndex());
+		}
+		return indexes;
+	}
+
+	/**
+	 * Returns the indexes of the given items in ascending order, for solvers
+	 * that don't keep the item order.
+	 *
+	 * @param items
+	 * @return the sorted item indexes.
+	 */
+	static List<Integer> sortedIndexes(List<Item> items) {
+		List<Integer> indexes = indexes(items);
+		indexes.sort(null);
+		return indexes;
+	}
+
+	/**
+	 * Creates between 1 and maxItems items with a random weight up to
+	 * maxWeight and a random cost below maxCost.
+	 *
+	 * @param random
+	 * @param maxItems
+	 * @param maxWeight
+	 * @param maxCost
+	 * @return the items, indexed from 1.
+	 */
+	static List<Item> randomItems(Random random, int maxItems, float maxWeight, int maxCost) {
+		int itemCount = 1 + random.nextInt(maxItems);
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= itemCount; index++) {
+			items.add(new Item(index, random.nextFloat() * maxWeight, random.nextInt(maxCost)));
+		}
+		return items;
+	}
+
+	/**
+	 * Creates between 1 and maxItems items with few distinct costs, so there are
+	 * many ties. With roundWeights the weights are multiples of 5 as well.
+	 *
+	 * @param random
+	 * @param maxItems
+	 * @param maxWeight
+	 * @param roundWeights
+	 * @return the items, indexed from 1.
+	 */
+	static List<Item> tiedItems(Random random, int maxItems, int maxWeight, boolean roundWeights) {
+		int itemCount = 1 + random.nextInt(maxItems);
+		List<Item> items = new ArrayList<>();
+		for (int index = 1; index <= itemCount; index++) {
+			float weight = roundWeights ? random.nextInt(maxWeight + 1) / 5 * 5 : random.nextFloat() * maxWeight;
+			items.add(new Item(index, weight, random.nextInt(10)));
+		}
+		return items;
+	}
+
+}
@@ -1,13 +1,26 @@
 package com.mobiquityinc.reader;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.mobiquityinc.exception.APIException;
 import com.mobiquityinc.model.ItemPackage;
@@ -24,6 +37,9 @@ public class InputFileReaderUnitTest {
 	private File testCasesFile;
 	private InputFileReader reader;
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	/**
 	 * Setup the test file class to be used in all the tests.
 	 */
@@ -56,6 +72,51 @@ public class InputFileReaderUnitTest {
 		this.reader.read(this.testCasesFile.getAbsolutePath());
 	}
 
+	@Test
+	public void stream_validFile_shouldParseEveryLineInOrder() throws APIException {
+		try (Stream<ItemPackage> itemPackages = this.reader.stream(this.testCasesFile.getAbsolutePath())) {
+			List<Integer> maxWeights = itemPackages.map(ItemPackage::getMaxWeight).collect(Collectors.toList());
+			assertEquals(Arrays.asList(8100, 800, 7500, 5600), maxWeights);
+		}
+	}
+
+	@Test
+	public void stream_withInvalidLine_shouldParseLinesBeforeIt() throws IOException {
+		File inputFile = this.temporaryFolder.newFile();
+		Files.write(inputFile.toPath(), Arrays.asList("8 : (1,15.3,€34)", "invalid line"), UTF_8);
+		try (Stream<ItemPackage> stream = this.reader.stream(inputFile.getAbsolutePath())) {
+			Iterator<ItemPackage> itemPackages = stream.iterator();
+			assertNotNull("First line should be parsed", itemPackages.next());
+			try {
+				itemPackages.next();
+				fail("Invalid line should throw an exception");
+			} catch (APIException e) {
+				// Expected, lines are parsed only when requested
+			}
+		}
+	}
+
+	@Test
+	public void lines_withInvalidLine_shouldReturnItWithoutParsing() throws IOException {
+		File inputFile = this.temporaryFolder.newFile();
+		Files.write(inputFile.toPath(), Arrays.asList("8 : (1,15.3,€34)", "invalid line"), UTF_8);
+		try (Stream<String> lines = this.reader.lines(inputFile.getAbsolutePath())) {
+			assertEquals(Arrays.asList("8 : (1,15.3,€34)", "invalid line"), lines.collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void forEach_validFile_shouldPassEveryPackage() throws APIException {
+		List<ItemPackage> itemPackages = new ArrayList<>();
+		this.reader.forEach(this.testCasesFile.getAbsolutePath(), itemPackages::add);
+		assertEquals(4, itemPackages.size());
+	}
+
+	@Test(expected = APIException.class)
+	public void stream_invalidFile_shouldThrowException() throws APIException {
+		this.reader.stream("c://");
+	}
+
 	@Test(expected = APIException.class)
 	public void read_invalidFile_shouldThrowException() throws APIException {
 		this.reader.read("c://");
@@ -0,0 +1,165 @@
+package com.mobiquityinc.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.model.Item;
+import com.mobiquityinc.model.ItemPackage;
+
+/**
+ * Test suite for the {@link LineParser} class.
+ * 
+ * The parser is compared against the regular expression based parser it
+ * replaced, which is kept here as a reference.
+ * 
+ * @author dfjmax
+ *
+ */
+public class LineParserUnitTest {
+
+	private static final String legacyLineRegex = "^\\d+\\s*?:\\s*\\(\\s*\\d+\\s*,\\s*\\d*\\.{0,1}\\d+\\s*,\\s*€\\d*\\.{0,1}\\d+\\s*\\).*$";
+	private static final Pattern legacyItemRegex = Pattern.compile("\\((\\d+),(\\d+\\.?\\d*?),(\\d+)\\)");
+
+	private static final String fragments[] = { "0", "1", "5", "9", "10", "100", ".", ",", "(", ")", " ", "€", ":",
+			"\t", "a", "-", "\r", ".0000", ".9999", "00001", "(3,4.5,€6)", "2147483648" };
+
+	private LineParser parser;
+
+	@Before
+	public void setUp() {
+		this.parser = new LineParser();
+	}
+
+	@Test
+	public void parse_validLine_shouldExtractItems() {
+		ItemPackage itemPackage = this.parser.parse("81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3)");
+		assertEquals(8100, itemPackage.getMaxWeight());
+		assertEquals("[1:5300:45.0, 3:7800:3.0]", describe(itemPackage.getItems()));
+	}
+
+	@Test
+	public void parse_itemsAfterSecondColon_shouldBeIgnored() {
+		ItemPackage itemPackage = this.parser.parse("50 : (1,10,€45) : (2,20,€98)");
+		assertEquals("[1:1000:45.0]", describe(itemPackage.getItems()));
+	}
+
+	@Test
+	public void parse_weightsCloseToAnInteger_shouldBehaveAsFloats() {
+		ItemPackage itemPackage = this.parser.parse("50 : (1,49.999999999,€1) (2,50.000000001,€2) (3,50.00001,€3)");
+		assertEquals("[1:5000:1.0, 2:5000:2.0]", describe(itemPackage.getItems()));
+	}
+
+	@Test(expected = APIException.class)
+	public void parse_withTabBeforeColon_shouldThrowException() {
+		this.parser.parse("50\t: (1,10,€45)");
+	}
+
+	@Test(expected = APIException.class)
+	public void parse_withIndexOverflow_shouldThrowException() {
+		this.parser.parse("50 : (1,10,€45) (2147483648,10,€45)");
+	}
+
+	@Test
+	public void isValid_withCostDecimals_shouldReturnTrue() {
+		assertTrue(this.parser.isValid("50 : (1, .5 , €4.5 ) anything"));
+	}
+
+	@Test
+	public void isValid_withLineTerminator_shouldReturnFalse() {
+		assertFalse(this.parser.isValid("50 : (1,10,€45)\r"));
+	}
+
+	@Test
+	public void parse_randomLines_shouldMatchLegacyParser() {
+		Random random = new Random(7);
+		for (int test = 0; test < 50000; test++) {
+			String line = mutate(random, randomValidLine(random));
+			assertEquals("Line: " + line, legacyParse(line), parse(line));
+		}
+	}
+
+	private String parse(String line) {
+		try {
+			ItemPackage itemPackage = this.parser.parse(line);
+			return itemPackage.getMaxWeight() + " " + describe(itemPackage.getItems());
+		} catch (APIException e) {
+			return "rejected";
+		}
+	}
+
+	private static String legacyParse(String line) {
+		try {
+			if (!line.matches(legacyLineRegex)) {
+				return "rejected";
+			}
+			String parameters[] = line.replaceAll("[ €]", "").split(":");
+			int maxPackageWeight = Integer.parseInt(parameters[0]);
+			List<Item> items = new LinkedList<>();
+			Matcher itemMatcher = legacyItemRegex.matcher(parameters[1]);
+			while (itemMatcher.find()) {
+				Integer index = Integer.valueOf(itemMatcher.group(1));
+				Float weight = Float.valueOf(itemMatcher.group(2));
+				Float cost = Float.valueOf(itemMatcher.group(3));
+				if (weight <= maxPackageWeight) {
+					items.add(new Item(index, weight, cost));
+				}
+			}
+			ItemPackage itemPackage = new ItemPackage(maxPackageWeight, items);
+			return itemPackage.getMaxWeight() + " " + describe(itemPackage.getItems());
+		} catch (APIException | NumberFormatException e) {
+			return "rejected";
+		}
+	}
+
+	private static String describe(List<Item> items) {
+		List<String> descriptions = new LinkedList<>();
+		items.forEach(item -> descriptions.add(item.getIndex() + ":" + item.getWeight() + ":" + item.getCost()));
+		return descriptions.toString();
+	}
+
+	private static String randomValidLine(Random random) {
+		StringBuilder sb = new StringBuilder().append(random.nextInt(120)).append(" :");
+		for (int index = 1; index <= 1 + random.nextInt(6); index++) {
+			sb.append(" (").append(index).append(',').append(random.nextInt(110));
+			if (random.nextBoolean()) {
+				sb.append('.').append(random.nextInt(100));
+			}
+			sb.append(",€").append(random.nextInt(110)).append(')');
+		}
+		return sb.toString();
+	}
+
+	private static String mutate(Random random, String line) {
+		StringBuilder sb = new StringBuilder(line);
+		for (int mutation = random.nextInt(4); mutation > 0; mutation--) {
+			int pos = random.nextInt(sb.length() + 1);
+			switch (random.nextInt(3)) {
+			case 0:
+				sb.insert(pos, fragments[random.nextInt(fragments.length)]);
+				break;
+			case 1:
+				if (pos < sb.length()) {
+					sb.deleteCharAt(pos);
+				}
+				break;
+			default:
+				if (pos < sb.length()) {
+					sb.replace(pos, pos + 1, fragments[random.nextInt(fragments.length)]);
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+}
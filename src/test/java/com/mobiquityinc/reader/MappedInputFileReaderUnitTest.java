@@ -0,0 +1,81 @@
+package com.mobiquityinc.reader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.mobiquityinc.exception.APIException;
+import com.mobiquityinc.reader.MappedInputFileReader.Chunk;
+
+/**
+ * Test suite for the {@link MappedInputFileReader} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class MappedInputFileReaderUnitTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void chunks_withSmallChunkSize_shouldContainCompleteLinesInOrder() {
+		String testCasesFile = new File("src/test/resources/integration-test-cases").getAbsolutePath();
+		try (MappedInputFileReader reader = new MappedInputFileReader(testCasesFile, 10)) {
+			assertEquals(Arrays.asList(8100, 800, 7500, 5600), maxWeights(reader));
+		}
+	}
+
+	@Test
+	public void chunks_withLargeChunkSize_shouldReturnSingleChunk() {
+		String testCasesFile = new File("src/test/resources/integration-test-cases").getAbsolutePath();
+		try (MappedInputFileReader reader = new MappedInputFileReader(testCasesFile)) {
+			Iterator<Chunk> chunks = reader.chunks();
+			assertEquals(0, chunks.next().getStart());
+			assertEquals(false, chunks.hasNext());
+		}
+	}
+
+	@Test
+	public void chunks_withWindowsLineEndingsAndNoFinalNewLine_shouldParseEveryLine() throws IOException {
+		File inputFile = this.temporaryFolder.newFile();
+		Files.write(inputFile.toPath(), "8 : (1,15.3,€34)\r\n20 : (1,15.3,€34)\r\n30 : (1,15.3,€34)".getBytes(UTF_8));
+		for (int chunkSize = 1; chunkSize < 40; chunkSize++) {
+			try (MappedInputFileReader reader = new MappedInputFileReader(inputFile.getAbsolutePath(), chunkSize)) {
+				assertEquals(Arrays.asList(800, 2000, 3000), maxWeights(reader));
+			}
+		}
+	}
+
+	@Test(expected = APIException.class)
+	public void chunks_withInvalidLine_shouldThrowException() throws IOException {
+		File inputFile = this.temporaryFolder.newFile();
+		Files.write(inputFile.toPath(), Arrays.asList("8 : (1,15.3,€34)", "8 : €"), UTF_8);
+		try (MappedInputFileReader reader = new MappedInputFileReader(inputFile.getAbsolutePath())) {
+			maxWeights(reader);
+		}
+	}
+
+	@Test(expected = APIException.class)
+	public void newMappedInputFileReader_invalidFile_shouldThrowException() {
+		new MappedInputFileReader("c://");
+	}
+
+	private static List<Integer> maxWeights(MappedInputFileReader reader) {
+		List<Integer> maxWeights = new ArrayList<>();
+		reader.chunks().forEachRemaining(chunk -> chunk.forEach(itemPackage -> maxWeights.add(itemPackage.getMaxWeight())));
+		return maxWeights;
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.mobiquityinc.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mobiquityinc.packer.Packer;
+
+/**
+ * Test suite for the {@link PackingServer} class.
+ * 
+ * @author dfjmax
+ *
+ */
+public class PackingServerUnitTest {
+
+	private ExecutorService solverThreads;
+	private PackingServer server;
+
+	@Before
+	public void setUp() {
+		this.solverThreads = Executors.newFixedThreadPool(4);
+		this.server = new PackingServer(0, this.solverThreads);
+		this.server.start();
+	}
+
+	@After
+	public void tearDown() {
+		this.server.close();
+		this.solverThreads.shutdownNow();
+	}
+
+	@Test
+	public void serve_withTestCasesFileLines_shouldAnswerEveryLine() throws IOException {
+		List<String> lines = Files.readAllLines(Paths.get("src/test/resources/integration-test-cases"), UTF_8);
+		try (Socket socket = connect()) {
+			send(socket, String.join("\n", lines) + "\n");
+			BufferedReader reader = reader(socket);
+			assertEquals("4", reader.readLine());
+			assertEquals("-", reader.readLine());
+			assertEquals("2,7", reader.readLine());
+			assertEquals("8,9", reader.readLine());
+		}
+	}
+
+	@Test
+	public void serve_withInvalidLine_shouldAnswerErrorAndKeepTheConnection() throws IOException {
+		try (Socket socket = connect()) {
+			send(socket, "invalid line\r\n8 : (1,15.3,€34)\n");
+			BufferedReader reader = reader(socket);
+			assertTrue(reader.readLine().startsWith(PackingServer.errorPrefix));
+			assertEquals("-", reader.readLine());
+		}
+	}
+
+	@Test
+	public void serve_withManyPipelinedLines_shouldAnswerInOrder() throws IOException {
+		int lineCount = 5 * PackingServer.maxPendingLines;
+		StringBuilder input = new StringBuilder();
+		String[] expected = new String[lineCount];
+		for (int i = 0; i < lineCount; i++) {
+			String line = (i % 100) + " : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9)";
+			input.append(line).append('\n');
+			expected[i] = Packer.packLine(line);
+		}
+		try (Socket socket = connect()) {
+			// Written from another thread, answers are read while the lines are sent
+			Thread writer = new Thread(() -> {
+				try {
+					send(socket, input.toString());
+					socket.shutdownOutput();
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			writer.start();
+			BufferedReader reader = reader(socket);
+			for (int i = 0; i < lineCount; i++) {
+				assertEquals("Answer " + i, expected[i], reader.readLine());
+			}
+			// The connection is closed after the last answer
+			assertNull(reader.readLine());
+		}
+	}
+
+	@Test
+	public void serve_withTooLongLine_shouldAnswerErrorAndKeepTheConnection() throws IOException {
+		StringBuilder longLine = new StringBuilder("100 :");
+		while (longLine.length() <= PackingServer.maxLineLength) {
+			longLine.append(" (1,53.38,€45)");
+		}
+		try (Socket socket = connect()) {
+			Thread writer = new Thread(() -> {
+				try {
+					send(socket, longLine + "\n8 : (1,15.3,€34)\n" + longLine);
+					socket.shutdownOutput();
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			writer.start();
+			BufferedReader reader = reader(socket);
+			assertEquals(PackingServer.errorPrefix + "The line is longer than " + PackingServer.maxLineLength
+					+ " bytes.", reader.readLine());
+			assertEquals("-", reader.readLine());
+			assertTrue(reader.readLine().startsWith(PackingServer.errorPrefix));
+			assertNull(reader.readLine());
+		}
+	}
+
+	@Test
+	public void serve_withClientReadingAfterSendingAllLines_shouldAnswerEveryLine() throws Exception {
+		int lineCount = 20 * PackingServer.maxPendingLines;
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < lineCount; i++) {
+			input.append(i % 100).append(" : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3)\n");
+		}
+		try (Socket socket = connect()) {
+			// The answers are not read while the lines are sent, so the server stops reading
+			Thread writer = new Thread(() -> {
+				try {
+					send(socket, input.toString());
+					socket.shutdownOutput();
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			writer.start();
+			Thread.sleep(200);
+			BufferedReader reader = reader(socket);
+			for (int i = 0; i < lineCount; i++) {
+				assertEquals("Answer " + i, Packer.packLine((i % 100) + " : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3)"),
+						reader.readLine());
+			}
+			assertNull(reader.readLine());
+			writer.join();
+		}
+	}
+
+	private Socket connect() throws IOException {
+		return new Socket(InetAddress.getLoopbackAddress(), this.server.getPort());
+	}
+
+	private static void send(Socket socket, String text) throws IOException {
+		OutputStream output = socket.getOutputStream();
+		output.write(text.getBytes(UTF_8));
+		output.flush();
+	}
+
+	private static BufferedReader reader(Socket socket) throws IOException {
+		return new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+	}
+
+}